@@ -0,0 +1,119 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.apache.commons.cli.BasicParser;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.OptionBuilder;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryLoader;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Class containing main method to compile text dictionaries into the
+ * binary form loaded by the validators. By default the compiled file is
+ * written next to the text file so that the validators find it.
+ */
+public final class DictionaryCompiler {
+  public static void main(String[] args) {
+    System.exit(run(args));
+  }
+
+  /**
+   * Compile the dictionaries given as the command line arguments.
+   *
+   * @param args command line arguments
+   * @return exit status, 0 on success
+   */
+  static int run(String[] args) {
+    Options options = new Options();
+    options.addOption("h", "help", false, "help");
+
+    options.addOption("k", "key-value", false,
+        "compile TSV dictionaries with a word and its value per line");
+
+    OptionBuilder.withLongOpt("output");
+    OptionBuilder.withDescription(
+        "compiled file, only for a single input file");
+    OptionBuilder.hasArg();
+    OptionBuilder.withArgName("OUTPUT FILE");
+    options.addOption(OptionBuilder.create("o"));
+
+    CommandLineParser parser = new BasicParser();
+    CommandLine commandLine = null;
+
+    try {
+      commandLine = parser.parse(options, args);
+    } catch (ParseException e) {
+      LOG.error("Error occurred in parsing command line options ");
+      printHelp(options);
+      return -1;
+    }
+
+    String[] inputFileNames = commandLine.getArgs();
+    if (commandLine.hasOption("h") || inputFileNames.length == 0) {
+      printHelp(options);
+      return 0;
+    }
+    if (commandLine.hasOption("o") && inputFileNames.length > 1) {
+      LOG.error("The output file is given for multiple input files.");
+      return -1;
+    }
+
+    boolean keyValue = commandLine.hasOption("k");
+    for (String inputFileName : inputFileNames) {
+      File output = commandLine.hasOption("o")
+          ? new File(commandLine.getOptionValue("o"))
+          : DictionaryLoader.getCompiledFile(inputFileName);
+      CompiledDictionary dictionary =
+          DictionaryLoader.compileText(inputFileName, keyValue);
+      if (dictionary == null) {
+        LOG.error("Failed to load dictionary: " + inputFileName);
+        return -1;
+      }
+      try {
+        dictionary.write(output);
+      } catch (IOException e) {
+        LOG.error("Failed to write compiled dictionary: " + e.getMessage());
+        return -1;
+      }
+      LOG.info("Compiled " + dictionary.size() + " entries into " + output);
+    }
+    return 0;
+  }
+
+  private static void printHelp(Options opt) {
+    HelpFormatter formatter = new HelpFormatter();
+    formatter.printHelp("DictionaryCompiler [OPTIONS] DICTIONARY-FILES", opt);
+  }
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DictionaryCompiler.class);
+
+  private DictionaryCompiler() {
+    super();
+  }
+}
@@ -30,9 +30,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.unigram.docvalidator.parser.Parser;
 import org.unigram.docvalidator.formatter.Formatter;
+import org.unigram.docvalidator.distributor.CachingResultDistributor;
 import org.unigram.docvalidator.distributor.ResultDistributor;
 import org.unigram.docvalidator.distributor.ResultDistributorFactory;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * Class containing main method called from command line.
  */
@@ -64,6 +68,22 @@ public final class Main {
     OptionBuilder.withArgName("RESULT FORMAT");
     options.addOption(OptionBuilder.create("r"));
 
+    OptionBuilder.withLongOpt("threads");
+    OptionBuilder.withDescription("number of threads to validate documents");
+    OptionBuilder.hasArg();
+    OptionBuilder.withArgName("THREADS");
+    options.addOption(OptionBuilder.create("t"));
+
+    OptionBuilder.withLongOpt("cache");
+    OptionBuilder.withDescription(
+        "directory to cache the results of unchanged input files");
+    OptionBuilder.hasArg();
+    OptionBuilder.withArgName("CACHE DIRECTORY");
+    options.addOption(OptionBuilder.create("C"));
+
+    options.addOption("s", "stream", false,
+        "validate documents while parsing the input files");
+
     options.addOption("v", "version", false,
         "print the version information and exit");
 
@@ -82,6 +102,7 @@ public final class Main {
     String[] inputFileNames = null;
     String configFileName = "";
     String resultFormat = "plain";
+    int threadNumber = 1;
     Parser.Type parserType;
     Formatter.Type outputFormat;
 
@@ -105,6 +126,19 @@ public final class Main {
     if (commandLine.hasOption("r")) {
       resultFormat = commandLine.getOptionValue("r");
     }
+    if (commandLine.hasOption("t")) {
+      try {
+        threadNumber = Integer.valueOf(commandLine.getOptionValue("t"));
+      } catch (NumberFormatException e) {
+        threadNumber = 0;
+      }
+      if (threadNumber < 1) {
+        LOG.error("The number of threads must be a positive integer: "
+            + commandLine.getOptionValue("t"));
+        printHelp(options);
+        System.exit(-1);
+      }
+    }
 
     ConfigurationLoader configLoader = new ConfigurationLoader();
     Configuration conf = configLoader.loadConfiguration(configFileName);
@@ -116,23 +150,61 @@ public final class Main {
     parserType = Parser.Type.valueOf(inputFormat.toUpperCase());
     outputFormat = Formatter.Type.valueOf(resultFormat.toUpperCase());
 
-    DocumentCollection documentCollection =
-        DocumentGenerator.generate(inputFileNames, conf, parserType);
-
-    if (documentCollection == null) {
-      LOG.error("Failed to create a DocumentCollection object");
-      System.exit(-1);
-    }
     ResultDistributor distributor =
         ResultDistributorFactory.createDistributor(outputFormat, System.out);
 
+    CachingResultDistributor cachingDistributor = null;
+    if (commandLine.hasOption("C")) {
+      try {
+        ResultCache cache = new ResultCache(
+            new File(commandLine.getOptionValue("C")),
+            ResultCache.createFingerprint(conf, parserType));
+        cachingDistributor = new CachingResultDistributor(distributor, cache,
+            inputFileNames);
+      } catch (IOException e) {
+        LOG.error("Failed to open the result cache: " + e.getMessage());
+        System.exit(-1);
+      }
+      distributor = cachingDistributor;
+      inputFileNames = cachingDistributor.getChangedFileNames();
+    }
+
     DocumentValidator validator = new DocumentValidator.Builder()
         .setConfiguration(conf)
         .setResultDistributor(distributor)
+        .setParallelism(threadNumber)
         .build();
 
-    validator.check(documentCollection);
+    if (commandLine.hasOption("s")) {
+      DocumentStream documentStream = DocumentGenerator.generateStream(
+          inputFileNames, conf, parserType, DocumentStream.DEFAULT_CAPACITY);
+      if (documentStream == null) {
+        LOG.error("Failed to create a DocumentStream object");
+        System.exit(-1);
+      }
+      validator.check(documentStream);
+      if (documentStream.getFailure() != null) {
+        LOG.error("Failed to parse the input files: "
+            + documentStream.getFailure().getMessage());
+        System.exit(-1);
+      }
+    } else {
+      DocumentCollection documentCollection =
+          DocumentGenerator.generate(inputFileNames, conf, parserType);
+      if (documentCollection == null) {
+        LOG.error("Failed to create a DocumentCollection object");
+        System.exit(-1);
+      }
+      validator.check(documentCollection);
+    }
 
+    if (cachingDistributor != null) {
+      try {
+        cachingDistributor.store();
+      } catch (IOException e) {
+        LOG.warn("Failed to store the result cache: " + e.getMessage());
+      }
+    }
     System.exit(0);
   }
 
@@ -0,0 +1,94 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.unigram.docvalidator.util.AhoCorasickMatcher;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DictionaryCompilerTest {
+
+  @Before
+  public void setUp() throws IOException {
+    dictionaryFile = File.createTempFile("dictionary", ".txt");
+  }
+
+  @After
+  public void tearDown() {
+    DictionaryLoader.getCompiledFile(dictionaryFile.getPath()).delete();
+    dictionaryFile.delete();
+  }
+
+  @Test
+  public void testCompiledWordListIsLoaded() throws IOException {
+    FileUtils.writeStringToFile(dictionaryFile, "cake\npiece\n", "UTF-8");
+    assertEquals(0, DictionaryCompiler.run(
+        new String[] {dictionaryFile.getPath()}));
+    File compiled = DictionaryLoader.getCompiledFile(dictionaryFile.getPath());
+    assertTrue(CompiledDictionary.isCompiled(compiled));
+    assertEquals(compiled,
+        DictionaryLoader.getLoadedFile(dictionaryFile.getPath()));
+
+    CompiledDictionary dictionary =
+        DictionaryLoader.loadWordList(dictionaryFile.getPath());
+    assertEquals(Arrays.asList("cake", "piece"), dictionary.getKeys());
+    final List<String> matches = new ArrayList<String>();
+    final AhoCorasickMatcher matcher = dictionary.getMatcher();
+    matcher.match("a piece of a cake", new AhoCorasickMatcher.MatchListener() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        matches.add(matcher.getPattern(patternId) + ":" + start);
+      }
+    });
+    assertEquals(Arrays.asList("piece:2", "cake:13"), matches);
+  }
+
+  @Test
+  public void testCompiledKeyValuesAreLoaded() throws IOException {
+    FileUtils.writeStringToFile(dictionaryFile, "info\tinformation\n",
+        "UTF-8");
+    assertEquals(0, DictionaryCompiler.run(
+        new String[] {"-k", dictionaryFile.getPath()}));
+
+    CompiledDictionary dictionary =
+        DictionaryLoader.loadKeyValues(dictionaryFile.getPath());
+    assertTrue(dictionary.hasValues());
+    assertEquals("information", dictionary.get("info"));
+  }
+
+  @Test
+  public void testMissingDictionaryFails() {
+    assertEquals(-1, DictionaryCompiler.run(
+        new String[] {dictionaryFile.getPath() + ".missing"}));
+  }
+
+  private File dictionaryFile;
+}
@@ -0,0 +1,154 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.benchmark;
+
+import org.unigram.docvalidator.config.CharacterTable;
+import org.unigram.docvalidator.config.CharacterTableLoader;
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.parser.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generate the inputs of benchmarks in English and Japanese.
+ */
+final class BenchmarkInputs {
+  /**
+   * Create a configuration having the character table of the language.
+   *
+   * @param language "en" or "ja"
+   * @return configuration without validators
+   */
+  static Configuration createConfiguration(String language) {
+    CharacterTable characterTable = CharacterTableLoader.load(
+        toStream("<character-table></character-table>"), language);
+    return new Configuration(new ValidatorConfiguration("Validator"),
+        characterTable);
+  }
+
+  /**
+   * Get the characters ending sentences in the language.
+   *
+   * @param language "en" or "ja"
+   * @return list of full stop characters
+   */
+  static List<String> getFullStops(String language) {
+    List<String> fullStops = new ArrayList<String>();
+    if ("ja".equals(language)) {
+      fullStops.add("。");
+      fullStops.add("？");
+      fullStops.add("！");
+    } else {
+      fullStops.add(".");
+      fullStops.add("?");
+      fullStops.add("!");
+    }
+    return fullStops;
+  }
+
+  /**
+   * Create a line containing the given number of sentences.
+   *
+   * @param language      "en" or "ja"
+   * @param sentenceCount number of sentences
+   * @return line of sentences
+   */
+  static String createLine(String language, int sentenceCount) {
+    String[] sentences = "ja".equals(language) ? JAPANESE : ENGLISH;
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < sentenceCount; i++) {
+      line.append(sentences[i % sentences.length]);
+    }
+    return line.toString();
+  }
+
+  /**
+   * Create a document in the format. Each section consists of a header,
+   * a paragraph of three lines and a list of two items.
+   *
+   * @param format       input format
+   * @param language     "en" or "ja"
+   * @param sectionCount number of sections
+   * @return content of the document
+   */
+  static String createDocument(Parser.Type format, String language,
+                               int sectionCount) {
+    StringBuilder document = new StringBuilder();
+    for (int i = 0; i < sectionCount; i++) {
+      String header = "Section " + i;
+      String item = createLine(language, 1);
+      switch (format) {
+        case WIKI:
+          document.append("h1. ").append(header).append('\n');
+          break;
+        case MARKDOWN:
+          document.append("# ").append(header).append('\n');
+          break;
+        default:
+          break;
+      }
+      document.append('\n');
+      for (int j = 0; j < 3; j++) {
+        document.append(createLine(language, 3)).append('\n');
+      }
+      document.append('\n');
+      if (format != Parser.Type.PLAIN) {
+        document.append("- ").append(item).append('\n');
+        document.append("- ").append(item).append('\n');
+        document.append('\n');
+      }
+    }
+    return document.toString();
+  }
+
+  /**
+   * Convert a string into a stream of UTF-8.
+   *
+   * @param str input string
+   * @return input stream
+   */
+  static ByteArrayInputStream toStream(String str) {
+    try {
+      return new ByteArrayInputStream(str.getBytes("UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException("UTF-8 is not supported", e);
+    }
+  }
+
+  private static final String[] ENGLISH = {
+      "This is a sample sentence written for the benchmark. ",
+      "Does the parser split the sentences correctly? ",
+      "The version 1.0 of the tool was released in 2014! ",
+      "It is a piece of a cake. "
+  };
+
+  private static final String[] JAPANESE = {
+      "これはベンチマークのために書かれた文です。",
+      "パーサは文を正しく分割できるでしょうか？",
+      "バージョン1.0は2014年に公開されました！",
+      "それは朝飯前です。"
+  };
+
+  private BenchmarkInputs() {
+    super();
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unigram.docvalidator.util.BitParallelEditDistance;
+import org.unigram.docvalidator.util.LevenshteinDistance;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of LevenshteinDistance and BitParallelEditDistance on pairs
+ * of similar Katakana words.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EditDistanceBenchmark {
+
+  /**
+   * Length of the words.
+   */
+  @Param({"8", "32", "64"})
+  public int length;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1);
+    words = new String[WORD_COUNT];
+    for (int i = 0; i < WORD_COUNT; i += 2) {
+      StringBuilder word = new StringBuilder();
+      for (int j = 0; j < length; j++) {
+        word.append((char) ('ァ' + random.nextInt(KATAKANA_COUNT)));
+      }
+      words[i] = word.toString();
+      // a variant with a substitution
+      word.setCharAt(random.nextInt(length),
+          (char) ('ァ' + random.nextInt(KATAKANA_COUNT)));
+      words[i + 1] = word.toString();
+    }
+  }
+
+  @Benchmark
+  public int levenshteinDistance() {
+    int sum = 0;
+    for (int i = 0; i < WORD_COUNT; i += 2) {
+      sum += LevenshteinDistance.getDistance(words[i], words[i + 1]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int bitParallelEditDistance() {
+    int sum = 0;
+    for (int i = 0; i < WORD_COUNT; i += 2) {
+      sum += BitParallelEditDistance.getDistance(words[i], words[i + 1]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int boundedLevenshteinDistance() {
+    int sum = 0;
+    for (int i = 0; i < WORD_COUNT; i += 2) {
+      sum += LevenshteinDistance.getDistance(words[i], words[i + 1],
+          MAX_DISTANCE);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int boundedBitParallelEditDistance() {
+    int sum = 0;
+    for (int i = 0; i < WORD_COUNT; i += 2) {
+      sum += BitParallelEditDistance.getDistance(words[i], words[i + 1],
+          MAX_DISTANCE);
+    }
+    return sum;
+  }
+
+  private static final int WORD_COUNT = 100;
+
+  private static final int KATAKANA_COUNT = 86;
+
+  private static final int MAX_DISTANCE = 2;
+
+  private String[] words;
+}
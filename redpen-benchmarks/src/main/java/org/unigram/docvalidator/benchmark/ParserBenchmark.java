@@ -0,0 +1,81 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unigram.docvalidator.DocumentValidatorException;
+import org.unigram.docvalidator.model.Document;
+import org.unigram.docvalidator.parser.DocumentParserFactory;
+import org.unigram.docvalidator.parser.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of PlainTextParser, WikiParser and MarkdownParser.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+  @Param({"PLAIN", "WIKI", "MARKDOWN"})
+  public String format;
+
+  @Param({"en", "ja"})
+  public String language;
+
+  /**
+   * Number of sections in the input document.
+   */
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  @Setup
+  public void setUp() throws DocumentValidatorException,
+      UnsupportedEncodingException {
+    Parser.Type type = Parser.Type.valueOf(format);
+    parser = DocumentParserFactory.generate(type,
+        BenchmarkInputs.createConfiguration(language));
+    input = BenchmarkInputs.createDocument(type, language, size)
+        .getBytes("UTF-8");
+  }
+
+  @Benchmark
+  public Document parse() throws DocumentValidatorException {
+    return parser.generateDocument(new ByteArrayInputStream(input));
+  }
+
+  private Parser parser;
+
+  private byte[] input;
+}
@@ -0,0 +1,93 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.parser.SentenceExtractor;
+import org.unigram.docvalidator.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark of SentenceExtractor.extract and
+ * StringUtils.getSentenceEndPosition.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentenceExtractorBenchmark {
+
+  @Param({"en", "ja"})
+  public String language;
+
+  /**
+   * Number of sentences in the input line.
+   */
+  @Param({"1", "10", "100"})
+  public int size;
+
+  @Setup
+  public void setUp() {
+    List<String> fullStops = BenchmarkInputs.getFullStops(language);
+    extractor = new SentenceExtractor(fullStops);
+    StringBuilder pattern = new StringBuilder();
+    for (String fullStop : fullStops) {
+      if (pattern.length() > 0) {
+        pattern.append('|');
+      }
+      pattern.append(Pattern.quote(fullStop));
+    }
+    fullStopPattern = Pattern.compile(pattern.toString());
+    line = BenchmarkInputs.createLine(language, size);
+  }
+
+  @Benchmark
+  public List<Sentence> extract() {
+    List<Sentence> sentences = new ArrayList<Sentence>();
+    extractor.extract(line, sentences);
+    return sentences;
+  }
+
+  @Benchmark
+  public int getSentenceEndPosition() {
+    return StringUtils.getSentenceEndPosition(line, fullStopPattern);
+  }
+
+  private SentenceExtractor extractor;
+
+  private Pattern fullStopPattern;
+
+  private String line;
+}
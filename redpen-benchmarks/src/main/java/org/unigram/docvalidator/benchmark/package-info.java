@@ -0,0 +1,5 @@
+/**
+ * contains JMH benchmarks of parsers, sentence extraction and edit
+ * distances.
+ */
+package org.unigram.docvalidator.benchmark;
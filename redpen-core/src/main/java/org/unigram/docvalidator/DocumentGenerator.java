@@ -60,6 +60,31 @@ public final class DocumentGenerator {
     return documentCollection;
   }
 
+  /**
+   * Generate a DocumentStream which parses the input files in a background
+   * thread. Unlike generate, the documents can be validated while the
+   * remaining files are parsed.
+   *
+   * @param inputFileNames input file names
+   * @param configuration  configuration
+   * @param format         input file format
+   * @param capacity       maximum number of parsed documents waiting for
+   *                       validation
+   * @return a DocumentStream object, null when failed to create the parser
+   */
+  static DocumentStream generateStream(String[] inputFileNames,
+                                       Configuration configuration,
+                                       Parser.Type format, int capacity) {
+    Parser docparser;
+    try {
+      docparser = DocumentParserFactory.generate(format, configuration);
+    } catch (DocumentValidatorException e) {
+      LOG.error("Failed to create documentCollection parser: " + e.getMessage());
+      return null;
+    }
+    return new DocumentStream(inputFileNames, docparser, capacity);
+  }
+
   private static final Logger LOG =
       LoggerFactory.getLogger(DocumentGenerator.class);
 
@@ -0,0 +1,154 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.unigram.docvalidator.model.Document;
+import org.unigram.docvalidator.parser.Parser;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterator of documents parsed in a background thread. Parsed documents
+ * are passed through a bounded queue, so the parser waits when the
+ * validation falls behind, and the number of documents kept in memory does
+ * not depend on the number of input files.
+ *
+ * When an input file fails to be parsed, the stream ends after the
+ * documents parsed before, and the cause is given by getFailure.
+ */
+public final class DocumentStream implements Iterator<Document> {
+  /**
+   * Default number of parsed documents waiting for validation.
+   */
+  public static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * Constructor. The parsing starts immediately.
+   *
+   * @param inputFileNames input file names
+   * @param parser         parser to generate documents
+   * @param capacity       maximum number of documents waiting in the queue
+   */
+  DocumentStream(final String[] inputFileNames, final Parser parser,
+                 int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          "capacity must be positive: " + capacity);
+    }
+    this.queue = new ArrayBlockingQueue<Document>(capacity);
+    this.producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          for (String inputFileName : inputFileNames) {
+            queue.put(parser.generateDocument(inputFileName));
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+          LOG.error("Failed to parse input file: " + e.getMessage());
+          failure = e;
+        } finally {
+          // the consumer waits for the end even when the parser failed;
+          // an interrupted stream is closed and nobody waits
+          try {
+            if (!Thread.currentThread().isInterrupted()) {
+              queue.put(END_OF_STREAM);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+    }, "document-stream");
+    this.producer.setDaemon(true);
+    this.producer.start();
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = take();
+    }
+    if (next == END_OF_STREAM) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public Document next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Document document = next;
+    next = null;
+    return document;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Get the error which stopped parsing the input files. The result is
+   * final once hasNext returned false.
+   *
+   * @return error thrown by the parser, null when all the input files were
+   *         parsed
+   */
+  public Throwable getFailure() {
+    return failure;
+  }
+
+  /**
+   * Stop parsing the remaining input files.
+   */
+  public void close() {
+    producer.interrupt();
+  }
+
+  private Document take() {
+    try {
+      return queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting documents",
+          e);
+    }
+  }
+
+  private static final Document END_OF_STREAM = new Document();
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DocumentStream.class);
+
+  private final BlockingQueue<Document> queue;
+
+  private final Thread producer;
+
+  private volatile Throwable failure;
+
+  private Document next;
+}
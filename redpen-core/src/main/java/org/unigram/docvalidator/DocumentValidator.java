@@ -32,15 +32,41 @@ import org.unigram.docvalidator.model.ListElement;
 import org.unigram.docvalidator.model.Paragraph;
 import org.unigram.docvalidator.model.Section;
 import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DigestUtils;
+import org.unigram.docvalidator.validator.ReleasableValidator;
+import org.unigram.docvalidator.validator.StatefulValidator;
+import org.unigram.docvalidator.validator.ValidationContext;
 import org.unigram.docvalidator.validator.Validator;
+import org.unigram.docvalidator.validator.section.CollectingSectionValidator;
 import org.unigram.docvalidator.validator.section.SectionValidator;
+import org.unigram.docvalidator.validator.section.SectionValidatorAdapter;
 import org.unigram.docvalidator.validator.section.SectionValidatorFactory;
+import org.unigram.docvalidator.validator.sentence.CharacterVisitingValidator;
+import org.unigram.docvalidator.validator.sentence.CharacterVisitor;
+import org.unigram.docvalidator.validator.sentence.CollectingSentenceValidator;
+import org.unigram.docvalidator.validator.sentence.DictionaryMatchVisitor;
+import org.unigram.docvalidator.validator.sentence.DictionaryMatchingValidator;
 import org.unigram.docvalidator.validator.sentence.SentenceValidator;
+import org.unigram.docvalidator.validator.sentence.SentenceValidatorAdapter;
 import org.unigram.docvalidator.validator.sentence.SentenceValidatorFactory;
+import org.unigram.docvalidator.validator.sentence.SharedDictionaryMatcher;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Validate all input files using appended Validators.
@@ -50,12 +76,31 @@ public class DocumentValidator implements Validator {
   private DocumentValidator(Builder builder) throws DocumentValidatorException {
     Configuration configuration = builder.configuration;
     this.distributor = builder.distributor;
+    this.parallelism = builder.parallelism;
+    this.statisticsEnabled = builder.statisticsEnabled;
+    this.splitThreshold = builder.splitThreshold;
+    this.sentenceCache = builder.sentenceCache;
 
     validators = new ArrayList<Validator>();
-    sectionValidators = new ArrayList<SectionValidator>();
-    sentenceValidators = new ArrayList<SentenceValidator>();
+    sectionValidators = new ArrayList<CollectingSectionValidator>();
+    sentenceValidators = new ArrayList<CollectingSentenceValidator>();
+    characterVisitingValidators =
+        new ArrayList<CharacterVisitingValidator>();
+    dictionaryMatchingValidators =
+        new ArrayList<DictionaryMatchingValidator>();
+    statistics = new ArrayList<ValidatorStatistics>();
+    validatorStatistics = new ArrayList<ValidatorStatistics>();
+    sectionStatistics = new ArrayList<ValidatorStatistics>();
+    sentenceStatistics = new ArrayList<ValidatorStatistics>();
+    characterVisitingStatistics = new ArrayList<ValidatorStatistics>();
+    dictionaryMatchingStatistics = new ArrayList<ValidatorStatistics>();
 
     loadValidators(configuration);
+    this.fingerprint = sentenceCache == null
+        ? null : createFingerprint(configuration);
+    // merged once all the validators are loaded
+    dictionaryMatcher = new SharedDictionaryMatcher(
+        dictionaryMatchingValidators);
   }
 
   /**
@@ -68,13 +113,13 @@ public class DocumentValidator implements Validator {
     //TODO duplicate code...
     for (ValidatorConfiguration config : configuration
         .getSectionValidatorConfigs()) {
-      sectionValidators.add(SectionValidatorFactory
+      addSectionValidator(SectionValidatorFactory
           .getInstance(config, configuration.getCharacterTable()));
     }
 
     for (ValidatorConfiguration config : configuration
         .getSentenceValidatorConfigs()) {
-      sentenceValidators.add(SentenceValidatorFactory
+      addSentenceValidator(SentenceValidatorFactory
           .getInstance(config, configuration.getCharacterTable()));
     }
 
@@ -84,6 +129,26 @@ public class DocumentValidator implements Validator {
 
   }
 
+  /**
+   * Create the fingerprint sharing the sentence cache. In addition to the
+   * configuration, it covers the contents of the dictionaries loaded by
+   * the validators, so that a cache shared with validators loading other
+   * versions of the dictionaries does not replay their errors.
+   */
+  private String createFingerprint(Configuration configuration) {
+    StringBuilder description = new StringBuilder(
+        configuration.getFingerprint());
+    for (DictionaryMatchingValidator validator
+        : dictionaryMatchingValidators) {
+      CompiledDictionary dictionary = validator.getPatternDictionary();
+      description.append('|');
+      if (dictionary != null) {
+        description.append(dictionary.getDigest());
+      }
+    }
+    return DigestUtils.sha1Hex(description.toString());
+  }
+
   /**
    * Validate the input document collection.
    *
@@ -91,6 +156,18 @@ public class DocumentValidator implements Validator {
    * @return list of validation errors
    */
   public List<ValidationError> check(DocumentCollection documentCollection) {
+    return check(documentCollection.iterator());
+  }
+
+  /**
+   * Validate the documents as they are given by the iterator. Combined with
+   * DocumentStream, the documents are validated while the rest of input
+   * files are parsed.
+   *
+   * @param documents iterator of input documents
+   * @return list of validation errors
+   */
+  public List<ValidationError> check(Iterator<Document> documents) {
     distributor.flushHeader();
     List<ValidationError> errors = new ArrayList<ValidationError>();
 //    for (Validator validator : this.validators) {
@@ -109,12 +186,13 @@ public class DocumentValidator implements Validator {
 //      }
 //    }
 
-    for (Document document : documentCollection) {
-      errors = validateDocument(document);
-
-      for (ValidationError error : errors) {
-        error.setFileName(document.getFileName());
-        distributor.flushResult(error);
+    if (parallelism > 1) {
+      errors = checkInParallel(documents);
+    } else {
+      while (documents.hasNext()) {
+        Document document = documents.next();
+        errors = validateDocument(document);
+        flushErrors(document, errors);
       }
     }
 
@@ -122,54 +200,514 @@ public class DocumentValidator implements Validator {
     return errors;
   }
 
-  private List<ValidationError> validateDocument(Document document) {
+  /**
+   * Validate the documents concurrently with a fixed size thread pool.
+   * The results are flushed in the order of the input documents. The number
+   * of tasks submitted to the pool at a time is bounded so that the
+   * documents are not taken from the iterator faster than validated.
+   *
+   * @param documents iterator of input documents
+   * @return list of validation errors of the last document
+   */
+  private List<ValidationError> checkInParallel(Iterator<Document> documents) {
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    Queue<PendingDocument> pendingDocuments =
+        new LinkedList<PendingDocument>();
+    int pendingTasks = 0;
     List<ValidationError> errors = new ArrayList<ValidationError>();
-    for (Validator validator : validators) {
-      errors.addAll(validator.validate(document));
+    try {
+      while (documents.hasNext()) {
+        PendingDocument pending = submit(executor, documents.next());
+        pendingDocuments.add(pending);
+        pendingTasks += pending.getTaskCount();
+        while (pendingTasks >= parallelism * MAX_PENDING_PER_THREAD) {
+          PendingDocument oldest = pendingDocuments.poll();
+          pendingTasks -= oldest.getTaskCount();
+          errors = oldest.getErrors();
+          flushErrors(oldest.document, errors);
+        }
+      }
+      while (!pendingDocuments.isEmpty()) {
+        PendingDocument oldest = pendingDocuments.poll();
+        errors = oldest.getErrors();
+        flushErrors(oldest.document, errors);
+      }
+    } finally {
+      executor.shutdownNow();
     }
+    return errors;
+  }
 
+  /**
+   * Submit the tasks to validate a document. A document with more sentences
+   * than the split threshold is validated section by section, while the
+   * document validators and the stateful validators are applied to the
+   * whole document in a task of its own, since they depend on the order
+   * of the sentences.
+   */
+  private PendingDocument submit(ExecutorService executor,
+                                 final Document document) {
+    if (document.getNumberOfSections() < 2
+        || countSentences(document) < splitThreshold) {
+      return new PendingDocument(document, executor.submit(
+          new Callable<List<List<ValidationError>>>() {
+            @Override
+            public List<List<ValidationError>> call() {
+              return Collections.singletonList(validateDocument(document));
+            }
+          }),
+          Collections.<Future<List<ValidationError>>>emptyList());
+    }
+
+    List<Future<List<ValidationError>>> sectionResults =
+        new ArrayList<Future<List<ValidationError>>>();
+    for (final Section section : document) {
+      sectionResults.add(executor.submit(
+          new Callable<List<ValidationError>>() {
+            @Override
+            public List<ValidationError> call() {
+              return validateSectionPart(section);
+            }
+          }));
+    }
+    return new PendingDocument(document, executor.submit(
+        new Callable<List<List<ValidationError>>>() {
+          @Override
+          public List<List<ValidationError>> call() {
+            return validateSequentialPart(document);
+          }
+        }), sectionResults);
+  }
+
+  private static int countSentences(Document document) {
+    int count = 0;
     for (Section section : document) {
-      errors.addAll(validateSection(section));
+      count += section.getHeaderContentsListSize();
+      for (Paragraph paragraph : section.getParagraphs()) {
+        count += paragraph.getNumberOfSentences();
+      }
+      for (ListBlock listBlock : section.getListBlocks()) {
+        for (ListElement listElement : listBlock.getListElements()) {
+          count += listElement.getSentences().size();
+        }
+      }
     }
+    return count;
+  }
+
+  private static <T> T getResult(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Validation was interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Error occurs in validation", cause);
+    }
+  }
+
+  private void flushErrors(Document document, List<ValidationError> errors) {
+    for (ValidationError error : errors) {
+      error.setFileName(document.getFileName());
+      distributor.flushResult(error);
+    }
+  }
+
+  /**
+   * Validate a document. A new ValidationContext is bound to the current
+   * thread while the document is validated, so that stateful validators
+   * keep their state per document.
+   */
+  private List<ValidationError> validateDocument(Document document) {
+    ValidationContext previous = ValidationContext.bind(
+        new ValidationContext());
+    try {
+      return validateDocumentInContext(document);
+    } finally {
+      ValidationContext.bind(previous);
+    }
+  }
+
+  private List<ValidationError> validateDocumentInContext(Document document) {
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    StatisticsRecorder recorder = createRecorder();
+    validateWithDocumentValidators(document, errors, recorder);
+    for (Section section : document) {
+      validateSection(section, errors, recorder, Scope.ALL);
+    }
+    mergeRecorder(recorder);
     return errors;
   }
 
-  private List<ValidationError> validateSection(Section section) {
+  /**
+   * Apply the document validators and the stateful validators to a split
+   * document in a new ValidationContext.
+   *
+   * @return errors of the document validators followed by the errors of
+   * the stateful validators for each section
+   */
+  private List<List<ValidationError>> validateSequentialPart(
+      Document document) {
+    List<List<ValidationError>> results =
+        new ArrayList<List<ValidationError>>();
+    ValidationContext previous = ValidationContext.bind(
+        new ValidationContext());
+    try {
+      StatisticsRecorder recorder = createRecorder();
+      List<ValidationError> errors = new ArrayList<ValidationError>();
+      validateWithDocumentValidators(document, errors, recorder);
+      results.add(errors);
+      for (Section section : document) {
+        errors = new ArrayList<ValidationError>();
+        validateSection(section, errors, recorder, Scope.STATEFUL);
+        results.add(errors);
+      }
+      mergeRecorder(recorder);
+    } finally {
+      ValidationContext.bind(previous);
+    }
+    return results;
+  }
+
+  /**
+   * Apply the stateless validators to a section of a split document.
+   */
+  private List<ValidationError> validateSectionPart(Section section) {
     List<ValidationError> errors = new ArrayList<ValidationError>();
-    for (SectionValidator sectionValidator : sectionValidators) {
-      errors.addAll(sectionValidator.validate(section));
+    StatisticsRecorder recorder = createRecorder();
+    validateSection(section, errors, recorder, Scope.STATELESS);
+    mergeRecorder(recorder);
+    return errors;
+  }
+
+  private StatisticsRecorder createRecorder() {
+    if (statisticsEnabled) {
+      return new StatisticsRecorder(statistics.size());
+    }
+    return null;
+  }
+
+  private void mergeRecorder(StatisticsRecorder recorder) {
+    if (recorder != null) {
+      recorder.mergeInto(statistics);
+    }
+  }
+
+  private void validateWithDocumentValidators(Document document,
+                                              List<ValidationError> errors,
+                                              StatisticsRecorder recorder) {
+    for (int i = 0; i < validators.size(); i++) {
+      if (recorder == null) {
+        errors.addAll(validators.get(i).validate(document));
+      } else {
+        long start = System.nanoTime();
+        List<ValidationError> result = validators.get(i).validate(document);
+        recorder.record(validatorStatistics.get(i),
+            System.nanoTime() - start, result.size());
+        errors.addAll(result);
+      }
+    }
+  }
+
+  private void validateSection(Section section,
+                               List<ValidationError> errors,
+                               StatisticsRecorder recorder,
+                               Scope scope) {
+    for (int i = 0; i < sectionValidators.size(); i++) {
+      if (!scope.includes(sectionValidators.get(i))) {
+        continue;
+      }
+      if (recorder == null) {
+        sectionValidators.get(i).validate(section, errors);
+      } else {
+        int errorCount = errors.size();
+        long start = System.nanoTime();
+        sectionValidators.get(i).validate(section, errors);
+        recorder.record(sectionStatistics.get(i),
+            System.nanoTime() - start, errors.size() - errorCount);
+      }
     }
 
     for (Paragraph paragraph : section.getParagraphs()) {
-      errors.addAll(validateParagraph(paragraph));
+      validateParagraph(paragraph, errors, recorder, scope);
     }
 
 
-    errors.addAll(validateSentences(section.getHeaderContents()));
+    validateSentences(section.getHeaderContents(), errors, recorder, scope);
 
     for (ListBlock listBlock : section.getListBlocks()) {
       for (ListElement listElement : listBlock.getListElements()) {
-        errors.addAll(validateSentences(listElement.getSentences()));
+        validateSentences(listElement.getSentences(), errors, recorder,
+            scope);
       }
 
     }
-    return errors;
   }
 
-  private List<ValidationError> validateParagraph(Paragraph paragraph) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    errors.addAll(validateSentences(paragraph.getSentences()));
-    return errors;
+  private void validateParagraph(Paragraph paragraph,
+                                 List<ValidationError> errors,
+                                 StatisticsRecorder recorder,
+                                 Scope scope) {
+    validateSentences(paragraph.getSentences(), errors, recorder, scope);
   }
 
-  private List<ValidationError> validateSentences(List<Sentence> sentences) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    for (SentenceValidator sentenceValidator : sentenceValidators) {
+  /**
+   * Validate the sentences one by one applying all the sentence validators
+   * to a sentence before moving to the next one. When a SentenceResultCache
+   * is given, the errors of the stateless validators are replayed for the
+   * sentences found in the cache, and only the stateful validators are
+   * applied to them.
+   */
+  private void validateSentences(List<Sentence> sentences,
+                                 List<ValidationError> errors,
+                                 StatisticsRecorder recorder,
+                                 Scope scope) {
+    if (sentenceCache == null || scope == Scope.STATEFUL) {
+      SentencePass pass = new SentencePass(scope);
       for (Sentence sentence : sentences) {
-        errors.addAll(sentenceValidator.validate(sentence));
+        validateSentence(sentence, errors, recorder, pass);
+      }
+      return;
+    }
+
+    SentencePass statelessPass = new SentencePass(Scope.STATELESS);
+    SentencePass statefulPass = null;
+    if (scope == Scope.ALL) {
+      statefulPass = new SentencePass(Scope.STATEFUL);
+    }
+    List<ValidationError> sentenceErrors = new ArrayList<ValidationError>();
+    for (Sentence sentence : sentences) {
+      if (!sentenceCache.replay(fingerprint, sentence, errors)) {
+        sentenceErrors.clear();
+        validateSentence(sentence, sentenceErrors, recorder, statelessPass);
+        sentenceCache.put(fingerprint, sentence, sentenceErrors);
+        errors.addAll(sentenceErrors);
+      }
+      if (statefulPass != null) {
+        validateSentence(sentence, errors, recorder, statefulPass);
       }
     }
-    return errors;
+  }
+
+  /**
+   * Apply the sentence validators in the scope of a pass to a sentence.
+   * The sentence is scanned only once for all the
+   * DictionaryMatchingValidators and once for all the
+   * CharacterVisitingValidators. When the statistics are recorded, the
+   * CharacterVisitingValidators scan the sentence separately to be timed,
+   * while the time of the shared dictionary scan is divided among the
+   * DictionaryMatchingValidators.
+   */
+  private void validateSentence(Sentence sentence,
+                                List<ValidationError> errors,
+                                StatisticsRecorder recorder,
+                                SentencePass pass) {
+    for (int i = 0; i < sentenceValidators.size(); i++) {
+      if (!pass.scope.includes(sentenceValidators.get(i))) {
+        continue;
+      }
+      if (recorder == null) {
+        sentenceValidators.get(i).validate(sentence, errors);
+      } else {
+        int errorCount = errors.size();
+        long start = System.nanoTime();
+        sentenceValidators.get(i).validate(sentence, errors);
+        recorder.record(sentenceStatistics.get(i),
+            System.nanoTime() - start, errors.size() - errorCount);
+      }
+    }
+
+    if (pass.matching.length > 0) {
+      matchDictionaries(sentence, errors, recorder, pass);
+    }
+
+    CharacterVisitor[] visitors = pass.visitors;
+    if (visitors.length == 0) {
+      return;
+    }
+    if (recorder == null) {
+      for (int i = 0; i < visitors.length; i++) {
+        visitors[i] = characterVisitingValidators.get(pass.visiting[i])
+            .createVisitor(sentence, errors);
+      }
+      scanCharacters(sentence, visitors);
+    } else {
+      for (int index : pass.visiting) {
+        int errorCount = errors.size();
+        long start = System.nanoTime();
+        scanCharacters(sentence, characterVisitingValidators.get(index)
+            .createVisitor(sentence, errors));
+        recorder.record(characterVisitingStatistics.get(index),
+            System.nanoTime() - start, errors.size() - errorCount);
+      }
+    }
+  }
+
+  private void matchDictionaries(Sentence sentence,
+                                 List<ValidationError> errors,
+                                 StatisticsRecorder recorder,
+                                 SentencePass pass) {
+    DictionaryMatchVisitor[] visitors = pass.matchVisitors;
+    if (recorder == null) {
+      for (int index : pass.matching) {
+        visitors[index] = dictionaryMatchingValidators.get(index)
+            .createMatchVisitor(sentence, errors);
+      }
+      dictionaryMatcher.match(sentence.content, visitors);
+      for (int index : pass.matching) {
+        visitors[index].finish();
+      }
+    } else {
+      // each validator collects its own errors to be counted
+      if (pass.matchErrors == null) {
+        pass.matchErrors = new ArrayList<List<ValidationError>>();
+        for (int i = 0; i < visitors.length; i++) {
+          pass.matchErrors.add(new ArrayList<ValidationError>());
+        }
+        pass.matchNanoTimes = new long[visitors.length];
+      }
+      for (int index : pass.matching) {
+        List<ValidationError> validatorErrors = pass.matchErrors.get(index);
+        validatorErrors.clear();
+        long start = System.nanoTime();
+        visitors[index] = dictionaryMatchingValidators.get(index)
+            .createMatchVisitor(sentence, validatorErrors);
+        pass.matchNanoTimes[index] = System.nanoTime() - start;
+      }
+      long start = System.nanoTime();
+      dictionaryMatcher.match(sentence.content, visitors);
+      long scanNanoTime = (System.nanoTime() - start) / pass.matching.length;
+      for (int index : pass.matching) {
+        List<ValidationError> validatorErrors = pass.matchErrors.get(index);
+        start = System.nanoTime();
+        visitors[index].finish();
+        recorder.record(dictionaryMatchingStatistics.get(index),
+            pass.matchNanoTimes[index] + scanNanoTime
+                + System.nanoTime() - start, validatorErrors.size());
+        errors.addAll(validatorErrors);
+      }
+    }
+  }
+
+  private static int[] selectValidators(List<?> validators, Scope scope) {
+    int count = 0;
+    int[] selected = new int[validators.size()];
+    for (int i = 0; i < selected.length; i++) {
+      if (scope.includes(validators.get(i))) {
+        selected[count++] = i;
+      }
+    }
+    return count == selected.length ? selected
+        : Arrays.copyOf(selected, count);
+  }
+
+  private static void scanCharacters(Sentence sentence,
+                                     CharacterVisitor[] visitors) {
+    String content = sentence.content;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      for (CharacterVisitor visitor : visitors) {
+        visitor.visit(c, i);
+      }
+    }
+    for (CharacterVisitor visitor : visitors) {
+      visitor.finish();
+    }
+  }
+
+  private static void scanCharacters(Sentence sentence,
+                                     CharacterVisitor visitor) {
+    String content = sentence.content;
+    for (int i = 0; i < content.length(); i++) {
+      visitor.visit(content.charAt(i), i);
+    }
+    visitor.finish();
+  }
+
+  /**
+   * Get the matcher scanning the sentences for all the
+   * DictionaryMatchingValidators.
+   *
+   * @return matcher
+   */
+  SharedDictionaryMatcher getDictionaryMatcher() {
+    return dictionaryMatcher;
+  }
+
+  /**
+   * Get the statistics of the validators. The statistics are recorded only
+   * when enabled with Builder.setStatisticsEnabled.
+   *
+   * @return statistics of the validators in the order of registration
+   */
+  public List<ValidatorStatistics> getStatistics() {
+    return Collections.unmodifiableList(statistics);
+  }
+
+  /**
+   * Release the resources, such as shared dictionaries, held by the
+   * validators. The DocumentValidator must not be used after it is closed.
+   */
+  public void close() {
+    List<Object> registered = new ArrayList<Object>();
+    registered.addAll(validators);
+    registered.addAll(sectionValidators);
+    registered.addAll(sentenceValidators);
+    registered.addAll(dictionaryMatchingValidators);
+    registered.addAll(characterVisitingValidators);
+    for (Object validator : registered) {
+      Object unwrapped = unwrap(validator);
+      if (unwrapped instanceof ReleasableValidator) {
+        ((ReleasableValidator) unwrapped).release();
+      }
+    }
+  }
+
+  /* the validator wrapped by an adapter, or the validator itself */
+  private static Object unwrap(Object validator) {
+    if (validator instanceof SentenceValidatorAdapter) {
+      return ((SentenceValidatorAdapter) validator).getValidator();
+    } else if (validator instanceof SectionValidatorAdapter) {
+      return ((SectionValidatorAdapter) validator).getValidator();
+    }
+    return validator;
+  }
+
+  private ValidatorStatistics createStatistics(Object validator) {
+    ValidatorStatistics created = new ValidatorStatistics(
+        statistics.size(), validator.getClass().getSimpleName());
+    statistics.add(created);
+    return created;
+  }
+
+  /**
+   * Register a sentence validator. The validators which scan sentences
+   * character by character and the ones matching dictionaries are kept
+   * apart from the others.
+   */
+  private void addSentenceValidator(SentenceValidator validator) {
+    if (validator instanceof CharacterVisitingValidator) {
+      characterVisitingValidators.add((CharacterVisitingValidator) validator);
+      characterVisitingStatistics.add(createStatistics(validator));
+    } else if (validator instanceof DictionaryMatchingValidator) {
+      dictionaryMatchingValidators.add(
+          (DictionaryMatchingValidator) validator);
+      dictionaryMatchingStatistics.add(createStatistics(validator));
+    } else {
+      sentenceValidators.add(SentenceValidatorAdapter.adapt(validator));
+      sentenceStatistics.add(createStatistics(validator));
+    }
+  }
+
+  private void addSectionValidator(SectionValidator validator) {
+    sectionValidators.add(SectionValidatorAdapter.adapt(validator));
+    sectionStatistics.add(createStatistics(validator));
   }
 
   /**
@@ -180,8 +718,25 @@ public class DocumentValidator implements Validator {
         .createDistributor(Formatter.Type.PLAIN,
             System.out);
     this.validators = new ArrayList<Validator>();
-    sectionValidators = new ArrayList<SectionValidator>();
-    sentenceValidators = new ArrayList<SentenceValidator>();
+    sectionValidators = new ArrayList<CollectingSectionValidator>();
+    sentenceValidators = new ArrayList<CollectingSentenceValidator>();
+    characterVisitingValidators =
+        new ArrayList<CharacterVisitingValidator>();
+    dictionaryMatchingValidators =
+        new ArrayList<DictionaryMatchingValidator>();
+    dictionaryMatcher = new SharedDictionaryMatcher(
+        dictionaryMatchingValidators);
+    statistics = new ArrayList<ValidatorStatistics>();
+    validatorStatistics = new ArrayList<ValidatorStatistics>();
+    sectionStatistics = new ArrayList<ValidatorStatistics>();
+    sentenceStatistics = new ArrayList<ValidatorStatistics>();
+    characterVisitingStatistics = new ArrayList<ValidatorStatistics>();
+    dictionaryMatchingStatistics = new ArrayList<ValidatorStatistics>();
+    this.parallelism = 1;
+    this.statisticsEnabled = false;
+    this.splitThreshold = DEFAULT_SPLIT_THRESHOLD;
+    this.sentenceCache = null;
+    this.fingerprint = null;
   }
 
   /**
@@ -191,6 +746,7 @@ public class DocumentValidator implements Validator {
    */
   protected void appendValidator(Validator validator) {
     this.validators.add(validator);
+    validatorStatistics.add(createStatistics(validator));
   }
 
   @Override
@@ -199,7 +755,177 @@ public class DocumentValidator implements Validator {
   }
 
   public void appendSectionValidator(SectionValidator validator) {
-    sectionValidators.add(validator);
+    addSectionValidator(validator);
+  }
+
+  /**
+   * Validators applied in a pass over sections. Stateful validators must
+   * see the sentences of a document in order and in a single
+   * ValidationContext, so they are not applied to split sections.
+   */
+  private enum Scope {
+    ALL, STATELESS, STATEFUL;
+
+    boolean includes(Object validator) {
+      if (this == ALL) {
+        return true;
+      }
+      return isStateful(validator) == (this == STATEFUL);
+    }
+
+    private static boolean isStateful(Object validator) {
+      return unwrap(validator) instanceof StatefulValidator;
+    }
+  }
+
+  /**
+   * Validators in a scope and the buffers to apply them to sentences.
+   */
+  private final class SentencePass {
+
+    SentencePass(Scope scope) {
+      this.scope = scope;
+      this.matching = selectValidators(dictionaryMatchingValidators, scope);
+      this.matchVisitors =
+          new DictionaryMatchVisitor[dictionaryMatchingValidators.size()];
+      this.visiting = selectValidators(characterVisitingValidators, scope);
+      this.visitors = new CharacterVisitor[visiting.length];
+    }
+
+    private final Scope scope;
+
+    /* indices of the DictionaryMatchingValidators in the scope */
+    private final int[] matching;
+
+    /* visitors indexed as the DictionaryMatchingValidators */
+    private final DictionaryMatchVisitor[] matchVisitors;
+
+    /* errors and times of the DictionaryMatchingValidators, created when
+     * the statistics are recorded */
+    private List<List<ValidationError>> matchErrors;
+
+    private long[] matchNanoTimes;
+
+    /* indices of the CharacterVisitingValidators in the scope */
+    private final int[] visiting;
+
+    private final CharacterVisitor[] visitors;
+  }
+
+  /**
+   * Results of a document being validated. The errors are merged in the
+   * order of the document: the errors of the document validators first,
+   * then for each section the errors of the stateless and the stateful
+   * validators merged sentence by sentence. The errors on the same sentence
+   * are given by the stateless validators first, as in validateSentences
+   * with a SentenceResultCache.
+   */
+  private static final class PendingDocument {
+
+    PendingDocument(Document document,
+                    Future<List<List<ValidationError>>> sequentialResult,
+                    List<Future<List<ValidationError>>> sectionResults) {
+      this.document = document;
+      this.sequentialResult = sequentialResult;
+      this.sectionResults = sectionResults;
+    }
+
+    int getTaskCount() {
+      return sectionResults.size() + 1;
+    }
+
+    List<ValidationError> getErrors() {
+      List<List<ValidationError>> sequentialErrors =
+          getResult(sequentialResult);
+      List<ValidationError> errors =
+          new ArrayList<ValidationError>(sequentialErrors.get(0));
+      if (sectionResults.isEmpty()) {
+        return errors;
+      }
+      int i = 0;
+      for (Section section : document) {
+        List<ValidationError> statelessErrors =
+            getResult(sectionResults.get(i));
+        List<ValidationError> statefulErrors = sequentialErrors.get(i + 1);
+        if (statelessErrors.isEmpty() || statefulErrors.isEmpty()) {
+          errors.addAll(statelessErrors);
+          errors.addAll(statefulErrors);
+        } else {
+          mergeBySentence(statelessErrors, statefulErrors,
+              indexSentences(section), errors);
+        }
+        i++;
+      }
+      return errors;
+    }
+
+    /**
+     * Merge two lists of errors in the order of their sentences. An error
+     * without a known sentence keeps the rank of the error before it, so
+     * that the errors of the section validators stay at the head.
+     */
+    private static void mergeBySentence(List<ValidationError> first,
+                                        List<ValidationError> second,
+                                        Map<Sentence, Integer> order,
+                                        List<ValidationError> errors) {
+      int[] firstRanks = rank(first, order);
+      int[] secondRanks = rank(second, order);
+      int i = 0;
+      int j = 0;
+      while (i < firstRanks.length && j < secondRanks.length) {
+        if (firstRanks[i] <= secondRanks[j]) {
+          errors.add(first.get(i++));
+        } else {
+          errors.add(second.get(j++));
+        }
+      }
+      errors.addAll(first.subList(i, first.size()));
+      errors.addAll(second.subList(j, second.size()));
+    }
+
+    private static int[] rank(List<ValidationError> errors,
+                              Map<Sentence, Integer> order) {
+      int[] ranks = new int[errors.size()];
+      int rank = -1;
+      for (int i = 0; i < ranks.length; i++) {
+        Sentence sentence = errors.get(i).getSentence();
+        Integer index = sentence == null ? null : order.get(sentence);
+        if (index != null) {
+          rank = index;
+        }
+        ranks[i] = rank;
+      }
+      return ranks;
+    }
+
+    /**
+     * Number the sentences of a section in the order of validateSection.
+     */
+    private static Map<Sentence, Integer> indexSentences(Section section) {
+      Map<Sentence, Integer> order = new IdentityHashMap<Sentence, Integer>();
+      for (Paragraph paragraph : section.getParagraphs()) {
+        for (Sentence sentence : paragraph.getSentences()) {
+          order.put(sentence, order.size());
+        }
+      }
+      for (Sentence sentence : section.getHeaderContents()) {
+        order.put(sentence, order.size());
+      }
+      for (ListBlock listBlock : section.getListBlocks()) {
+        for (ListElement listElement : listBlock.getListElements()) {
+          for (Sentence sentence : listElement.getSentences()) {
+            order.put(sentence, order.size());
+          }
+        }
+      }
+      return order;
+    }
+
+    private final Document document;
+
+    private final Future<List<List<ValidationError>>> sequentialResult;
+
+    private final List<Future<List<ValidationError>>> sectionResults;
   }
 
   /**
@@ -213,6 +939,14 @@ public class DocumentValidator implements Validator {
         new PrintStream(System.out)
     );
 
+    private int parallelism = 1;
+
+    private boolean statisticsEnabled = false;
+
+    private int splitThreshold = DEFAULT_SPLIT_THRESHOLD;
+
+    private SentenceResultCache sentenceCache = null;
+
     public Builder setConfiguration(Configuration configuration) {
       this.configuration = configuration;
       return this;
@@ -223,6 +957,67 @@ public class DocumentValidator implements Validator {
       return this;
     }
 
+    /**
+     * Set the number of threads used to validate documents. When the
+     * number is larger than 1, the documents are validated concurrently
+     * and the validators must be thread safe.
+     *
+     * @param threadNumber number of threads (1 by default)
+     * @return this builder
+     */
+    public Builder setParallelism(int threadNumber) {
+      if (threadNumber < 1) {
+        throw new IllegalArgumentException(
+            "parallelism must be positive: " + threadNumber);
+      }
+      this.parallelism = threadNumber;
+      return this;
+    }
+
+    /**
+     * Enable recording the statistics of validators, which are obtained
+     * with DocumentValidator.getStatistics. Recording adds the cost to
+     * read the clock for each invocation of the validators.
+     *
+     * @param enabled true to record the statistics
+     * @return this builder
+     */
+    public Builder setStatisticsEnabled(boolean enabled) {
+      this.statisticsEnabled = enabled;
+      return this;
+    }
+
+    /**
+     * Set the number of sentences from which a document is split into
+     * sections validated concurrently. Splitting takes effect only when
+     * the parallelism is larger than 1.
+     *
+     * @param sentenceNumber number of sentences
+     * @return this builder
+     */
+    public Builder setSplitThreshold(int sentenceNumber) {
+      if (sentenceNumber < 1) {
+        throw new IllegalArgumentException(
+            "split threshold must be positive: " + sentenceNumber);
+      }
+      this.splitThreshold = sentenceNumber;
+      return this;
+    }
+
+    /**
+     * Set the cache of the errors found in sentences. The errors of the
+     * stateless sentence validators are replayed for the sentences whose
+     * content was already validated with the same configuration and the
+     * same contents of the dictionaries.
+     *
+     * @param cache sentence cache, or null not to cache (default)
+     * @return this builder
+     */
+    public Builder setSentenceCache(SentenceResultCache cache) {
+      this.sentenceCache = cache;
+      return this;
+    }
+
     public DocumentValidator build() throws DocumentValidatorException {
       return new DocumentValidator(this);
     }
@@ -230,12 +1025,57 @@ public class DocumentValidator implements Validator {
 
   private final List<Validator> validators;
 
-  private final List<SectionValidator> sectionValidators;
+  private final List<CollectingSectionValidator> sectionValidators;
+
+  private final List<CollectingSentenceValidator> sentenceValidators;
+
+  private final List<CharacterVisitingValidator> characterVisitingValidators;
+
+  private final List<ValidatorStatistics> statistics;
+
+  /* statistics of validators in the same order as the validator lists */
+  private final List<ValidatorStatistics> validatorStatistics;
+
+  private final List<ValidatorStatistics> sectionStatistics;
+
+  private final List<ValidatorStatistics> sentenceStatistics;
 
-  private final List<SentenceValidator> sentenceValidators;
+  private final List<ValidatorStatistics> characterVisitingStatistics;
+
+  private final List<DictionaryMatchingValidator>
+      dictionaryMatchingValidators;
+
+  private final List<ValidatorStatistics> dictionaryMatchingStatistics;
+
+  /* automaton merging the patterns of dictionaryMatchingValidators */
+  private final SharedDictionaryMatcher dictionaryMatcher;
 
   private ResultDistributor distributor;
 
+  private final int parallelism;
+
+  private final boolean statisticsEnabled;
+
+  private final int splitThreshold;
+
+  private final SentenceResultCache sentenceCache;
+
+  /* fingerprint of the configuration and the dictionaries to share the
+   * sentence cache, null without the cache */
+  private final String fingerprint;
+
+  /**
+   * Default number of sentences from which a document is split into
+   * sections.
+   */
+  private static final int DEFAULT_SPLIT_THRESHOLD = 1000;
+
+  /**
+   * Number of documents submitted to the thread pool per thread before
+   * waiting for the oldest result.
+   */
+  private static final int MAX_PENDING_PER_THREAD = 2;
+
   private static final Logger LOG =
       LoggerFactory.getLogger(DocumentValidator.class);
 }
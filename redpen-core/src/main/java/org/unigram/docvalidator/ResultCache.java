@@ -0,0 +1,258 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.parser.Parser;
+import org.unigram.docvalidator.util.DictionaryLoader;
+import org.unigram.docvalidator.util.DigestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk cache of the errors found in input files. An entry is keyed by
+ * the digest of the content of a file and the fingerprint of the
+ * configuration, so that the errors of unchanged files are replayed
+ * without parsing and validating them again. An entry which cannot be
+ * read is treated as missing and overwritten.
+ */
+public final class ResultCache {
+
+  /**
+   * Constructor.
+   *
+   * @param directory   directory storing the entries, created if missing
+   * @param fingerprint fingerprint of the configuration
+   * @throws IOException when failed to create the directory
+   */
+  public ResultCache(File directory, String fingerprint) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Failed to create cache directory: "
+          + directory);
+    }
+    this.directory = directory;
+    this.fingerprint = fingerprint;
+    this.contentDigests = new HashMap<String, String>();
+  }
+
+  /**
+   * Create the fingerprint of a configuration. In addition to
+   * Configuration.getFingerprint, the fingerprint covers the input format
+   * and the content of the files, such as dictionaries, given as
+   * attributes of validators, including the compiled dictionaries read
+   * in place of them.
+   *
+   * @param configuration configuration
+   * @param format        input file format
+   * @return fingerprint
+   * @throws IOException when failed to read a file given in the
+   *                     configuration
+   */
+  public static String createFingerprint(Configuration configuration,
+                                         Parser.Type format)
+      throws IOException {
+    StringBuilder description = new StringBuilder();
+    description.append(FORMAT_VERSION).append('|')
+        .append(configuration.getFingerprint()).append('|')
+        .append(format);
+    for (ValidatorConfiguration config
+        : configuration.getSectionValidatorConfigs()) {
+      describeFiles(config, description);
+    }
+    for (ValidatorConfiguration config
+        : configuration.getSentenceValidatorConfigs()) {
+      describeFiles(config, description);
+    }
+    return DigestUtils.sha1Hex(description.toString());
+  }
+
+  private static void describeFiles(ValidatorConfiguration config,
+                                    StringBuilder description)
+      throws IOException {
+    for (String name : config.getAttributes()) {
+      String value = config.getAttribute(name);
+      if (value != null && new File(value).isFile()) {
+        description.append('|').append(value).append('=')
+            .append(DigestUtils.sha1Hex(new File(value)));
+        File loaded = DictionaryLoader.getLoadedFile(value);
+        if (!loaded.equals(new File(value))) {
+          description.append('|').append(loaded).append('=')
+              .append(DigestUtils.sha1Hex(loaded));
+        }
+      }
+    }
+    for (ValidatorConfiguration child : config.getChildren()) {
+      describeFiles(child, description);
+    }
+  }
+
+  /**
+   * Get the cached errors of an input file.
+   *
+   * @param fileName input file name
+   * @return errors of the file, null when the file is not cached or the
+   *         entry is corrupt
+   * @throws IOException when failed to read the file
+   */
+  public List<ValidationError> get(String fileName) throws IOException {
+    File entry = getEntry(fileName);
+    if (!entry.isFile()) {
+      return null;
+    }
+    try {
+      return read(entry, fileName);
+    } catch (IOException e) {
+      LOG.warn("Ignored corrupt cache entry of " + fileName + ": "
+          + e.getMessage());
+      entry.delete();
+      return null;
+    }
+  }
+
+  private static List<ValidationError> read(File entry, String fileName)
+      throws IOException {
+    long limit = entry.length();
+    DataInputStream input = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(entry)));
+    try {
+      int size = readLength(input, limit);
+      List<ValidationError> errors = new ArrayList<ValidationError>(size);
+      for (int i = 0; i < size; i++) {
+        ValidationError error = new ValidationError(
+            readString(input, limit), readString(input, limit),
+            input.readInt());
+        int start = input.readInt();
+        error.setPosition(start, input.readInt());
+        if (input.readBoolean()) {
+          String content = readString(input, limit);
+          error.setSentence(new Sentence(content, input.readInt()));
+        }
+        error.setFileName(fileName);
+        errors.add(error);
+      }
+      if (input.read() != -1) {
+        throw new IOException("Trailing data in cache entry: " + entry);
+      }
+      return errors;
+    } finally {
+      input.close();
+    }
+  }
+
+  /**
+   * Store the errors of an input file.
+   *
+   * @param fileName input file name
+   * @param errors   errors found in the file
+   * @throws IOException when failed to read the file or write the entry
+   */
+  public void put(String fileName, List<ValidationError> errors)
+      throws IOException {
+    File entry = getEntry(fileName);
+    File temporary = new File(directory, entry.getName() + ".tmp");
+    DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(temporary)));
+    try {
+      output.writeInt(errors.size());
+      for (ValidationError error : errors) {
+        writeString(output, error.getValidatorName());
+        writeString(output, error.getMessage());
+        output.writeInt(error.getLineNumber());
+        output.writeInt(error.getStartPosition());
+        output.writeInt(error.getEndPosition());
+        Sentence sentence = error.getSentence();
+        output.writeBoolean(sentence != null);
+        if (sentence != null) {
+          writeString(output, sentence.content);
+          output.writeInt(sentence.position);
+        }
+      }
+    } finally {
+      output.close();
+    }
+    if (!temporary.renameTo(entry)) {
+      entry.delete();
+      if (!temporary.renameTo(entry)) {
+        throw new IOException("Failed to write cache entry: " + entry);
+      }
+    }
+  }
+
+  private File getEntry(String fileName) throws IOException {
+    String contentDigest = contentDigests.get(fileName);
+    if (contentDigest == null) {
+      contentDigest = DigestUtils.sha1Hex(new File(fileName));
+      contentDigests.put(fileName, contentDigest);
+    }
+    return new File(directory,
+        DigestUtils.sha1Hex(fingerprint + '|' + contentDigest));
+  }
+
+  /* strings are written with the length of int since writeUTF is limited
+   * to 64KB */
+  private static void writeString(DataOutputStream output, String str)
+      throws IOException {
+    byte[] bytes = str.getBytes("UTF-8");
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(DataInputStream input, long limit)
+      throws IOException {
+    byte[] bytes = new byte[readLength(input, limit)];
+    input.readFully(bytes);
+    return new String(bytes, "UTF-8");
+  }
+
+  /* lengths are checked against the size of the entry so that a corrupt
+   * entry does not allocate a huge array */
+  private static int readLength(DataInputStream input, long limit)
+      throws IOException {
+    int length = input.readInt();
+    if (length < 0 || length > limit) {
+      throw new IOException("Invalid length in cache entry: " + length);
+    }
+    return length;
+  }
+
+  private static final Logger LOG = LoggerFactory.getLogger(ResultCache.class);
+
+  private static final int FORMAT_VERSION = 2;
+
+  private final File directory;
+
+  private final String fingerprint;
+
+  /* digests of the input files computed in this run */
+  private final Map<String, String> contentDigests;
+}
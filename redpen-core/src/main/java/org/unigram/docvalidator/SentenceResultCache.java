@@ -0,0 +1,195 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of the errors found by stateless sentence validators,
+ * keyed by the content of sentences and the fingerprint of the
+ * configuration, which covers the contents of the dictionaries. The
+ * cached errors are replayed for sentences having the same content, bound
+ * to the new sentence and position. When the cache is full, the least
+ * recently used entry is evicted.
+ *
+ * A cache can be shared by DocumentValidators, including the ones
+ * validating concurrently.
+ */
+public final class SentenceResultCache {
+
+  /**
+   * Constructor.
+   *
+   * @param maxEntries maximum number of cached sentences
+   */
+  public SentenceResultCache(final int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException(
+          "maxEntries must be positive: " + maxEntries);
+    }
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Append the cached errors for the sentence to the list.
+   *
+   * @param fingerprint fingerprint of the configuration
+   * @param sentence    sentence to be validated
+   * @param errors      list to which the errors are appended
+   * @return true when the result of the sentence is cached
+   */
+  boolean replay(String fingerprint, Sentence sentence,
+                 List<ValidationError> errors) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(new Key(fingerprint, sentence));
+      if (entry == null) {
+        missCount++;
+        return false;
+      }
+      hitCount++;
+    }
+    for (ValidationError error : entry.errors) {
+      errors.add(error.copyFor(entry.sentence, sentence));
+    }
+    return true;
+  }
+
+  /**
+   * Store the errors found in the sentence.
+   *
+   * @param fingerprint fingerprint of the configuration
+   * @param sentence    validated sentence
+   * @param errors      errors found in the sentence
+   */
+  void put(String fingerprint, Sentence sentence,
+           List<ValidationError> errors) {
+    Entry entry = new Entry(sentence, Collections.unmodifiableList(
+        new ArrayList<ValidationError>(errors)));
+    synchronized (this) {
+      entries.put(new Key(fingerprint, sentence), entry);
+    }
+  }
+
+  /**
+   * Get the number of cached sentences.
+   *
+   * @return number of entries
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Get the number of sentences whose errors were replayed.
+   *
+   * @return number of hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Get the number of sentences which were not in the cache.
+   *
+   * @return number of misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Remove all the entries.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Sentences are equivalent when the content and the flag of the first
+   * sentence are the same, since the sentence validators depend only on
+   * them.
+   */
+  private static final class Key {
+
+    Key(String fingerprint, Sentence sentence) {
+      this.fingerprint = fingerprint;
+      this.content = sentence.content;
+      this.isFirstSentence = sentence.isFirstSentence;
+      this.hash = (fingerprint.hashCode() * 31 + content.hashCode()) * 2
+          + (isFirstSentence ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return hash == key.hash
+          && isFirstSentence == key.isFirstSentence
+          && content.equals(key.content)
+          && fingerprint.equals(key.fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    private final String fingerprint;
+
+    private final String content;
+
+    private final boolean isFirstSentence;
+
+    private final int hash;
+  }
+
+  private static final class Entry {
+
+    Entry(Sentence sentence, List<ValidationError> errors) {
+      this.sentence = sentence;
+      this.errors = errors;
+    }
+
+    private final Sentence sentence;
+
+    private final List<ValidationError> errors;
+  }
+
+  private final Map<Key, Entry> entries;
+
+  private long hitCount;
+
+  private long missCount;
+}
@@ -0,0 +1,79 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import java.util.List;
+
+/**
+ * Counters for validators used by one thread while validating a document.
+ * The counts are merged into the shared ValidatorStatistics once per
+ * document, so that the threads do not contend on every invocation.
+ */
+final class StatisticsRecorder {
+  /**
+   * Constructor.
+   *
+   * @param validatorNumber number of validators
+   */
+  StatisticsRecorder(int validatorNumber) {
+    invocations = new long[validatorNumber];
+    nanoTimes = new long[validatorNumber];
+    maxNanoTimes = new long[validatorNumber];
+    errors = new long[validatorNumber];
+  }
+
+  /**
+   * Record an invocation of a validator.
+   *
+   * @param statistics statistics of the invoked validator
+   * @param nanoTime   elapsed time in nanoseconds
+   * @param errorCount number of reported errors
+   */
+  void record(ValidatorStatistics statistics, long nanoTime, int errorCount) {
+    int id = statistics.getId();
+    invocations[id]++;
+    nanoTimes[id] += nanoTime;
+    if (maxNanoTimes[id] < nanoTime) {
+      maxNanoTimes[id] = nanoTime;
+    }
+    errors[id] += errorCount;
+  }
+
+  /**
+   * Merge the recorded counts into the shared statistics.
+   *
+   * @param statistics statistics of the validators
+   */
+  void mergeInto(List<ValidatorStatistics> statistics) {
+    for (ValidatorStatistics validatorStatistics : statistics) {
+      int id = validatorStatistics.getId();
+      if (invocations[id] > 0) {
+        validatorStatistics.add(invocations[id], nanoTimes[id],
+            maxNanoTimes[id], errors[id]);
+      }
+    }
+  }
+
+  private final long[] invocations;
+
+  private final long[] nanoTimes;
+
+  private final long[] maxNanoTimes;
+
+  private final long[] errors;
+}
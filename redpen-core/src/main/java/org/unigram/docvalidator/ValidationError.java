@@ -37,6 +37,8 @@ public class ValidationError {
     this.fileName = "";
     this.sentence = null;
     this.validatorName = validatorClass.getSimpleName();
+    this.startPosition = -1;
+    this.endPosition = -1;
   }
 
   /**
@@ -66,6 +68,24 @@ public class ValidationError {
     this.sentence = sentenceWithError;
   }
 
+  /**
+   * Constructor.
+   *
+   * @param validatorClass    validator class
+   * @param errorMessage      error message
+   * @param sentenceWithError sentence containing validation error
+   * @param start             offset of the error in the sentence
+   * @param end               offset of the end of the error (exclusive)
+   */
+  public ValidationError(Class validatorClass,
+                         String errorMessage,
+                         Sentence sentenceWithError,
+                         int start, int end) {
+    this(validatorClass, errorMessage, sentenceWithError);
+    this.startPosition = start;
+    this.endPosition = end;
+  }
+
   /**
    * Constructor.
    *
@@ -96,6 +116,54 @@ public class ValidationError {
     this.fileName = errorFileName;
   }
 
+  /**
+   * Constructor used to restore an error from ResultCache.
+   *
+   * @param validatorName   name of the validator
+   * @param errorMessage    error message
+   * @param errorLineNumber error position (line number)
+   */
+  ValidationError(String validatorName, String errorMessage,
+                  int errorLineNumber) {
+    this.lineNumber = errorLineNumber;
+    this.message = errorMessage;
+    this.fileName = "";
+    this.sentence = null;
+    this.validatorName = validatorName;
+    this.startPosition = -1;
+    this.endPosition = -1;
+  }
+
+  private ValidationError(ValidationError error) {
+    this.lineNumber = error.lineNumber;
+    this.message = error.message;
+    this.fileName = error.fileName;
+    this.sentence = error.sentence;
+    this.validatorName = error.validatorName;
+    this.startPosition = error.startPosition;
+    this.endPosition = error.endPosition;
+  }
+
+  /**
+   * Create a copy of the error for another sentence having the same content
+   * as the sentence the error was found in. The line number is shifted by
+   * the difference of the sentence positions.
+   *
+   * @param original sentence the error was found in
+   * @param target   sentence to which the copy is bound
+   * @return copy of the error
+   */
+  ValidationError copyFor(Sentence original, Sentence target) {
+    ValidationError copy = new ValidationError(this);
+    if (copy.lineNumber >= 0) {
+      copy.lineNumber += target.position - original.position;
+    }
+    if (copy.sentence == original) {
+      copy.sentence = target;
+    }
+    return copy;
+  }
+
   /**
    * Get line number in which the error occurs.
    *
@@ -168,6 +236,35 @@ public class ValidationError {
     this.sentence = sentenceWithError;
   }
 
+  /**
+   * Get the offset of the error in the sentence.
+   *
+   * @return offset of the error, -1 when unknown
+   */
+  public int getStartPosition() {
+    return startPosition;
+  }
+
+  /**
+   * Get the offset of the end of the error in the sentence.
+   *
+   * @return offset next to the last character of the error, -1 when unknown
+   */
+  public int getEndPosition() {
+    return endPosition;
+  }
+
+  /**
+   * Set the offsets of the error in the sentence.
+   *
+   * @param start offset of the error
+   * @param end   offset next to the last character of the error
+   */
+  public void setPosition(int start, int end) {
+    this.startPosition = start;
+    this.endPosition = end;
+  }
+
   /**
    * Get validator name.
    *
@@ -189,6 +286,8 @@ public class ValidationError {
     sb.append(", message='").append(message).append('\'');
     sb.append(", fileName='").append(fileName).append('\'');
     sb.append(", sentence=").append(sentence);
+    sb.append(", startPosition=").append(startPosition);
+    sb.append(", endPosition=").append(endPosition);
     sb.append(", validatorName='").append(validatorName).append('\'');
     sb.append('}');
     return sb.toString();
@@ -203,4 +302,8 @@ public class ValidationError {
   private Sentence sentence;
 
   private final String validatorName;
+
+  private int startPosition;
+
+  private int endPosition;
 }
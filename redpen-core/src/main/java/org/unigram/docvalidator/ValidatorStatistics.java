@@ -0,0 +1,119 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+/**
+ * Statistics of a validator run by DocumentValidator: the number of
+ * invocations, the elapsed time and the number of reported errors.
+ */
+public final class ValidatorStatistics {
+  /**
+   * Constructor.
+   *
+   * @param validatorId   id of the validator in DocumentValidator
+   * @param validatorName name of the validator
+   */
+  ValidatorStatistics(int validatorId, String validatorName) {
+    this.id = validatorId;
+    this.validatorName = validatorName;
+  }
+
+  /**
+   * Get the name of validator.
+   *
+   * @return validator name
+   */
+  public String getValidatorName() {
+    return validatorName;
+  }
+
+  /**
+   * Get the number of times the validator was invoked.
+   *
+   * @return number of invocations
+   */
+  public synchronized long getInvocationCount() {
+    return invocationCount;
+  }
+
+  /**
+   * Get the total time spent in the validator.
+   *
+   * @return elapsed time in nanoseconds
+   */
+  public synchronized long getTotalNanoTime() {
+    return totalNanoTime;
+  }
+
+  /**
+   * Get the longest time spent in one invocation of the validator.
+   *
+   * @return elapsed time in nanoseconds
+   */
+  public synchronized long getMaxNanoTime() {
+    return maxNanoTime;
+  }
+
+  /**
+   * Get the number of errors reported by the validator.
+   *
+   * @return number of errors
+   */
+  public synchronized long getErrorCount() {
+    return errorCount;
+  }
+
+  /**
+   * Add the counts recorded while validating a document.
+   */
+  synchronized void add(long invocations, long nanoTime, long maxNano,
+                        long errors) {
+    this.invocationCount += invocations;
+    this.totalNanoTime += nanoTime;
+    this.maxNanoTime = Math.max(this.maxNanoTime, maxNano);
+    this.errorCount += errors;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  @Override
+  public synchronized String toString() {
+    final StringBuilder sb = new StringBuilder("ValidatorStatistics{");
+    sb.append("validatorName='").append(validatorName).append('\'');
+    sb.append(", invocationCount=").append(invocationCount);
+    sb.append(", totalNanoTime=").append(totalNanoTime);
+    sb.append(", maxNanoTime=").append(maxNanoTime);
+    sb.append(", errorCount=").append(errorCount);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  private final int id;
+
+  private final String validatorName;
+
+  private long invocationCount;
+
+  private long totalNanoTime;
+
+  private long maxNanoTime;
+
+  private long errorCount;
+}
@@ -17,8 +17,13 @@
  */
 package org.unigram.docvalidator.config;
 
+import org.unigram.docvalidator.util.DigestUtils;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Contains Settings used throughout DocumentValidator.
@@ -97,8 +102,56 @@ public final class Configuration {
     return sentenceValidatorConfigs;
   }
 
+  /**
+   * Get the fingerprint of the configuration. Configurations with the same
+   * validators, attributes and characters have the same fingerprint.
+   *
+   * @return hex string of the SHA-1 digest of the configuration
+   */
+  public synchronized String getFingerprint() {
+    if (fingerprint == null) {
+      StringBuilder description = new StringBuilder();
+      for (ValidatorConfiguration config : sectionValidatorConfigs) {
+        describe(config, description);
+      }
+      description.append('|');
+      for (ValidatorConfiguration config : sentenceValidatorConfigs) {
+        describe(config, description);
+      }
+      description.append('|');
+      Map<String, Character> characters = new TreeMap<String, Character>();
+      if (characterTable != null) {
+        characters.putAll(characterTable.getCharacterDictionary());
+      }
+      for (Character character : characters.values()) {
+        description.append(character.getName()).append('=')
+            .append(character.getValue()).append(',')
+            .append(character.getInvalidChars()).append(',')
+            .append(character.isNeedBeforeSpace()).append(',')
+            .append(character.isNeedAfterSpace()).append(';');
+      }
+      fingerprint = DigestUtils.sha1Hex(description.toString());
+    }
+    return fingerprint;
+  }
+
+  private static void describe(ValidatorConfiguration config,
+                               StringBuilder description) {
+    description.append(config.getConfigurationName()).append('(');
+    for (String name : new TreeSet<String>(config.getAttributes())) {
+      description.append(name).append('=')
+          .append(config.getAttribute(name)).append(';');
+    }
+    for (ValidatorConfiguration child : config.getChildren()) {
+      describe(child, description);
+    }
+    description.append(')');
+  }
+
   private final CharacterTable characterTable;
 
+  private String fingerprint;
+
   private final List<ValidatorConfiguration> documentValidatorConfigs =
       new ArrayList<ValidatorConfiguration>();
   private final List<ValidatorConfiguration> sectionValidatorConfigs =
@@ -0,0 +1,161 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.distributor;
+
+import org.unigram.docvalidator.ResultCache;
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.formatter.Formatter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultDistributor replaying the errors of the input files found in a
+ * ResultCache. The changed files are validated as usual and their errors
+ * are stored into the cache with store. The cached errors are interleaved
+ * with them in the order of the input files: the errors of the cached files
+ * preceding a changed file are flushed before its first error, and the
+ * rest before the footer.
+ */
+public class CachingResultDistributor implements ResultDistributor {
+  /**
+   * Constructor.
+   *
+   * @param distributor    distributor to which the errors are flushed
+   * @param cache          cache of the errors
+   * @param inputFileNames input file names
+   * @throws IOException when failed to read the input files or the cache
+   */
+  public CachingResultDistributor(ResultDistributor distributor,
+                                  ResultCache cache,
+                                  String[] inputFileNames)
+      throws IOException {
+    if (distributor == null) {
+      throw new IllegalArgumentException("argument distributor is null");
+    }
+    this.distributor = distributor;
+    this.cache = cache;
+    this.inputFileNames = inputFileNames.clone();
+    this.cachedErrors = new HashMap<String, List<ValidationError>>();
+    this.changedFileErrors =
+        new LinkedHashMap<String, List<ValidationError>>();
+    this.fileIndices = new HashMap<String, Integer>();
+    for (int i = 0; i < inputFileNames.length; i++) {
+      String fileName = inputFileNames[i];
+      List<ValidationError> errors = cache.get(fileName);
+      if (errors == null) {
+        changedFileErrors.put(fileName, new ArrayList<ValidationError>());
+      } else {
+        cachedErrors.put(fileName, errors);
+      }
+      if (!fileIndices.containsKey(fileName)) {
+        fileIndices.put(fileName, i);
+      }
+    }
+  }
+
+  /**
+   * Get the input files which are not found in the cache.
+   *
+   * @return file names to be parsed and validated
+   */
+  public String[] getChangedFileNames() {
+    return changedFileErrors.keySet().toArray(
+        new String[changedFileErrors.size()]);
+  }
+
+  /**
+   * Store the errors flushed for the changed files into the cache.
+   *
+   * @throws IOException when failed to write the cache
+   */
+  public void store() throws IOException {
+    for (Map.Entry<String, List<ValidationError>> entry
+        : changedFileErrors.entrySet()) {
+      cache.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public void flushHeader() {
+    distributor.flushHeader();
+    int firstChanged = inputFileNames.length;
+    if (!changedFileErrors.isEmpty()) {
+      firstChanged = fileIndices.get(
+          changedFileErrors.keySet().iterator().next());
+    }
+    flushCachedErrors(firstChanged);
+  }
+
+  @Override
+  public void flushFooter() {
+    flushCachedErrors(inputFileNames.length);
+    distributor.flushFooter();
+  }
+
+  @Override
+  public int flushResult(ValidationError err) {
+    List<ValidationError> errors = changedFileErrors.get(err.getFileName());
+    if (errors != null) {
+      errors.add(err);
+      flushCachedErrors(fileIndices.get(err.getFileName()));
+    }
+    return distributor.flushResult(err);
+  }
+
+  /**
+   * Flush the cached errors of the input files before the given index
+   * which are not flushed yet.
+   */
+  private void flushCachedErrors(int end) {
+    for (; nextFileIndex < end; nextFileIndex++) {
+      List<ValidationError> errors =
+          cachedErrors.remove(inputFileNames[nextFileIndex]);
+      if (errors == null) {
+        continue;
+      }
+      for (ValidationError error : errors) {
+        distributor.flushResult(error);
+      }
+    }
+  }
+
+  @Override
+  public void setFormatter(Formatter formatter) {
+    distributor.setFormatter(formatter);
+  }
+
+  private final ResultDistributor distributor;
+
+  private final ResultCache cache;
+
+  private final String[] inputFileNames;
+
+  private final Map<String, List<ValidationError>> cachedErrors;
+
+  private final Map<String, List<ValidationError>> changedFileErrors;
+
+  private final Map<String, Integer> fileIndices;
+
+  /* index of the first input file whose cached errors are not flushed */
+  private int nextFileIndex = 0;
+}
@@ -90,6 +90,17 @@ public class XMLFormatter implements Formatter {
     Text lineNum = doc.createTextNode(Integer.toString(error.getLineNumber()));
     lineNumberElement.appendChild(lineNum);
 
+    if (error.getStartPosition() >= 0) {
+      Element startElement = doc.createElement("startPosition");
+      errorElement.appendChild(startElement);
+      startElement.appendChild(doc.createTextNode(
+          Integer.toString(error.getStartPosition())));
+      Element endElement = doc.createElement("endPosition");
+      errorElement.appendChild(endElement);
+      endElement.appendChild(doc.createTextNode(
+          Integer.toString(error.getEndPosition())));
+    }
+
     if (error.getSentence() != null
         && !error.getSentence().content.equals("")) {
       Element sentencElement = doc.createElement("sentence");
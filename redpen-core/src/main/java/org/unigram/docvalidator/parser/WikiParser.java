@@ -51,7 +51,9 @@ public final class WikiParser extends BasicDocumentParser {
   public Document generateDocument(String fileName)
       throws DocumentValidatorException {
     InputStream inputStream = this.loadStream(fileName);
-    return this.generateDocument(inputStream);
+    Document document = this.generateDocument(inputStream);
+    document.setFileName(fileName);
+    return document;
   }
 
   public Document generateDocument(InputStream is)
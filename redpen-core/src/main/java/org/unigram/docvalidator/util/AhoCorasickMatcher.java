@@ -0,0 +1,455 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton finding all the occurrences of a set of patterns
+ * in a text with a single scan. The time to scan a text is linear to the
+ * length of the text and the number of occurrences regardless of the
+ * number of patterns.
+ *
+ * The transitions of the states are stored in sorted arrays, so that an
+ * automaton of hundreds of thousands of patterns fits in a small memory.
+ * The tables can also be read from a buffer mapped from a compiled
+ * dictionary file, keeping the automaton out of the Java heap.
+ * Instances are immutable and can be shared by threads.
+ */
+public final class AhoCorasickMatcher {
+
+  /**
+   * Receives the occurrences of the patterns.
+   */
+  public interface MatchListener {
+    /**
+     * Called for each occurrence of a pattern in the order of the end
+     * offsets. Occurrences ending at the same offset are given from the
+     * longest one.
+     *
+     * @param patternId index of the pattern
+     * @param start     offset of the occurrence in the text
+     * @param end       offset next to the last character of the occurrence
+     */
+    void matched(int patternId, int start, int end);
+  }
+
+  /**
+   * Build an automaton. Empty patterns are ignored, and the duplicated
+   * patterns are reported with the smallest index.
+   *
+   * @param patterns patterns to be found; the index of a pattern in the
+   *                 iteration order is its identifier
+   */
+  public AhoCorasickMatcher(Collection<String> patterns) {
+    // build the trie
+    Map<Long, Integer> children = new HashMap<Long, Integer>();
+    List<Integer> nodePatterns = new ArrayList<Integer>();
+    List<Integer> depths = new ArrayList<Integer>();
+    nodePatterns.add(-1);
+    depths.add(0);
+    int[] patternNodes = new int[patterns.size()];
+    int id = 0;
+    for (String pattern : patterns) {
+      int node = ROOT;
+      for (int i = 0; i < pattern.length(); i++) {
+        Long key = edgeKey(node, pattern.charAt(i));
+        Integer child = children.get(key);
+        if (child == null) {
+          child = nodePatterns.size();
+          children.put(key, child);
+          nodePatterns.add(-1);
+          depths.add(i + 1);
+        }
+        node = child;
+      }
+      if (node != ROOT && nodePatterns.get(node) < 0) {
+        nodePatterns.set(node, id);
+      }
+      patternNodes[id++] = node;
+    }
+    patternNode = IntBuffer.wrap(patternNodes);
+
+    // store the edges of each node sorted by the labels
+    int nodeCount = nodePatterns.size();
+    long[] keys = new long[children.size()];
+    int index = 0;
+    for (Long key : children.keySet()) {
+      keys[index++] = key;
+    }
+    Arrays.sort(keys);
+    int[] edgeStarts = new int[nodeCount + 1];
+    char[] edgeLabels = new char[keys.length];
+    int[] edgeTargets = new int[keys.length];
+    int[] parents = new int[nodeCount];
+    char[] nodeLabels = new char[nodeCount];
+    for (int i = 0; i < keys.length; i++) {
+      edgeStarts[(int) (keys[i] >>> 16) + 1]++;
+      edgeLabels[i] = (char) (keys[i] & 0xffff);
+      edgeTargets[i] = children.get(keys[i]);
+      parents[edgeTargets[i]] = (int) (keys[i] >>> 16);
+      nodeLabels[edgeTargets[i]] = edgeLabels[i];
+    }
+    for (int i = 0; i < nodeCount; i++) {
+      edgeStarts[i + 1] += edgeStarts[i];
+    }
+    firstEdge = IntBuffer.wrap(edgeStarts);
+    labels = CharBuffer.wrap(edgeLabels);
+    targets = IntBuffer.wrap(edgeTargets);
+    parent = IntBuffer.wrap(parents);
+    nodeLabel = CharBuffer.wrap(nodeLabels);
+
+    int[] nodePatternIds = new int[nodeCount];
+    int[] nodeDepths = new int[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      nodePatternIds[i] = nodePatterns.get(i);
+      nodeDepths[i] = depths.get(i);
+    }
+    patternAt = IntBuffer.wrap(nodePatternIds);
+    depth = IntBuffer.wrap(nodeDepths);
+
+    // compute the failure and output links in breadth first order
+    int[] failures = new int[nodeCount];
+    int[] outputs = new int[nodeCount];
+    outputs[ROOT] = -1;
+    int[] queue = new int[nodeCount];
+    int head = 0;
+    int tail = 0;
+    for (int e = edgeStarts[ROOT]; e < edgeStarts[ROOT + 1]; e++) {
+      failures[edgeTargets[e]] = ROOT;
+      outputs[edgeTargets[e]] = -1;
+      queue[tail++] = edgeTargets[e];
+    }
+    while (head < tail) {
+      int node = queue[head++];
+      for (int e = edgeStarts[node]; e < edgeStarts[node + 1]; e++) {
+        int child = edgeTargets[e];
+        int fallback = failures[node];
+        int next = transition(fallback, edgeLabels[e]);
+        while (next < 0 && fallback != ROOT) {
+          fallback = failures[fallback];
+          next = transition(fallback, edgeLabels[e]);
+        }
+        failures[child] = next < 0 ? ROOT : next;
+        int suffix = failures[child];
+        outputs[child] = nodePatternIds[suffix] >= 0
+            ? suffix : outputs[suffix];
+        queue[tail++] = child;
+      }
+    }
+    failure = IntBuffer.wrap(failures);
+    outputLink = IntBuffer.wrap(outputs);
+  }
+
+  private AhoCorasickMatcher(IntBuffer patternNode, IntBuffer parent,
+                             CharBuffer nodeLabel, IntBuffer firstEdge,
+                             CharBuffer labels, IntBuffer targets,
+                             IntBuffer failure, IntBuffer patternAt,
+                             IntBuffer outputLink, IntBuffer depth) {
+    this.patternNode = patternNode;
+    this.parent = parent;
+    this.nodeLabel = nodeLabel;
+    this.firstEdge = firstEdge;
+    this.labels = labels;
+    this.targets = targets;
+    this.failure = failure;
+    this.patternAt = patternAt;
+    this.outputLink = outputLink;
+    this.depth = depth;
+  }
+
+  /**
+   * Write the automaton in the layout read by read: the numbers of the
+   * patterns, the nodes and the edges, followed by the tables. The chars
+   * are padded to keep the following ints aligned.
+   *
+   * @param output output stream
+   * @throws IOException when failed to write
+   */
+  void write(DataOutputStream output) throws IOException {
+    int nodeCount = depth.limit();
+    output.writeInt(patternNode.limit());
+    output.writeInt(nodeCount);
+    output.writeInt(labels.limit());
+    writeInts(output, patternNode);
+    writeInts(output, parent);
+    writeInts(output, firstEdge);
+    writeInts(output, targets);
+    writeInts(output, failure);
+    writeInts(output, patternAt);
+    writeInts(output, outputLink);
+    writeInts(output, depth);
+    writeChars(output, nodeLabel);
+    writeChars(output, labels);
+    if ((nodeCount + labels.limit()) % 2 != 0) {
+      output.writeChar(0);
+    }
+  }
+
+  /**
+   * Read an automaton written by write. The tables are not copied but read
+   * from the buffer, which may be mapped from a file. The links are
+   * checked so that a broken file cannot make a scan loop forever or
+   * access out of the tables.
+   *
+   * @param buffer buffer positioned at the automaton, moved past it
+   * @return automaton
+   * @throws IOException when the automaton is broken
+   */
+  static AhoCorasickMatcher read(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < 12) {
+      throw new IOException("Truncated automaton");
+    }
+    int patternCount = buffer.getInt();
+    int nodeCount = buffer.getInt();
+    int edgeCount = buffer.getInt();
+    if (patternCount < 0 || nodeCount < 1 || edgeCount != nodeCount - 1) {
+      throw new IOException("Broken automaton header");
+    }
+    IntBuffer patternNode = sliceInts(buffer, patternCount);
+    IntBuffer parent = sliceInts(buffer, nodeCount);
+    IntBuffer firstEdge = sliceInts(buffer, nodeCount + 1);
+    IntBuffer targets = sliceInts(buffer, edgeCount);
+    IntBuffer failure = sliceInts(buffer, nodeCount);
+    IntBuffer patternAt = sliceInts(buffer, nodeCount);
+    IntBuffer outputLink = sliceInts(buffer, nodeCount);
+    IntBuffer depth = sliceInts(buffer, nodeCount);
+    CharBuffer nodeLabel = sliceChars(buffer, nodeCount);
+    CharBuffer labels = sliceChars(buffer, edgeCount);
+    if ((nodeCount + edgeCount) % 2 != 0) {
+      sliceChars(buffer, 1);
+    }
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(patternNode,
+        parent, nodeLabel, firstEdge, labels, targets, failure, patternAt,
+        outputLink, depth);
+    matcher.check();
+    return matcher;
+  }
+
+  /* every link goes to a shallower node, so that the loops terminate */
+  private void check() throws IOException {
+    int nodeCount = depth.limit();
+    int edgeCount = targets.limit();
+    if (depth.get(ROOT) != 0 || outputLink.get(ROOT) != -1
+        || firstEdge.get(ROOT) != 0 || firstEdge.get(nodeCount) != edgeCount) {
+      throw new IOException("Broken automaton root");
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      int nodeDepth = depth.get(node);
+      if (firstEdge.get(node) > firstEdge.get(node + 1)) {
+        throw new IOException("Broken automaton edges");
+      }
+      int pattern = patternAt.get(node);
+      if (pattern < -1 || pattern >= patternNode.limit()) {
+        throw new IOException("Broken automaton patterns");
+      }
+      int output = outputLink.get(node);
+      if (output != -1 && (output < 0 || output >= nodeCount
+          || depth.get(output) >= nodeDepth || patternAt.get(output) < 0)) {
+        throw new IOException("Broken automaton output links");
+      }
+      if (node == ROOT) {
+        continue;
+      }
+      int fallback = failure.get(node);
+      int up = parent.get(node);
+      if (fallback < 0 || fallback >= nodeCount
+          || depth.get(fallback) >= nodeDepth
+          || up < 0 || up >= nodeCount || depth.get(up) != nodeDepth - 1) {
+        throw new IOException("Broken automaton links");
+      }
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      int target = targets.get(e);
+      if (target <= ROOT || target >= nodeCount) {
+        throw new IOException("Broken automaton edges");
+      }
+    }
+    for (int i = 0; i < patternNode.limit(); i++) {
+      int node = patternNode.get(i);
+      if (node < 0 || node >= nodeCount) {
+        throw new IOException("Broken automaton patterns");
+      }
+    }
+  }
+
+  /**
+   * Find all the occurrences of the patterns in a text, including the
+   * overlapping ones.
+   *
+   * @param text     input text
+   * @param listener listener receiving the occurrences
+   */
+  public void match(CharSequence text, MatchListener listener) {
+    int state = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      state = next(state, text.charAt(i));
+      int node = patternAt.get(state) >= 0 ? state : outputLink.get(state);
+      while (node >= 0) {
+        listener.matched(patternAt.get(node), i + 1 - depth.get(node), i + 1);
+        node = outputLink.get(node);
+      }
+    }
+  }
+
+  /**
+   * Find the occurrences of the patterns choosing the leftmost-longest
+   * ones. When occurrences overlap, the one starting first is taken, and
+   * the longest one among them; the occurrences overlapping a taken one
+   * are not reported.
+   *
+   * @param text     input text
+   * @param listener listener receiving the occurrences in the order of
+   *                 the offsets
+   */
+  public void matchLeftmostLongest(CharSequence text,
+                                   MatchListener listener) {
+    LeftmostLongestFilter filter =
+        new LeftmostLongestFilter(text.length(), listener);
+    match(text, filter);
+    filter.flush();
+  }
+
+  /**
+   * Get a pattern. The patterns are not kept as strings but restored from
+   * the trie.
+   *
+   * @param patternId index of the pattern
+   * @return pattern
+   */
+  public String getPattern(int patternId) {
+    int node = patternNode.get(patternId);
+    char[] chars = new char[depth.get(node)];
+    for (int i = chars.length - 1; i >= 0; i--) {
+      chars[i] = nodeLabel.get(node);
+      node = parent.get(node);
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Get the number of patterns.
+   *
+   * @return number of patterns including the empty ones
+   */
+  public int getPatternCount() {
+    return patternNode.limit();
+  }
+
+  private int next(int state, char c) {
+    int next = transition(state, c);
+    while (next < 0 && state != ROOT) {
+      state = failure.get(state);
+      next = transition(state, c);
+    }
+    return next < 0 ? ROOT : next;
+  }
+
+  private int transition(int node, char c) {
+    int low = firstEdge.get(node);
+    int high = firstEdge.get(node + 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char label = labels.get(middle);
+      if (label < c) {
+        low = middle + 1;
+      } else if (label > c) {
+        high = middle - 1;
+      } else {
+        return targets.get(middle);
+      }
+    }
+    return -1;
+  }
+
+  private static Long edgeKey(int node, char c) {
+    return ((long) node << 16) | c;
+  }
+
+  private static IntBuffer sliceInts(ByteBuffer buffer, int length)
+      throws IOException {
+    return slice(buffer, length * 4L).asIntBuffer();
+  }
+
+  private static CharBuffer sliceChars(ByteBuffer buffer, int length)
+      throws IOException {
+    return slice(buffer, length * 2L).asCharBuffer();
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, long length)
+      throws IOException {
+    if (length > buffer.remaining()) {
+      throw new IOException("Truncated automaton");
+    }
+    ByteBuffer part = buffer.slice();
+    part.limit((int) length);
+    buffer.position(buffer.position() + (int) length);
+    return part;
+  }
+
+  private static void writeInts(DataOutputStream output, IntBuffer ints)
+      throws IOException {
+    for (int i = 0; i < ints.limit(); i++) {
+      output.writeInt(ints.get(i));
+    }
+  }
+
+  private static void writeChars(DataOutputStream output, CharBuffer chars)
+      throws IOException {
+    for (int i = 0; i < chars.limit(); i++) {
+      output.writeChar(chars.get(i));
+    }
+  }
+
+  private static final int ROOT = 0;
+
+  /* node where each pattern ends, ROOT for the empty ones */
+  private final IntBuffer patternNode;
+
+  /* parent of each node and the label of the edge from the parent */
+  private final IntBuffer parent;
+
+  private final CharBuffer nodeLabel;
+
+  /* edges of node n are in [firstEdge[n], firstEdge[n + 1]) */
+  private final IntBuffer firstEdge;
+
+  private final CharBuffer labels;
+
+  private final IntBuffer targets;
+
+  private final IntBuffer failure;
+
+  /* pattern ending at each node, -1 for none */
+  private final IntBuffer patternAt;
+
+  /* nearest node on the failure chain having a pattern, -1 for none */
+  private final IntBuffer outputLink;
+
+  private final IntBuffer depth;
+}
@@ -0,0 +1,157 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein distance computed by the bit-vector algorithm of Myers in
+ * the formulation of Hyyrö. The vertical differences of a column of the
+ * distance matrix are kept in the bits of two long values, so that a
+ * column is computed with a few word operations instead of a cell update
+ * per char.
+ *
+ * The distance always has unit costs, whatever the costs set to
+ * LevenshteinDistance. The algorithm works when one of the strings has at
+ * most 64 chars; otherwise the distance is computed by
+ * LevenshteinCalculator.UNIT_COST.
+ */
+public final class BitParallelEditDistance {
+  /**
+   * The maximum length of the shorter string handled by the bit vectors.
+   */
+  public static final int MAX_PATTERN_LENGTH = 64;
+
+  /**
+   * Get the Levenshtein distance for given two strings.
+   *
+   * @param a a string.
+   * @param b one another string.
+   * @return Levenshtein distance.
+   */
+  public static int getDistance(CharSequence a, CharSequence b) {
+    return LevenshteinCalculator.UNIT_COST.getDistance(a, b);
+  }
+
+  /**
+   * Get the Levenshtein distance for given two strings if it is not larger
+   * than a threshold. The computation stops when the rest of the longer
+   * string can not bring the distance back within the threshold.
+   *
+   * @param a   a string.
+   * @param b   one another string.
+   * @param max threshold of the distance.
+   * @return Levenshtein distance, or max + 1 when the distance is larger
+   *         than max; the threshold is lowered to a bound of any distance
+   *         so that max + 1 does not overflow.
+   */
+  public static int getDistance(CharSequence a, CharSequence b, int max) {
+    return LevenshteinCalculator.UNIT_COST.getDistance(a, b, max);
+  }
+
+  /**
+   * Compute the distance with unit costs. The length of the shorter string
+   * must not exceed MAX_PATTERN_LENGTH.
+   *
+   * @param a     a string.
+   * @param b     one another string.
+   * @param max   threshold of the distance.
+   * @param keys  table of TABLE_SIZE chars
+   * @param masks table of TABLE_SIZE masks, all zero; left all zero
+   * @return distance of a and b, or a value larger than max
+   */
+  static int compute(CharSequence a, CharSequence b, int max,
+                     char[] keys, long[] masks) {
+    CharSequence pattern = a;
+    CharSequence text = b;
+    if (a.length() > b.length()) {
+      pattern = b;
+      text = a;
+    }
+    final int m = pattern.length();
+    final int n = text.length();
+    if (m == 0) {
+      return n;
+    }
+
+    // bit masks of the positions of each char in the pattern, kept in an
+    // open addressing table
+    for (int i = 0; i < m; i++) {
+      char c = pattern.charAt(i);
+      int slot = c & (TABLE_SIZE - 1);
+      while (masks[slot] != 0 && keys[slot] != c) {
+        slot = (slot + 1) & (TABLE_SIZE - 1);
+      }
+      keys[slot] = c;
+      masks[slot] |= 1L << i;
+    }
+
+    try {
+      return scan(pattern, text, max, keys, masks);
+    } finally {
+      Arrays.fill(masks, 0L);
+    }
+  }
+
+  private static int scan(CharSequence pattern, CharSequence text, int max,
+                          char[] keys, long[] masks) {
+    final int m = pattern.length();
+    final int n = text.length();
+    final long last = 1L << (m - 1);
+    long positive = -1L;
+    long negative = 0L;
+    int score = m;
+    for (int j = 0; j < n; j++) {
+      char c = text.charAt(j);
+      int slot = c & (TABLE_SIZE - 1);
+      long equal = 0L;
+      while (masks[slot] != 0) {
+        if (keys[slot] == c) {
+          equal = masks[slot];
+          break;
+        }
+        slot = (slot + 1) & (TABLE_SIZE - 1);
+      }
+
+      long vertical = equal | negative;
+      long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+      long horizontalPositive = negative | ~(horizontal | positive);
+      long horizontalNegative = positive & horizontal;
+      if ((horizontalPositive & last) != 0) {
+        score++;
+      } else if ((horizontalNegative & last) != 0) {
+        score--;
+      }
+      // the rest of the text decreases the distance by one at most per char
+      if (score - (n - j - 1) > max) {
+        return score - (n - j - 1);
+      }
+      horizontalPositive = (horizontalPositive << 1) | 1L;
+      horizontalNegative = horizontalNegative << 1;
+      positive = horizontalNegative | ~(vertical | horizontalPositive);
+      negative = horizontalPositive & vertical;
+    }
+    return score;
+  }
+
+  /* twice the maximum number of distinct chars in a pattern */
+  static final int TABLE_SIZE = 2 * MAX_PATTERN_LENGTH;
+
+  private BitParallelEditDistance() {
+  }
+}
@@ -0,0 +1,175 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree, a metric index of words keyed by the Levenshtein distance.
+ *
+ * Each child of a node is labeled with its distance from the node. For a
+ * query, the children whose labels differ from the distance between the
+ * query and the node by more than the threshold can be skipped by the
+ * triangle inequality, so that a similarity search computes the distances
+ * to a small part of the words only. The distances are computed only up to
+ * the largest label of the children plus the threshold. The distances are
+ * given by a LevenshteinCalculator, whose insertion and deletion costs
+ * must be equal for the distance to be a metric.
+ *
+ * @param <V> type of the values associated with the words
+ */
+public final class BkTree<V> implements SimilarWordIndex<V> {
+  /**
+   * Constructor of a tree keyed by the distance with unit costs.
+   */
+  public BkTree() {
+    this(LevenshteinCalculator.UNIT_COST);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param calculator calculator of the distance
+   * @throws IllegalArgumentException when the insertion and deletion costs
+   *                                  differ
+   */
+  public BkTree(LevenshteinCalculator calculator) {
+    if (calculator.getInsertionCost() != calculator.getDeletionCost()) {
+      throw new IllegalArgumentException(
+          "Insertion and deletion costs must be equal");
+    }
+    this.calculator = calculator;
+  }
+
+  @Override
+  public void put(String key, V value) {
+    Node<V> existing = nodes.get(key);
+    if (existing != null) {
+      existing.value = value;
+      return;
+    }
+    Node<V> added = new Node<V>(key, value);
+    nodes.put(key, added);
+    if (root == null) {
+      root = added;
+      return;
+    }
+    Node<V> node = root;
+    while (true) {
+      int distance = calculator.getDistance(node.key, key);
+      if (node.children == null) {
+        node.children = new HashMap<Integer, Node<V>>();
+      }
+      Node<V> child = node.children.get(distance);
+      if (child == null) {
+        node.children.put(distance, added);
+        node.maxLabel = Math.max(node.maxLabel, distance);
+        return;
+      }
+      node = child;
+    }
+  }
+
+  @Override
+  public V get(String key) {
+    Node<V> node = nodes.get(key);
+    return node == null ? null : node.value;
+  }
+
+  @Override
+  public boolean containsKey(String key) {
+    return nodes.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return nodes.size();
+  }
+
+  @Override
+  public List<Map.Entry<String, V>> search(CharSequence query,
+                                           int maxDistance) {
+    List<Map.Entry<String, V>> found = new ArrayList<Map.Entry<String, V>>();
+    if (root == null) {
+      return found;
+    }
+    List<Node<V>> stack = new ArrayList<Node<V>>();
+    stack.add(root);
+    while (!stack.isEmpty()) {
+      Node<V> node = stack.remove(stack.size() - 1);
+      // a distance beyond the labels of the children only tells the node
+      // and its children are not found
+      int distance = calculator.getDistance(node.key, query,
+          node.maxLabel + maxDistance);
+      if (distance <= maxDistance) {
+        found.add(node);
+      }
+      if (node.children == null) {
+        continue;
+      }
+      for (Map.Entry<Integer, Node<V>> child : node.children.entrySet()) {
+        if (Math.abs(child.getKey() - distance) <= maxDistance) {
+          stack.add(child.getValue());
+        }
+      }
+    }
+    return found;
+  }
+
+  private static final class Node<V> implements Map.Entry<String, V> {
+    Node(String key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V newValue) {
+      throw new UnsupportedOperationException("Use BkTree.put instead");
+    }
+
+    private final String key;
+
+    private V value;
+
+    /* children labeled with their distances from the node */
+    private Map<Integer, Node<V>> children;
+
+    /* largest label of the children */
+    private int maxLabel;
+  }
+
+  private final LevenshteinCalculator calculator;
+
+  private Node<V> root;
+
+  /* nodes of the words for exact lookups */
+  private final Map<String, Node<V>> nodes = new HashMap<String, Node<V>>();
+}
@@ -0,0 +1,124 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of Unicode code points answering membership queries in constant
+ * time. The characters of the Basic Multilingual Plane are kept in a
+ * bitmap and the supplementary ones in a hash set.
+ */
+public final class CodePointSet {
+  /**
+   * Constructor of an empty set.
+   */
+  public CodePointSet() {
+    this.bmp = new long[BMP_SIZE / Long.SIZE];
+    this.supplementary = new HashSet<Integer>();
+  }
+
+  /**
+   * Add the code points of a string. A surrogate pair is added as the
+   * supplementary code point it encodes.
+   *
+   * @param str characters to add
+   */
+  public void addAll(CharSequence str) {
+    int i = 0;
+    while (i < str.length()) {
+      int codePoint = Character.codePointAt(str, i);
+      add(codePoint);
+      i += Character.charCount(codePoint);
+    }
+  }
+
+  /**
+   * Add a code point.
+   *
+   * @param codePoint code point to add
+   */
+  public void add(int codePoint) {
+    if (codePoint < BMP_SIZE) {
+      bmp[codePoint >>> 6] |= 1L << codePoint;
+    } else {
+      supplementary.add(codePoint);
+    }
+    size = -1;
+  }
+
+  /**
+   * Check if a character of the Basic Multilingual Plane is in the set.
+   *
+   * @param c character
+   * @return true when the set contains the character
+   */
+  public boolean contains(char c) {
+    return (bmp[c >>> 6] & (1L << c)) != 0;
+  }
+
+  /**
+   * Check if a code point is in the set.
+   *
+   * @param codePoint code point
+   * @return true when the set contains the code point
+   */
+  public boolean contains(int codePoint) {
+    if (codePoint < BMP_SIZE) {
+      return (bmp[codePoint >>> 6] & (1L << codePoint)) != 0;
+    }
+    return supplementary.contains(codePoint);
+  }
+
+  /**
+   * Check if the set contains supplementary code points, which are
+   * encoded with surrogate pairs in strings.
+   *
+   * @return true when a supplementary code point is in the set
+   */
+  public boolean hasSupplementary() {
+    return !supplementary.isEmpty();
+  }
+
+  /**
+   * Get the number of code points in the set.
+   *
+   * @return number of code points
+   */
+  public int size() {
+    if (size < 0) {
+      int count = supplementary.size();
+      for (long bits : bmp) {
+        count += Long.bitCount(bits);
+      }
+      size = count;
+    }
+    return size;
+  }
+
+  private static final int BMP_SIZE = Character.MIN_SUPPLEMENTARY_CODE_POINT;
+
+  /* bit c of the bitmap is set when the BMP character c is in the set */
+  private final long[] bmp;
+
+  private final Set<Integer> supplementary;
+
+  /* cached number of code points, -1 when not computed */
+  private int size;
+}
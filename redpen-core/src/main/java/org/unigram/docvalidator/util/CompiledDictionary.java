@@ -0,0 +1,530 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Immutable dictionary of words, optionally with a value for each word,
+ * stored in a compact binary form. The words are sorted and kept in a
+ * single string pool with an offset table, as are the values, and a word
+ * is looked up with a binary search on the pool.
+ *
+ * A compiled file is loaded by mapping it into memory instead of parsing
+ * it line by line. The pools are read directly from the mapping, so that
+ * a large dictionary stays out of the Java heap and its pages are shared
+ * through the page cache by the processes loading the same file.
+ *
+ * The automaton finding the words in a text is built at the first call of
+ * getMatcher and kept with the dictionary, so that the validators sharing
+ * a dictionary through the DictionaryRegistry share the automaton too.
+ * A compiled file contains the automaton as well, which is then read from
+ * the mapping instead of being built on the heap.
+ *
+ * The layout of a compiled file is a header of six ints (magic number,
+ * format version, number of entries, flags, length of the word pool and
+ * length of the value pool), the offset tables of the words and the
+ * values, the pools of the words and the values padded to a multiple of
+ * four bytes, and the automaton of the words. All numbers are big endian
+ * and the pools are UTF-16 chars. The files of version 1 have no padding
+ * nor automaton, which is then built at the first call of getMatcher.
+ */
+public final class CompiledDictionary {
+  /**
+   * Compile a list of words.
+   *
+   * @param words words, duplicates are removed
+   * @return dictionary without values
+   */
+  public static CompiledDictionary compile(Collection<String> words) {
+    SortedSet<String> sorted = new TreeSet<String>(words);
+    return build(new ArrayList<String>(sorted), null);
+  }
+
+  /**
+   * Compile a map from words to values.
+   *
+   * @param entries map from words to their values
+   * @return dictionary with values
+   */
+  public static CompiledDictionary compile(Map<String, String> entries) {
+    SortedMap<String, String> sorted = new TreeMap<String, String>(entries);
+    return build(new ArrayList<String>(sorted.keySet()),
+        new ArrayList<String>(sorted.values()));
+  }
+
+  /**
+   * Check if a file starts with the magic number of compiled dictionaries.
+   *
+   * @param file file to check
+   * @return true when the file is a compiled dictionary
+   */
+  public static boolean isCompiled(File file) {
+    if (!file.isFile() || file.length() < HEADER_SIZE) {
+      return false;
+    }
+    FileInputStream input = null;
+    try {
+      input = new FileInputStream(file);
+      byte[] magic = new byte[4];
+      return IOUtils.read(input, magic) == magic.length
+          && ByteBuffer.wrap(magic).getInt() == MAGIC;
+    } catch (IOException e) {
+      return false;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  /**
+   * Load a compiled dictionary by mapping the file into memory. The file
+   * must not be modified in place while the dictionary is used; write
+   * replaces the file instead.
+   *
+   * @param file compiled dictionary file
+   * @return dictionary
+   * @throws IOException when failed to map the file or the file is not a
+   *                     valid compiled dictionary
+   */
+  public static CompiledDictionary load(File file) throws IOException {
+    FileInputStream input = new FileInputStream(file);
+    ByteBuffer buffer;
+    try {
+      FileChannel channel = input.getChannel();
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Too large dictionary: " + file);
+      }
+      // the mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+    return read(buffer, file);
+  }
+
+  /**
+   * Write the dictionary to a file. The dictionary is written to a
+   * temporary file renamed to the given one, so that the dictionaries
+   * mapping the previous file are not affected.
+   *
+   * @param file output file
+   * @throws IOException when failed to write the file
+   */
+  public void write(File file) throws IOException {
+    File temporary = new File(file.getPath() + ".tmp");
+    writeTo(temporary);
+    if (!temporary.renameTo(file)) {
+      // the previous file is unlinked, not truncated, for the mappings
+      if (!file.delete() || !temporary.renameTo(file)) {
+        temporary.delete();
+        throw new IOException("Failed to replace " + file);
+      }
+    }
+  }
+
+  private void writeTo(File file) throws IOException {
+    DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)));
+    try {
+      int valueLength = hasValues() ? valueChars.limit() : 0;
+      output.writeInt(MAGIC);
+      output.writeInt(FORMAT_VERSION);
+      output.writeInt(size);
+      output.writeInt((hasValues() ? FLAG_VALUES : 0) | FLAG_AUTOMATON);
+      output.writeInt(keyChars.limit());
+      output.writeInt(valueLength);
+      writeInts(output, keyOffsets);
+      if (hasValues()) {
+        writeInts(output, valueOffsets);
+      }
+      writeChars(output, keyChars);
+      if (hasValues()) {
+        writeChars(output, valueChars);
+      }
+      if ((keyChars.limit() + valueLength) % 2 != 0) {
+        output.writeChar(0);
+      }
+      getMatcher().write(output);
+    } finally {
+      IOUtils.closeQuietly(output);
+    }
+  }
+
+  /**
+   * Get the number of words.
+   *
+   * @return number of words
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Check if the words have values.
+   *
+   * @return true when the dictionary has values
+   */
+  public boolean hasValues() {
+    return valueOffsets != null;
+  }
+
+  /**
+   * Get a word. The words are sorted in the order of String.compareTo.
+   *
+   * @param index index of the word
+   * @return word
+   */
+  public String getKey(int index) {
+    return substring(keyChars, keyOffsets, index);
+  }
+
+  /**
+   * Get the value of a word.
+   *
+   * @param index index of the word
+   * @return value, null when the dictionary has no values
+   */
+  public String getValue(int index) {
+    if (!hasValues()) {
+      return null;
+    }
+    return substring(valueChars, valueOffsets, index);
+  }
+
+  /**
+   * Get all the words in the sorted order. The list is an unmodifiable
+   * view creating a string for each access.
+   *
+   * @return list of words
+   */
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Get the automaton finding the words in a text, built at the first call.
+   * The identifier of a pattern is the index of the word.
+   *
+   * @return automaton of the words
+   */
+  public synchronized AhoCorasickMatcher getMatcher() {
+    if (matcher == null) {
+      matcher = new AhoCorasickMatcher(keys);
+    }
+    return matcher;
+  }
+
+  /**
+   * Get the digest of the words and the values, computed at the first
+   * call. Dictionaries with the same entries have the same digest, whether
+   * they are compiled in memory or loaded from a file.
+   *
+   * @return hex string of the SHA-1 digest of the entries
+   */
+  public synchronized String getDigest() {
+    if (digest == null) {
+      digest = DigestUtils.sha1Hex(keyOffsets, keyChars, valueOffsets,
+          valueChars);
+    }
+    return digest;
+  }
+
+  /**
+   * Find a word.
+   *
+   * @param key word to find
+   * @return index of the word, -1 when not found
+   */
+  public int indexOf(CharSequence key) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = compareKey(middle, key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Find the first word not less than a given string. The words in
+   * [lowerBound(a), lowerBound(b)) are the words in [a, b).
+   *
+   * @param key string to compare the words with
+   * @return index of the first word not less than the key, size() when
+   *         all the words are less than the key
+   */
+  public int lowerBound(CharSequence key) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compareKey(middle, key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Check if a word is in the dictionary.
+   *
+   * @param key word
+   * @return true when the dictionary contains the word
+   */
+  public boolean contains(CharSequence key) {
+    return indexOf(key) >= 0;
+  }
+
+  /**
+   * Get the value of a word.
+   *
+   * @param key word
+   * @return value, null when the word is not found or the dictionary has
+   *         no values
+   */
+  public String get(CharSequence key) {
+    int index = indexOf(key);
+    return index < 0 ? null : getValue(index);
+  }
+
+  private int compareKey(int index, CharSequence key) {
+    int start = keyOffsets.get(index);
+    int length = keyOffsets.get(index + 1) - start;
+    int common = Math.min(length, key.length());
+    for (int i = 0; i < common; i++) {
+      int difference = keyChars.get(start + i) - key.charAt(i);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return length - key.length();
+  }
+
+  private static String substring(CharBuffer chars, IntBuffer offsets,
+                                  int index) {
+    if (index < 0 || index >= offsets.limit() - 1) {
+      throw new IndexOutOfBoundsException("Index: " + index);
+    }
+    int start = offsets.get(index);
+    return chars.subSequence(start, offsets.get(index + 1)).toString();
+  }
+
+  private static CompiledDictionary build(List<String> keys,
+                                          List<String> values) {
+    IntBuffer keyOffsets = IntBuffer.allocate(keys.size() + 1);
+    CharBuffer keyChars = pool(keys, keyOffsets);
+    if (values == null) {
+      return new CompiledDictionary(keys.size(), keyOffsets, keyChars,
+          null, null);
+    }
+    IntBuffer valueOffsets = IntBuffer.allocate(values.size() + 1);
+    CharBuffer valueChars = pool(values, valueOffsets);
+    return new CompiledDictionary(keys.size(), keyOffsets, keyChars,
+        valueOffsets, valueChars);
+  }
+
+  private static CharBuffer pool(List<String> strings, IntBuffer offsets) {
+    StringBuilder pool = new StringBuilder();
+    for (String str : strings) {
+      offsets.put(pool.length());
+      pool.append(str);
+    }
+    offsets.put(pool.length());
+    offsets.flip();
+    char[] chars = new char[pool.length()];
+    pool.getChars(0, chars.length, chars, 0);
+    return CharBuffer.wrap(chars);
+  }
+
+  private static CompiledDictionary read(ByteBuffer buffer, File file)
+      throws IOException {
+    if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+      throw new IOException("Not a compiled dictionary: " + file);
+    }
+    int version = buffer.getInt();
+    if (version < 1 || version > FORMAT_VERSION) {
+      throw new IOException("Unsupported dictionary version " + version
+          + ": " + file);
+    }
+    int size = buffer.getInt();
+    int flags = buffer.getInt();
+    boolean values = (flags & FLAG_VALUES) != 0;
+    int keyLength = buffer.getInt();
+    int valueLength = buffer.getInt();
+    if (size < 0 || keyLength < 0 || valueLength < 0) {
+      throw new IOException("Broken dictionary header: " + file);
+    }
+
+    IntBuffer keyOffsets = slice(buffer, (size + 1) * 4L, file)
+        .asIntBuffer();
+    IntBuffer valueOffsets = null;
+    if (values) {
+      valueOffsets = slice(buffer, (size + 1) * 4L, file).asIntBuffer();
+    }
+    CharBuffer keyChars = slice(buffer, keyLength * 2L, file).asCharBuffer();
+    CharBuffer valueChars = null;
+    if (values) {
+      valueChars = slice(buffer, valueLength * 2L, file).asCharBuffer();
+    }
+    checkOffsets(keyOffsets, keyLength, file);
+    if (values) {
+      checkOffsets(valueOffsets, valueLength, file);
+    }
+    CompiledDictionary dictionary = new CompiledDictionary(size, keyOffsets,
+        keyChars, valueOffsets, valueChars);
+    if (version > 1 && (flags & FLAG_AUTOMATON) != 0) {
+      if ((keyLength + (values ? valueLength : 0)) % 2 != 0) {
+        slice(buffer, 2, file);
+      }
+      try {
+        dictionary.matcher = AhoCorasickMatcher.read(buffer);
+      } catch (IOException e) {
+        throw new IOException(e.getMessage() + ": " + file, e);
+      }
+      if (dictionary.matcher.getPatternCount() != size) {
+        throw new IOException("Broken automaton: " + file);
+      }
+    }
+    return dictionary;
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, long length, File file)
+      throws IOException {
+    if (length > buffer.remaining()) {
+      throw new IOException("Truncated dictionary: " + file);
+    }
+    ByteBuffer part = buffer.slice();
+    part.limit((int) length);
+    buffer.position(buffer.position() + (int) length);
+    return part;
+  }
+
+  private static void checkOffsets(IntBuffer offsets, int length, File file)
+      throws IOException {
+    int previous = 0;
+    for (int i = 0; i < offsets.limit(); i++) {
+      int offset = offsets.get(i);
+      if (offset < previous || offset > length) {
+        throw new IOException("Broken offset table: " + file);
+      }
+      previous = offset;
+    }
+    if (previous != length) {
+      throw new IOException("Broken offset table: " + file);
+    }
+  }
+
+  private static void writeInts(DataOutputStream output, IntBuffer ints)
+      throws IOException {
+    for (int i = 0; i < ints.limit(); i++) {
+      output.writeInt(ints.get(i));
+    }
+  }
+
+  private static void writeChars(DataOutputStream output, CharBuffer chars)
+      throws IOException {
+    for (int i = 0; i < chars.limit(); i++) {
+      output.writeChar(chars.get(i));
+    }
+  }
+
+  private CompiledDictionary(int size, IntBuffer keyOffsets,
+                             CharBuffer keyChars, IntBuffer valueOffsets,
+                             CharBuffer valueChars) {
+    this.size = size;
+    this.keyOffsets = keyOffsets;
+    this.keyChars = keyChars;
+    this.valueOffsets = valueOffsets;
+    this.valueChars = valueChars;
+    this.keys = new KeyList();
+  }
+
+  private final class KeyList extends AbstractList<String>
+      implements RandomAccess {
+    @Override
+    public String get(int index) {
+      return getKey(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /* "RPDC" */
+  private static final int MAGIC = 0x52504443;
+
+  private static final int FORMAT_VERSION = 2;
+
+  private static final int HEADER_SIZE = 24;
+
+  private static final int FLAG_VALUES = 1;
+
+  private static final int FLAG_AUTOMATON = 2;
+
+  private final int size;
+
+  /* the i-th word is keyChars[keyOffsets[i], keyOffsets[i + 1]) */
+  private final IntBuffer keyOffsets;
+
+  private final CharBuffer keyChars;
+
+  /* null when the dictionary has no values */
+  private final IntBuffer valueOffsets;
+
+  private final CharBuffer valueChars;
+
+  private final List<String> keys;
+
+  /* read from the file, or built at the first call of getMatcher */
+  private AhoCorasickMatcher matcher;
+
+  /* computed at the first call of getDigest */
+  private String digest;
+}
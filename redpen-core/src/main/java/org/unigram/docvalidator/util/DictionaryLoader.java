@@ -0,0 +1,143 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load the dictionaries of validators. A dictionary given as a text file
+ * is read from the compiled file next to it, named with COMPILED_SUFFIX,
+ * when such a file exists and is not older than the text file; otherwise
+ * the text file is parsed and compiled in memory. A compiled file can
+ * also be given directly.
+ */
+public final class DictionaryLoader {
+  /**
+   * Suffix appended to the name of a text dictionary to name its compiled
+   * form.
+   */
+  public static final String COMPILED_SUFFIX = ".rpd";
+
+  /**
+   * Load a list of words with a word per line.
+   *
+   * @param fileName dictionary file
+   * @return dictionary, null when failed to load
+   */
+  public static CompiledDictionary loadWordList(String fileName) {
+    return load(fileName, false);
+  }
+
+  /**
+   * Load a TSV dictionary with a word and its value per line.
+   *
+   * @param fileName dictionary file
+   * @return dictionary, null when failed to load
+   */
+  public static CompiledDictionary loadKeyValues(String fileName) {
+    return load(fileName, true);
+  }
+
+  /**
+   * Parse a text dictionary and compile it without looking for its
+   * compiled file.
+   *
+   * @param fileName text dictionary file
+   * @param keyValue true for a TSV dictionary with values, false for a
+   *                 list of words
+   * @return dictionary, null when failed to load
+   */
+  public static CompiledDictionary compileText(String fileName,
+                                               boolean keyValue) {
+    if (keyValue) {
+      KeyValueDictionaryExtractor extractor =
+          new KeyValueDictionaryExtractor();
+      if (new FileLoader(extractor).loadFile(fileName) != 0) {
+        return null;
+      }
+      return CompiledDictionary.compile(extractor.get());
+    } else {
+      WordListExtractor extractor = new WordListExtractor();
+      if (new FileLoader(extractor).loadFile(fileName) != 0) {
+        return null;
+      }
+      return CompiledDictionary.compile(extractor.get());
+    }
+  }
+
+  /**
+   * Get the compiled file of a text dictionary.
+   *
+   * @param fileName text dictionary file
+   * @return compiled file
+   */
+  public static File getCompiledFile(String fileName) {
+    return new File(fileName + COMPILED_SUFFIX);
+  }
+
+  /**
+   * Get the file from which a dictionary is loaded: the compiled file when
+   * it is given directly or is up to date, the text file otherwise.
+   *
+   * @param fileName dictionary file
+   * @return file read first by loadWordList and loadKeyValues
+   */
+  public static File getLoadedFile(String fileName) {
+    File file = new File(fileName);
+    File compiled = getCompiledFile(fileName);
+    if (CompiledDictionary.isCompiled(file) || !compiled.isFile()
+        || compiled.lastModified() < file.lastModified()) {
+      return file;
+    }
+    return compiled;
+  }
+
+  private static CompiledDictionary load(String fileName, boolean keyValue) {
+    File file = new File(fileName);
+    File compiled = getLoadedFile(fileName);
+    if (compiled.equals(file) && !CompiledDictionary.isCompiled(file)) {
+      return compileText(fileName, keyValue);
+    }
+
+    try {
+      CompiledDictionary dictionary = CompiledDictionary.load(compiled);
+      if (dictionary.hasValues() == keyValue) {
+        LOG.info("Loaded compiled dictionary: " + compiled);
+        return dictionary;
+      }
+      LOG.warn("Compiled dictionary of a different type: " + compiled);
+    } catch (IOException e) {
+      LOG.warn("Failed to load compiled dictionary: " + e.getMessage());
+    }
+    if (compiled.equals(file)) {
+      return null;
+    }
+    return compileText(fileName, keyValue);
+  }
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DictionaryLoader.class);
+
+  private DictionaryLoader() {
+    super();
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry sharing the dictionaries loaded by validators. A dictionary is
+ * keyed by the canonical path and the modification times of its files,
+ * so that validators referring to the same unchanged file share one
+ * immutable CompiledDictionary, while a modified file is loaded again.
+ * The registry counts the references to each dictionary and drops it
+ * when the last one is released.
+ *
+ * A dictionary is loaded in the lock of its entry, out of the lock of the
+ * registry, so that a file is loaded once while the other dictionaries
+ * are acquired and released concurrently.
+ */
+public final class DictionaryRegistry {
+  /**
+   * Get the registry shared in the process.
+   *
+   * @return process-wide registry
+   */
+  public static DictionaryRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Constructor of a registry independent of the process-wide one.
+   */
+  public DictionaryRegistry() {
+    this.entries = new HashMap<String, Entry>();
+    this.entriesByDictionary = new IdentityHashMap<CompiledDictionary, Entry>();
+  }
+
+  /**
+   * Acquire a list of words with a word per line.
+   *
+   * @param fileName dictionary file
+   * @return shared dictionary, null when failed to load
+   */
+  public CompiledDictionary acquireWordList(String fileName) {
+    return acquire(fileName, false);
+  }
+
+  /**
+   * Acquire a TSV dictionary with a word and its value per line.
+   *
+   * @param fileName dictionary file
+   * @return shared dictionary, null when failed to load
+   */
+  public CompiledDictionary acquireKeyValues(String fileName) {
+    return acquire(fileName, true);
+  }
+
+  /**
+   * Release a dictionary acquired from the registry. The dictionary must
+   * not be used by the caller after the release.
+   *
+   * @param dictionary acquired dictionary
+   */
+  public synchronized void release(CompiledDictionary dictionary) {
+    Entry entry = entriesByDictionary.get(dictionary);
+    if (entry == null) {
+      LOG.warn("Released a dictionary not acquired from the registry");
+      return;
+    }
+    if (--entry.references == 0) {
+      entries.remove(entry.key);
+      entriesByDictionary.remove(dictionary);
+    }
+  }
+
+  /**
+   * Get the number of the dictionaries referred to.
+   *
+   * @return number of dictionaries
+   */
+  public synchronized int size() {
+    return entriesByDictionary.size();
+  }
+
+  /**
+   * Get the number of references to a dictionary.
+   *
+   * @param dictionary dictionary
+   * @return number of references, 0 when not in the registry
+   */
+  public synchronized int getReferenceCount(CompiledDictionary dictionary) {
+    Entry entry = entriesByDictionary.get(dictionary);
+    return entry == null ? 0 : entry.references;
+  }
+
+  private CompiledDictionary acquire(String fileName, boolean keyValue) {
+    String key = createKey(fileName, keyValue);
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(key);
+      if (entry == null) {
+        entry = new Entry(key);
+        entries.put(key, entry);
+      }
+      // counted before loading so that the entry is kept meanwhile
+      entry.references++;
+    }
+    CompiledDictionary dictionary = entry.load(fileName, keyValue);
+    synchronized (this) {
+      if (dictionary == null) {
+        if (--entry.references == 0) {
+          entries.remove(key);
+        }
+        return null;
+      }
+      entriesByDictionary.put(dictionary, entry);
+    }
+    return dictionary;
+  }
+
+  private static String createKey(String fileName, boolean keyValue) {
+    File file = new File(fileName);
+    String path;
+    try {
+      path = file.getCanonicalPath();
+    } catch (IOException e) {
+      path = file.getAbsolutePath();
+    }
+    File compiled = DictionaryLoader.getCompiledFile(path);
+    return (keyValue ? "key-value:" : "word-list:") + file.lastModified()
+        + ':' + compiled.lastModified() + ':' + path;
+  }
+
+  private static final class Entry {
+    Entry(String key) {
+      this.key = key;
+    }
+
+    /* the threads acquiring the same entry wait for the first one */
+    synchronized CompiledDictionary load(String fileName, boolean keyValue) {
+      if (!loaded) {
+        dictionary = keyValue
+            ? DictionaryLoader.loadKeyValues(fileName)
+            : DictionaryLoader.loadWordList(fileName);
+        loaded = true;
+      }
+      return dictionary;
+    }
+
+    private final String key;
+
+    /* null when failed to load */
+    private CompiledDictionary dictionary;
+
+    private boolean loaded;
+
+    /* guarded by the registry */
+    private int references;
+  }
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DictionaryRegistry.class);
+
+  private static final DictionaryRegistry INSTANCE = new DictionaryRegistry();
+
+  private final Map<String, Entry> entries;
+
+  private final Map<CompiledDictionary, Entry> entriesByDictionary;
+}
@@ -0,0 +1,146 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility class to compute digests of strings and files.
+ */
+public final class DigestUtils {
+  /**
+   * Get the SHA-1 digest of a string encoded in UTF-8.
+   *
+   * @param str input string
+   * @return hex string of the digest
+   */
+  public static String sha1Hex(String str) {
+    try {
+      return toHex(createDigest().digest(str.getBytes("UTF-8")));
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException("UTF-8 is not supported", e);
+    }
+  }
+
+  /**
+   * Get the SHA-1 digest of the content of a file.
+   *
+   * @param file input file
+   * @return hex string of the digest
+   * @throws IOException when failed to read the file
+   */
+  public static String sha1Hex(File file) throws IOException {
+    MessageDigest digest = createDigest();
+    InputStream stream = new FileInputStream(file);
+    try {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int length;
+      while ((length = stream.read(buffer)) != -1) {
+        digest.update(buffer, 0, length);
+      }
+    } finally {
+      stream.close();
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Get the SHA-1 digest of the contents of int and char buffers. Each
+   * buffer is digested from 0 to its limit, preceded by the limit, and
+   * a null buffer is digested as a buffer of limit -1.
+   *
+   * @param buffers IntBuffers and CharBuffers, or null
+   * @return hex string of the digest
+   */
+  public static String sha1Hex(Buffer... buffers) {
+    MessageDigest digest = createDigest();
+    ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    for (Buffer buffer : buffers) {
+      bytes = flush(digest, bytes, 4);
+      if (buffer == null) {
+        bytes.putInt(-1);
+        continue;
+      }
+      bytes.putInt(buffer.limit());
+      if (buffer instanceof IntBuffer) {
+        IntBuffer ints = (IntBuffer) buffer;
+        for (int i = 0; i < ints.limit(); i++) {
+          bytes = flush(digest, bytes, 4);
+          bytes.putInt(ints.get(i));
+        }
+      } else if (buffer instanceof CharBuffer) {
+        CharBuffer chars = (CharBuffer) buffer;
+        for (int i = 0; i < chars.limit(); i++) {
+          bytes = flush(digest, bytes, 2);
+          bytes.putChar(chars.get(i));
+        }
+      } else {
+        throw new IllegalArgumentException(
+            "Unsupported buffer: " + buffer.getClass().getName());
+      }
+    }
+    bytes.flip();
+    digest.update(bytes);
+    return toHex(digest.digest());
+  }
+
+  /* pass the bytes to the digest unless there is room for length bytes */
+  private static ByteBuffer flush(MessageDigest digest, ByteBuffer bytes,
+                                  int length) {
+    if (bytes.remaining() < length) {
+      bytes.flip();
+      digest.update(bytes);
+      bytes.clear();
+    }
+    return bytes;
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not supported", e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+    }
+    return hex.toString();
+  }
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private DigestUtils() {
+    super();
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+/**
+ * Working arrays of the edit distance computations, reused by the
+ * computations in a thread so that they do not allocate memory.
+ */
+final class EditDistanceScratch {
+  /**
+   * Get the arrays of the current thread.
+   *
+   * @return arrays of the current thread
+   */
+  static EditDistanceScratch get() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Get two rows of the distance matrix having at least the given length.
+   * Rows of long strings are allocated for the call without being kept.
+   *
+   * @param length length of a row
+   * @return two rows
+   */
+  int[][] getRows(int length) {
+    if (length > MAX_KEPT_ROW_LENGTH) {
+      return new int[2][length];
+    }
+    if (rows[0].length < length) {
+      rows = new int[2][Math.max(length, rows[0].length * 2)];
+    }
+    return rows;
+  }
+
+  /* chars of a pattern in the table of BitParallelEditDistance */
+  final char[] keys = new char[BitParallelEditDistance.TABLE_SIZE];
+
+  /* bit masks of the chars, all zero between the computations */
+  final long[] masks = new long[BitParallelEditDistance.TABLE_SIZE];
+
+  private int[][] rows = new int[2][INITIAL_ROW_LENGTH];
+
+  private static final int INITIAL_ROW_LENGTH = 32;
+
+  private static final int MAX_KEPT_ROW_LENGTH = 4096;
+
+  private static final ThreadLocal<EditDistanceScratch> CURRENT =
+      new ThreadLocal<EditDistanceScratch>() {
+        @Override
+        protected EditDistanceScratch initialValue() {
+          return new EditDistanceScratch();
+        }
+      };
+}
@@ -0,0 +1,81 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+/**
+ * Receives all the occurrences of patterns in a text and passes only the
+ * leftmost-longest ones to another listener. When occurrences overlap,
+ * the one starting first is taken, and the longest one among them; the
+ * occurrences overlapping a taken one are dropped.
+ */
+public final class LeftmostLongestFilter
+    implements AhoCorasickMatcher.MatchListener {
+  /**
+   * Constructor.
+   *
+   * @param textLength length of the scanned text
+   * @param listener   listener receiving the leftmost-longest occurrences
+   */
+  public LeftmostLongestFilter(int textLength,
+                               AhoCorasickMatcher.MatchListener listener) {
+    this.textLength = textLength;
+    this.listener = listener;
+  }
+
+  @Override
+  public void matched(int patternId, int start, int end) {
+    if (longestEnd == null) {
+      longestEnd = new int[textLength];
+      longestId = new int[textLength];
+    }
+    if (longestEnd[start] < end) {
+      longestEnd[start] = end;
+      longestId[start] = patternId;
+    }
+  }
+
+  /**
+   * Pass the leftmost-longest occurrences to the listener in the order of
+   * the offsets.
+   */
+  public void flush() {
+    if (longestEnd == null) {
+      return;
+    }
+    int start = 0;
+    while (start < textLength) {
+      if (longestEnd[start] > 0) {
+        listener.matched(longestId[start], start, longestEnd[start]);
+        start = longestEnd[start];
+      } else {
+        start++;
+      }
+    }
+    longestEnd = null;
+    longestId = null;
+  }
+
+  private final int textLength;
+
+  private final AhoCorasickMatcher.MatchListener listener;
+
+  /* end of the longest occurrence starting at each offset, 0 for none */
+  private int[] longestEnd;
+
+  private int[] longestId;
+}
@@ -0,0 +1,181 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+/**
+ * Levenshtein distance with its own costs of the edits. Instances are
+ * immutable, so that calculators with different costs can be used
+ * concurrently. A computation keeps two rows of the distance matrix in
+ * working arrays reused by the thread, and uses BitParallelEditDistance
+ * for short strings with unit costs, so that it does not allocate memory.
+ * A null string is treated as an empty string.
+ */
+public final class LevenshteinCalculator {
+  /**
+   * Calculator whose edits cost 1.
+   */
+  public static final LevenshteinCalculator UNIT_COST =
+      new LevenshteinCalculator(1, 1, 1);
+
+  /**
+   * Constructor.
+   *
+   * @param insertionCost    cost of an insertion
+   * @param deletionCost     cost of a deletion
+   * @param substitutionCost cost of a substitution
+   */
+  public LevenshteinCalculator(int insertionCost, int deletionCost,
+                               int substitutionCost) {
+    if (insertionCost < 0 || deletionCost < 0 || substitutionCost < 0) {
+      throw new IllegalArgumentException("Negative cost");
+    }
+    this.insertionCost = insertionCost;
+    this.deletionCost = deletionCost;
+    this.substitutionCost = substitutionCost;
+  }
+
+  /**
+   * Get the cost for "insertion".
+   * @return the cost for "insertion"
+   */
+  public int getInsertionCost() {
+    return insertionCost;
+  }
+
+  /**
+   * Get the cost for "deletion".
+   * @return the cost for "deletion"
+   */
+  public int getDeletionCost() {
+    return deletionCost;
+  }
+
+  /**
+   * Get the cost for "substitution".
+   * @return the cost for "substitution"
+   */
+  public int getSubstitutionCost() {
+    return substitutionCost;
+  }
+
+  /**
+   * Get the Levenshtein distance for given two strings.
+   *
+   * @param a a string.
+   * @param b one another string.
+   * @return Levenshtein distance.
+   */
+  public int getDistance(CharSequence a, CharSequence b) {
+    return getDistance(a, b, UNBOUNDED);
+  }
+
+  /**
+   * Get the Levenshtein distance for given two strings if it is not larger
+   * than a threshold. Only the diagonal band of the distance matrix which
+   * can hold distances within the threshold is computed, and the
+   * computation stops as soon as a row of the band exceeds the threshold.
+   *
+   * @param a   a string.
+   * @param b   one another string.
+   * @param max threshold of the distance.
+   * @return Levenshtein distance, or max + 1 when the distance is larger
+   *         than max.
+   */
+  public int getDistance(CharSequence a, CharSequence b, int max) {
+    max = Math.min(max, UNBOUNDED);
+    final int over = max + 1;
+    if (a == null) {
+      a = "";
+    }
+    if (b == null) {
+      b = "";
+    }
+    final int lengthA = a.length();
+    final int lengthB = b.length();
+    if (max < 0) {
+      return over;
+    }
+
+    // the difference of the lengths needs as many insertions or deletions
+    long lowerBound = lengthA > lengthB
+        ? (long) (lengthA - lengthB) * deletionCost
+        : (long) (lengthB - lengthA) * insertionCost;
+    if (lowerBound > max) {
+      return over;
+    }
+
+    EditDistanceScratch scratch = EditDistanceScratch.get();
+    if (insertionCost == 1 && deletionCost == 1 && substitutionCost == 1
+        && Math.min(lengthA, lengthB)
+        <= BitParallelEditDistance.MAX_PATTERN_LENGTH) {
+      return Math.min(BitParallelEditDistance.compute(a, b, max,
+          scratch.keys, scratch.masks), over);
+    }
+
+    // cells farther than band from the diagonal exceed max
+    final int indelCost = Math.min(insertionCost, deletionCost);
+    final int band = indelCost > 0
+        ? max / indelCost : Math.max(lengthA, lengthB);
+    int[][] rows = scratch.getRows(lengthB + 1);
+    int[] previous = rows[0];
+    int[] current = rows[1];
+    for (int j = 0; j < lengthB + 1; j++) {
+      previous[j] = (int) Math.min((long) j * insertionCost, over);
+    }
+
+    for (int i = 1; i < lengthA + 1; i++) {
+      final int from = Math.max(1, i - band);
+      final int to = Math.min(lengthB, i + band);
+      current[from - 1] = from == 1
+          ? (int) Math.min((long) i * deletionCost, over) : over;
+      int rowMinimum = current[from - 1];
+      final char c = a.charAt(i - 1);
+      for (int j = from; j < to + 1; j++) {
+        int value = previous[j - 1];
+        if (c != b.charAt(j - 1)) {
+          value += substitutionCost;
+        }
+        value = Math.min(value, previous[j] + deletionCost);
+        value = Math.min(value, current[j - 1] + insertionCost);
+        value = Math.min(value, over);
+        current[j] = value;
+        rowMinimum = Math.min(rowMinimum, value);
+      }
+      if (to < lengthB) {
+        current[to + 1] = over;
+      }
+      if (rowMinimum > max) {
+        return over;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+
+    return previous[lengthB];
+  }
+
+  /* threshold large enough for any distance, leaving room for the costs */
+  private static final int UNBOUNDED = Integer.MAX_VALUE / 4;
+
+  private final int insertionCost;
+
+  private final int deletionCost;
+
+  private final int substitutionCost;
+}
@@ -23,7 +23,8 @@ package org.unigram.docvalidator.util;
  * For given two strings, provide the minimum number
  * of single-character edits (i.e. insertions, deletions
  * or substitutions). The default cost for each edit
- * is 1, and each value is configurable.
+ * is 1, and each value is configurable. The costs are shared by the
+ * process; LevenshteinCalculator holds costs of its own.
  */
 public final class LevenshteinDistance {
   /**
@@ -41,22 +42,13 @@ public final class LevenshteinDistance {
    */
   public static final int DEFAULT_SUBSTITUTION_COST = 1;
 
-  private static int INSERTION_COST;
-  private static int DELETION_COST;
-  private static int SUBSTITUTION_COST;
-
-  static {
-    INSERTION_COST = DEFAULT_INSERTION_COST;
-    DELETION_COST = DEFAULT_DELETION_COST;
-    SUBSTITUTION_COST = DEFAULT_SUBSTITUTION_COST;
-  };
-
   /**
    * Set the cost for "insertion".
    * @param cost a cost for "insertion"
    */
   public static synchronized void setInsertionCost(int cost) {
-    INSERTION_COST = cost;
+    calculator = new LevenshteinCalculator(cost,
+        calculator.getDeletionCost(), calculator.getSubstitutionCost());
   }
 
   /**
@@ -64,7 +56,8 @@ public final class LevenshteinDistance {
    * @param cost a cost for "deletio"
    */
   public static synchronized void setDeletionCost(int cost) {
-    DELETION_COST = cost;
+    calculator = new LevenshteinCalculator(calculator.getInsertionCost(),
+        cost, calculator.getSubstitutionCost());
   }
 
   /**
@@ -72,7 +65,8 @@ public final class LevenshteinDistance {
    * @param cost a cost for "substitution"
    */
   public static synchronized void setSubstitutionCost(int cost) {
-    SUBSTITUTION_COST = cost;
+    calculator = new LevenshteinCalculator(calculator.getInsertionCost(),
+        calculator.getDeletionCost(), cost);
   }
 
   /**
@@ -80,7 +74,7 @@ public final class LevenshteinDistance {
    * @return the cost for "insertion"
    */
   public static int getInsertionCost() {
-    return INSERTION_COST;
+    return calculator.getInsertionCost();
   }
 
   /**
@@ -88,7 +82,7 @@ public final class LevenshteinDistance {
    * @return the cost for "deletion"
    */
   public static int getDeletionCost() {
-    return DELETION_COST;
+    return calculator.getDeletionCost();
   }
 
   /**
@@ -96,7 +90,16 @@ public final class LevenshteinDistance {
    * @return the cost for "substitution"
    */
   public static int getSubstitutionCost() {
-    return SUBSTITUTION_COST;
+    return calculator.getSubstitutionCost();
+  }
+
+  /**
+   * Get the calculator having the current costs.
+   *
+   * @return calculator of the current costs
+   */
+  public static LevenshteinCalculator getCalculator() {
+    return calculator;
   }
 
   /**
@@ -109,42 +112,31 @@ public final class LevenshteinDistance {
    * @return Levenshtein distance.
    */
   public static int getDistance(CharSequence a, CharSequence b) {
+    LevenshteinCalculator current = calculator;
     if (a == null && b == null) {
       return 0;
     }
     if (a == null && b != null) {
-      return b.length() * INSERTION_COST;
+      return b.length() * current.getInsertionCost();
     }
     if (a != null && b == null) {
-      return a.length() * INSERTION_COST;
-    }
-
-    final int lengthA = a.length();
-    final int lengthB = b.length();
-    int[][] distance = new int[lengthA + 1][lengthB + 1];
-
-    // Initialization
-    for (int i = 0; i < lengthA + 1; i++) {
-      distance[i][0] = i * DELETION_COST;
-    }
-    for (int j = 0; j < lengthB + 1; j++) {
-      distance[0][j] = j * INSERTION_COST;
-    }
-
-    for (int i = 1; i < lengthA + 1; i++) {
-      for (int j = 1; j < lengthB + 1; j++) {
-        if (a.charAt(i - 1) == b.charAt(j - 1)) {
-          distance[i][j] = distance[i - 1][j - 1];
-        } else {
-          distance[i][j] = Math.min(Math.min(
-            distance[i - 1][j]     + DELETION_COST,
-            distance[i][j - 1]     + INSERTION_COST),
-            distance[i - 1][j - 1] + SUBSTITUTION_COST);
-       }
-      }
+      return a.length() * current.getInsertionCost();
     }
+    return current.getDistance(a, b);
+  }
 
-    return distance[lengthA][lengthB];
+  /**
+   * Get the Levenshtein distance for given two strings if it is not larger
+   * than a threshold. See LevenshteinCalculator.getDistance.
+   *
+   * @param a   a string.
+   * @param b   one another string.
+   * @param max threshold of the distance.
+   * @return Levenshtein distance, or max + 1 when the distance is larger
+   *         than max.
+   */
+  public static int getDistance(CharSequence a, CharSequence b, int max) {
+    return calculator.getDistance(a, b, max);
   }
 
   /**
@@ -152,4 +144,8 @@ public final class LevenshteinDistance {
    */
   private LevenshteinDistance() {
   }
+
+  private static volatile LevenshteinCalculator calculator =
+      new LevenshteinCalculator(DEFAULT_INSERTION_COST,
+          DEFAULT_DELETION_COST, DEFAULT_SUBSTITUTION_COST);
 }
@@ -0,0 +1,499 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Set of regular expressions compiled into a single deterministic
+ * automaton. A text is scanned once without backtracking, and the
+ * automaton tells which expressions have occurrences in the text. The
+ * occurrences of those expressions are then found with an anchored
+ * automaton, keeping the result of each pair of a state and an offset so
+ * that no pair is scanned twice, and the time stays linear in the length
+ * of the text.
+ *
+ * For each expression, the leftmost-longest occurrences not overlapping
+ * each other are reported. Expressions matching the empty string are
+ * rejected. See RegexParser for the supported syntax. Instances are
+ * immutable and can be shared by threads.
+ */
+public final class RegexDfaMatcher {
+  /**
+   * Compile regular expressions.
+   *
+   * @param regexes regular expressions; the index of an expression in the
+   *                iteration order is its identifier
+   * @throws IllegalArgumentException when an expression is invalid, not
+   *                                  supported or matches the empty
+   *                                  string, or the automaton is too large
+   */
+  public RegexDfaMatcher(Collection<String> regexes) {
+    this.patterns = Collections.unmodifiableList(
+        new ArrayList<String>(regexes));
+    List<RegexParser.Node> nodes = new ArrayList<RegexParser.Node>();
+    for (String regex : patterns) {
+      RegexParser.Node node = RegexParser.parse(regex);
+      if (RegexParser.matchesEmpty(node)) {
+        throw new IllegalArgumentException(
+            "Regular expression matches the empty string: " + regex);
+      }
+      nodes.add(node);
+    }
+
+    // split the chars into classes whose chars are not distinguished
+    TreeSet<Integer> bounds = new TreeSet<Integer>();
+    bounds.add(0);
+    for (RegexParser.Node node : nodes) {
+      collectBounds(node, bounds);
+    }
+    bounds.remove(Character.MAX_VALUE + 1);
+    classStarts = new int[bounds.size()];
+    int index = 0;
+    for (Integer bound : bounds) {
+      classStarts[index++] = bound;
+    }
+    classOf = new char[Character.MAX_VALUE + 1];
+    for (int k = 0; k < classStarts.length; k++) {
+      int end = k + 1 < classStarts.length
+          ? classStarts[k + 1] : Character.MAX_VALUE + 1;
+      Arrays.fill(classOf, classStarts[k], end, (char) k);
+    }
+
+    Nfa nfa = new Nfa(nodes);
+    Automaton forwardAutomaton = new Automaton(nfa, true);
+    Automaton anchoredAutomaton = new Automaton(nfa, false);
+    forwardNext = forwardAutomaton.next;
+    forwardAccepts = forwardAutomaton.accepts;
+    anchoredNext = anchoredAutomaton.next;
+    anchoredAccepts = anchoredAutomaton.accepts;
+    anchoredAlive = anchoredAutomaton.alive;
+  }
+
+  /**
+   * Find the leftmost-longest occurrences of each expression in a text.
+   * The occurrences are given in the order of the offsets, after the scan
+   * of the whole text.
+   *
+   * @param text     input text
+   * @param listener listener receiving the occurrences
+   */
+  public void match(CharSequence text,
+                    AhoCorasickMatcher.MatchListener listener) {
+    int[] lastEnd = null;
+    int classCount = classStarts.length;
+    int state = START;
+    for (int i = 0; i < text.length(); i++) {
+      state = forwardNext[state * classCount + classOf[text.charAt(i)]];
+      for (int rule : forwardAccepts[state]) {
+        if (lastEnd == null) {
+          lastEnd = new int[patterns.size()];
+        }
+        lastEnd[rule] = i + 1;
+      }
+    }
+    if (lastEnd == null) {
+      return;
+    }
+    int[] path = new int[text.length() + 1];
+    Map<Long, Integer> ends = new HashMap<Long, Integer>();
+    List<int[]> occurrences = new ArrayList<int[]>();
+    for (int rule = 0; rule < lastEnd.length; rule++) {
+      ends.clear();
+      int start = 0;
+      while (start < lastEnd[rule]) {
+        int end = findLongestEnd(text, rule, start, path, ends);
+        if (end < 0) {
+          start++;
+        } else {
+          occurrences.add(new int[] {start, rule, end});
+          start = end;
+        }
+      }
+    }
+    Collections.sort(occurrences, OCCURRENCE_ORDER);
+    for (int[] occurrence : occurrences) {
+      listener.matched(occurrence[1], occurrence[0], occurrence[2]);
+    }
+  }
+
+  /**
+   * Get a regular expression.
+   *
+   * @param patternId index of the expression
+   * @return regular expression
+   */
+  public String getPattern(int patternId) {
+    return patterns.get(patternId);
+  }
+
+  /**
+   * Get the number of regular expressions.
+   *
+   * @return number of expressions
+   */
+  public int getPatternCount() {
+    return patterns.size();
+  }
+
+  /* end of the longest occurrence of rule from start, -1 for none; ends
+   * keeps the result from each pair of a state and an offset after start,
+   * path receives the states from start */
+  private int findLongestEnd(CharSequence text, int rule, int start,
+                             int[] path, Map<Long, Integer> ends) {
+    int classCount = classStarts.length;
+    long offsetCount = text.length() + 1;
+    int state = START;
+    int offset = start;
+    int end = -1;
+    int length = 0;
+    while (true) {
+      if (offset > start) {
+        Integer known = ends.get(state * offsetCount + offset);
+        if (known != null) {
+          end = known;
+          break;
+        }
+      }
+      path[length++] = state;
+      if (offset == text.length()) {
+        break;
+      }
+      state = anchoredNext[state * classCount + classOf[text.charAt(offset)]];
+      offset++;
+      if (state < 0 || Arrays.binarySearch(anchoredAlive[state], rule) < 0) {
+        break;
+      }
+    }
+    for (int k = length - 1; k >= 0; k--) {
+      if (end < 0
+          && Arrays.binarySearch(anchoredAccepts[path[k]], rule) >= 0) {
+        end = start + k;
+      }
+      if (k > 0) {
+        ends.put(path[k] * offsetCount + start + k, end);
+      }
+    }
+    return end;
+  }
+
+  private static void collectBounds(RegexParser.Node node,
+                                    TreeSet<Integer> bounds) {
+    if (node.type == RegexParser.Node.CHARS) {
+      for (int i = 0; i < node.ranges.length; i += 2) {
+        bounds.add(node.ranges[i]);
+        bounds.add(node.ranges[i + 1] + 1);
+      }
+    } else {
+      for (RegexParser.Node child : node.children) {
+        collectBounds(child, bounds);
+      }
+    }
+  }
+
+  /**
+   * Thompson automaton of the expressions, with a start state having
+   * epsilon transitions to the starts of the expressions.
+   */
+  private static final class Nfa {
+    Nfa(List<RegexParser.Node> nodes) {
+      start = newState();
+      for (int rule = 0; rule < nodes.size(); rule++) {
+        owner = rule;
+        int[] fragment = build(nodes.get(rule));
+        epsilons.get(start).add(fragment[0]);
+        accepts.set(fragment[1], rule);
+      }
+    }
+
+    private int newState() {
+      ranges.add(null);
+      targets.add(-1);
+      epsilons.add(new ArrayList<Integer>(2));
+      accepts.add(-1);
+      owners.add(owner);
+      return ranges.size() - 1;
+    }
+
+    /* states entering and leaving the fragment of a node */
+    private int[] build(RegexParser.Node node) {
+      int entry = newState();
+      int exit;
+      switch (node.type) {
+        case RegexParser.Node.CHARS:
+          exit = newState();
+          ranges.set(entry, node.ranges);
+          targets.set(entry, exit);
+          break;
+        case RegexParser.Node.CONCAT:
+          exit = entry;
+          for (RegexParser.Node child : node.children) {
+            int[] fragment = build(child);
+            epsilons.get(exit).add(fragment[0]);
+            exit = fragment[1];
+          }
+          break;
+        case RegexParser.Node.ALTERNATION:
+          exit = newState();
+          for (RegexParser.Node child : node.children) {
+            int[] fragment = build(child);
+            epsilons.get(entry).add(fragment[0]);
+            epsilons.get(fragment[1]).add(exit);
+          }
+          break;
+        default:
+          RegexParser.Node child = node.children.get(0);
+          exit = entry;
+          for (int i = 0; i < node.min; i++) {
+            int[] fragment = build(child);
+            epsilons.get(exit).add(fragment[0]);
+            exit = fragment[1];
+          }
+          if (node.max < 0) {
+            int[] fragment = build(child);
+            int loopExit = newState();
+            epsilons.get(exit).add(fragment[0]);
+            epsilons.get(exit).add(loopExit);
+            epsilons.get(fragment[1]).add(fragment[0]);
+            epsilons.get(fragment[1]).add(loopExit);
+            exit = loopExit;
+          } else {
+            int optionalExit = newState();
+            for (int i = node.min; i < node.max; i++) {
+              int[] fragment = build(child);
+              epsilons.get(exit).add(fragment[0]);
+              epsilons.get(exit).add(optionalExit);
+              exit = fragment[1];
+            }
+            epsilons.get(exit).add(optionalExit);
+            exit = optionalExit;
+          }
+          break;
+      }
+      return new int[] {entry, exit};
+    }
+
+    private final List<int[]> ranges = new ArrayList<int[]>();
+
+    private final List<Integer> targets = new ArrayList<Integer>();
+
+    private final List<List<Integer>> epsilons =
+        new ArrayList<List<Integer>>();
+
+    /* expression accepted at each state, -1 for none */
+    private final List<Integer> accepts = new ArrayList<Integer>();
+
+    /* expression of each state, -1 for the start state */
+    private final List<Integer> owners = new ArrayList<Integer>();
+
+    private final int start;
+
+    private int owner = -1;
+  }
+
+  /**
+   * Deterministic automaton built from an Nfa by the subset construction.
+   * An unanchored automaton restarts the expressions at every char.
+   */
+  private final class Automaton {
+    Automaton(Nfa nfa, boolean unanchored) {
+      this.nfa = nfa;
+      this.unanchored = unanchored;
+      int classCount = classStarts.length;
+      List<int[]> states = new ArrayList<int[]>();
+      Map<StateKey, Integer> ids = new HashMap<StateKey, Integer>();
+      int[] initial = closure(new int[] {nfa.start}, 1);
+      states.add(initial);
+      ids.put(new StateKey(initial), START);
+
+      List<int[]> transitions = new ArrayList<int[]>();
+      int[] moved = new int[nfa.ranges.size() + 1];
+      for (int current = 0; current < states.size(); current++) {
+        int[] row = new int[classCount];
+        for (int k = 0; k < classCount; k++) {
+          int size = 0;
+          for (int state : states.get(current)) {
+            int[] stateRanges = nfa.ranges.get(state);
+            if (stateRanges != null
+                && RegexParser.contains(stateRanges, classStarts[k])) {
+              moved[size++] = nfa.targets.get(state);
+            }
+          }
+          if (unanchored) {
+            moved[size++] = nfa.start;
+          } else if (size == 0) {
+            row[k] = -1;
+            continue;
+          }
+          int[] target = closure(moved, size);
+          StateKey key = new StateKey(target);
+          Integer id = ids.get(key);
+          if (id == null) {
+            if (states.size() >= MAX_STATES) {
+              throw new IllegalArgumentException(
+                  "Too many states for the regular expressions");
+            }
+            id = states.size();
+            states.add(target);
+            ids.put(key, id);
+          }
+          row[k] = id;
+        }
+        transitions.add(row);
+      }
+
+      next = new int[states.size() * classCount];
+      accepts = new int[states.size()][];
+      alive = new int[states.size()][];
+      for (int i = 0; i < states.size(); i++) {
+        System.arraycopy(transitions.get(i), 0, next, i * classCount,
+            classCount);
+        TreeSet<Integer> accepted = new TreeSet<Integer>();
+        TreeSet<Integer> owned = new TreeSet<Integer>();
+        for (int state : states.get(i)) {
+          if (nfa.accepts.get(state) >= 0) {
+            accepted.add(nfa.accepts.get(state));
+          }
+          if (nfa.owners.get(state) >= 0) {
+            owned.add(nfa.owners.get(state));
+          }
+        }
+        accepts[i] = toArray(accepted);
+        alive[i] = toArray(owned);
+      }
+    }
+
+    private int[] toArray(Collection<Integer> rules) {
+      int[] result = new int[rules.size()];
+      int index = 0;
+      for (Integer rule : rules) {
+        result[index++] = rule;
+      }
+      return result;
+    }
+
+    /* sorted states reachable with epsilon transitions */
+    private int[] closure(int[] seeds, int count) {
+      boolean[] seen = new boolean[nfa.ranges.size()];
+      int[] stack = new int[nfa.ranges.size()];
+      int top = 0;
+      for (int i = 0; i < count; i++) {
+        if (!seen[seeds[i]]) {
+          seen[seeds[i]] = true;
+          stack[top++] = seeds[i];
+        }
+      }
+      int size = 0;
+      while (top > 0) {
+        int state = stack[--top];
+        size++;
+        for (int target : nfa.epsilons.get(state)) {
+          if (!seen[target]) {
+            seen[target] = true;
+            stack[top++] = target;
+          }
+        }
+      }
+      int[] result = new int[size];
+      int index = 0;
+      for (int state = 0; state < seen.length; state++) {
+        if (seen[state]) {
+          result[index++] = state;
+        }
+      }
+      return result;
+    }
+
+    private final Nfa nfa;
+
+    private final boolean unanchored;
+
+    /* next state of state s for char class k at s * classCount + k */
+    private final int[] next;
+
+    /* sorted expressions accepted at each state */
+    private final int[][] accepts;
+
+    /* sorted expressions having a state of the Nfa in each state */
+    private final int[][] alive;
+  }
+
+  private static final class StateKey {
+    StateKey(int[] states) {
+      this.states = states;
+      this.hash = Arrays.hashCode(states);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof StateKey
+          && Arrays.equals(states, ((StateKey) other).states);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    private final int[] states;
+
+    private final int hash;
+  }
+
+  /* occurrences {start, rule, end} by start, then by rule */
+  private static final Comparator<int[]> OCCURRENCE_ORDER =
+      new Comparator<int[]>() {
+        @Override
+        public int compare(int[] left, int[] right) {
+          if (left[0] != right[0]) {
+            return left[0] < right[0] ? -1 : 1;
+          }
+          return left[1] < right[1] ? -1 : (left[1] == right[1] ? 0 : 1);
+        }
+      };
+
+  private static final int START = 0;
+
+  private static final int MAX_STATES = 10000;
+
+  private final List<String> patterns;
+
+  /* first char of each char class */
+  private final int[] classStarts;
+
+  private final char[] classOf;
+
+  private final int[] forwardNext;
+
+  private final int[][] forwardAccepts;
+
+  /* next states of the anchored automaton, -1 for the dead state */
+  private final int[] anchoredNext;
+
+  private final int[][] anchoredAccepts;
+
+  private final int[][] anchoredAlive;
+}
@@ -0,0 +1,413 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parser of the regular expressions compiled by RegexDfaMatcher into a
+ * tree. Only the constructs which a deterministic automaton can match
+ * are supported: literals, escapes, character classes, '.', groups,
+ * alternations and greedy quantifiers. Anchors, back references and
+ * lookarounds are rejected.
+ */
+final class RegexParser {
+  /**
+   * Node of a parsed regular expression.
+   */
+  static final class Node {
+    static final int CHARS = 0;
+    static final int CONCAT = 1;
+    static final int ALTERNATION = 2;
+    static final int REPEAT = 3;
+
+    Node(int type, int[] ranges, List<Node> children, int min, int max) {
+      this.type = type;
+      this.ranges = ranges;
+      this.children = children;
+      this.min = min;
+      this.max = max;
+    }
+
+    final int type;
+
+    /* sorted and disjoint pairs of the first and last chars of CHARS */
+    final int[] ranges;
+
+    final List<Node> children;
+
+    /* bounds of REPEAT, max is -1 when unbounded */
+    final int min;
+
+    final int max;
+  }
+
+  /**
+   * Parse a regular expression.
+   *
+   * @param regex regular expression
+   * @return root node
+   * @throws IllegalArgumentException when the expression is invalid or
+   *                                  not supported
+   */
+  static Node parse(String regex) {
+    RegexParser parser = new RegexParser(regex);
+    Node node = parser.parseAlternation();
+    if (parser.position < regex.length()) {
+      throw parser.error("Unmatched ')'");
+    }
+    return node;
+  }
+
+  /**
+   * Check if a node matches the empty string.
+   *
+   * @param node node
+   * @return true when the empty string matches
+   */
+  static boolean matchesEmpty(Node node) {
+    switch (node.type) {
+      case Node.CHARS:
+        return false;
+      case Node.CONCAT:
+        for (Node child : node.children) {
+          if (!matchesEmpty(child)) {
+            return false;
+          }
+        }
+        return true;
+      case Node.ALTERNATION:
+        for (Node child : node.children) {
+          if (matchesEmpty(child)) {
+            return true;
+          }
+        }
+        return false;
+      default:
+        return node.min == 0 || matchesEmpty(node.children.get(0));
+    }
+  }
+
+  /**
+   * Check if a char is in sorted and disjoint ranges.
+   *
+   * @param ranges pairs of the first and last chars
+   * @param c      char
+   * @return true when a range contains the char
+   */
+  static boolean contains(int[] ranges, int c) {
+    int low = 0;
+    int high = ranges.length / 2 - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (ranges[middle * 2 + 1] < c) {
+        low = middle + 1;
+      } else if (ranges[middle * 2] > c) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private RegexParser(String regex) {
+    this.regex = regex;
+    this.position = 0;
+  }
+
+  private Node parseAlternation() {
+    List<Node> alternatives = new ArrayList<Node>();
+    alternatives.add(parseConcatenation());
+    while (peek() == '|') {
+      position++;
+      alternatives.add(parseConcatenation());
+    }
+    if (alternatives.size() == 1) {
+      return alternatives.get(0);
+    }
+    return new Node(Node.ALTERNATION, null, alternatives, 0, 0);
+  }
+
+  private Node parseConcatenation() {
+    List<Node> sequence = new ArrayList<Node>();
+    while (position < regex.length() && peek() != '|' && peek() != ')') {
+      sequence.add(parseRepetition());
+    }
+    if (sequence.size() == 1) {
+      return sequence.get(0);
+    }
+    return new Node(Node.CONCAT, null, sequence, 0, 0);
+  }
+
+  private Node parseRepetition() {
+    Node node = parseAtom();
+    while (position < regex.length()) {
+      char c = peek();
+      int min;
+      int max;
+      if (c == '*') {
+        min = 0;
+        max = -1;
+        position++;
+      } else if (c == '+') {
+        min = 1;
+        max = -1;
+        position++;
+      } else if (c == '?') {
+        min = 0;
+        max = 1;
+        position++;
+      } else if (c == '{') {
+        position++;
+        min = parseNumber();
+        max = min;
+        if (peek() == ',') {
+          position++;
+          max = peek() == '}' ? -1 : parseNumber();
+        }
+        expect('}');
+        if (max >= 0 && max < min) {
+          throw error("Invalid repetition bounds");
+        }
+        if (Math.max(min, max) > MAX_REPETITION) {
+          throw error("Too large repetition bound");
+        }
+      } else {
+        break;
+      }
+      if (position < regex.length()
+          && (peek() == '?' || peek() == '+')) {
+        throw error("Lazy and possessive quantifiers are not supported");
+      }
+      node = new Node(Node.REPEAT, null, Collections.singletonList(node),
+          min, max);
+    }
+    return node;
+  }
+
+  private Node parseAtom() {
+    char c = regex.charAt(position++);
+    switch (c) {
+      case '(':
+        if (regex.startsWith("?:", position)) {
+          position += 2;
+        } else if (peek() == '?') {
+          throw error("Lookarounds and flags are not supported");
+        }
+        Node group = parseAlternation();
+        expect(')');
+        return group;
+      case '[':
+        return chars(parseClass());
+      case '.':
+        return chars(negate(new int[] {'\n', '\n', '\r', '\r'}));
+      case '\\':
+        return chars(parseEscape(false));
+      case '^':
+      case '$':
+        throw error("Anchors are not supported");
+      case '*':
+      case '+':
+      case '?':
+      case '{':
+        throw error("Nothing to repeat");
+      default:
+        return chars(new int[] {c, c});
+    }
+  }
+
+  private int[] parseClass() {
+    boolean negated = false;
+    if (peek() == '^') {
+      negated = true;
+      position++;
+    }
+    List<int[]> members = new ArrayList<int[]>();
+    boolean first = true;
+    while (first || peek() != ']') {
+      first = false;
+      if (position >= regex.length()) {
+        throw error("Unclosed character class");
+      }
+      char c = regex.charAt(position++);
+      int[] member;
+      if (c == '\\') {
+        member = parseEscape(true);
+      } else if (c == '[') {
+        throw error("Nested character classes are not supported");
+      } else {
+        member = new int[] {c, c};
+      }
+      if (member.length == 2 && member[0] == member[1] && peek() == '-'
+          && position + 1 < regex.length()
+          && regex.charAt(position + 1) != ']') {
+        position++;
+        char last = regex.charAt(position++);
+        int[] end = last == '\\' ? parseEscape(true)
+            : new int[] {last, last};
+        if (end.length != 2 || end[0] != end[1] || end[0] < member[0]) {
+          throw error("Invalid range in character class");
+        }
+        member = new int[] {member[0], end[0]};
+      }
+      members.add(member);
+    }
+    position++;
+    int[] ranges = union(members);
+    return negated ? negate(ranges) : ranges;
+  }
+
+  private int[] parseEscape(boolean inClass) {
+    if (position >= regex.length()) {
+      throw error("Trailing backslash");
+    }
+    char c = regex.charAt(position++);
+    switch (c) {
+      case 'd':
+        return new int[] {'0', '9'};
+      case 'D':
+        return negate(new int[] {'0', '9'});
+      case 'w':
+        return WORD.clone();
+      case 'W':
+        return negate(WORD);
+      case 's':
+        return SPACE.clone();
+      case 'S':
+        return negate(SPACE);
+      case 't':
+        return new int[] {'\t', '\t'};
+      case 'n':
+        return new int[] {'\n', '\n'};
+      case 'r':
+        return new int[] {'\r', '\r'};
+      case 'f':
+        return new int[] {'\f', '\f'};
+      case 'u':
+        if (position + 4 > regex.length()) {
+          throw error("Invalid unicode escape");
+        }
+        try {
+          int code = Integer.parseInt(
+              regex.substring(position, position + 4), 16);
+          position += 4;
+          return new int[] {code, code};
+        } catch (NumberFormatException e) {
+          throw error("Invalid unicode escape");
+        }
+      default:
+        if (Character.isLetterOrDigit(c)) {
+          throw error("Unsupported escape \\" + c);
+        }
+        return new int[] {c, c};
+    }
+  }
+
+  private int parseNumber() {
+    int start = position;
+    while (position < regex.length()
+        && Character.isDigit(regex.charAt(position))) {
+      position++;
+    }
+    if (start == position || position - start > 4) {
+      throw error("Invalid repetition bound");
+    }
+    return Integer.parseInt(regex.substring(start, position));
+  }
+
+  private void expect(char c) {
+    if (peek() != c) {
+      throw error("Expected '" + c + "'");
+    }
+    position++;
+  }
+
+  private char peek() {
+    return position < regex.length() ? regex.charAt(position) : 0;
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at " + position
+        + " in regular expression: " + regex);
+  }
+
+  private static Node chars(int[] ranges) {
+    return new Node(Node.CHARS, ranges, null, 0, 0);
+  }
+
+  /* sorted and merged union of ranges */
+  private static int[] union(List<int[]> members) {
+    List<int[]> pairs = new ArrayList<int[]>();
+    for (int[] member : members) {
+      for (int i = 0; i < member.length; i += 2) {
+        pairs.add(new int[] {member[i], member[i + 1]});
+      }
+    }
+    int[][] sorted = pairs.toArray(new int[pairs.size()][]);
+    Arrays.sort(sorted, new Comparator<int[]>() {
+      @Override
+      public int compare(int[] a, int[] b) {
+        return a[0] - b[0];
+      }
+    });
+    int[] merged = new int[sorted.length * 2];
+    int size = 0;
+    for (int[] pair : sorted) {
+      if (size > 0 && pair[0] <= merged[size - 1] + 1) {
+        merged[size - 1] = Math.max(merged[size - 1], pair[1]);
+      } else {
+        merged[size++] = pair[0];
+        merged[size++] = pair[1];
+      }
+    }
+    return Arrays.copyOf(merged, size);
+  }
+
+  private static int[] negate(int[] ranges) {
+    int[] negated = new int[ranges.length + 2];
+    int size = 0;
+    int next = 0;
+    for (int i = 0; i < ranges.length; i += 2) {
+      if (ranges[i] > next) {
+        negated[size++] = next;
+        negated[size++] = ranges[i] - 1;
+      }
+      next = ranges[i + 1] + 1;
+    }
+    if (next <= Character.MAX_VALUE) {
+      negated[size++] = next;
+      negated[size++] = Character.MAX_VALUE;
+    }
+    return Arrays.copyOf(negated, size);
+  }
+
+  private static final int MAX_REPETITION = 100;
+
+  private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+
+  private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+
+  private final String regex;
+
+  private int position;
+}
@@ -0,0 +1,70 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of words finding the words similar to a query, that is the words
+ * within an edit distance from the query.
+ *
+ * @param <V> type of the values associated with the words
+ */
+public interface SimilarWordIndex<V> {
+  /**
+   * Add a word. The value of a word added before is replaced.
+   *
+   * @param key   word
+   * @param value value associated with the word
+   */
+  void put(String key, V value);
+
+  /**
+   * Get the value of a word.
+   *
+   * @param key word
+   * @return value, null when the word is not in the index
+   */
+  V get(String key);
+
+  /**
+   * Check if a word is in the index.
+   *
+   * @param key word
+   * @return true when the index contains the word
+   */
+  boolean containsKey(String key);
+
+  /**
+   * Get the number of words.
+   *
+   * @return number of words
+   */
+  int size();
+
+  /**
+   * Find the words within a distance from a query.
+   *
+   * @param query       query word
+   * @param maxDistance maximum distance between the query and the words
+   * @return words whose distances from the query are not larger than
+   *         maxDistance, with their values
+   */
+  List<Map.Entry<String, V>> search(CharSequence query, int maxDistance);
+}
@@ -0,0 +1,216 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of words by symmetric deletion, the approach of SymSpell.
+ *
+ * Each word is registered under the strings made by deleting up to
+ * maxEditDistance chars from it. Two words within a distance d with unit
+ * costs have a common string made by deleting at most d chars from each,
+ * so the candidates of a query are found by looking up the deletion
+ * variants of the query, and only the candidates are verified by the
+ * LevenshteinCalculator. The costs of the calculator must be at least 1,
+ * for the distance not to be smaller than the one with unit costs.
+ *
+ * A lookup costs a few hash probes, while adding a word costs the
+ * registration of all its variants. The index suits a vocabulary which
+ * is read much more often than it grows. A query with a distance larger
+ * than maxEditDistance is answered by verifying all the words.
+ *
+ * @param <V> type of the values associated with the words
+ */
+public final class SymmetricDeleteIndex<V> implements SimilarWordIndex<V> {
+  /**
+   * Constructor of an index keyed by the distance with unit costs.
+   *
+   * @param maxEditDistance maximum number of chars deleted from the words
+   */
+  public SymmetricDeleteIndex(int maxEditDistance) {
+    this(maxEditDistance, LevenshteinCalculator.UNIT_COST);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxEditDistance maximum number of chars deleted from the words
+   * @param calculator      calculator of the distance
+   * @throws IllegalArgumentException when maxEditDistance is negative or a
+   *                                  cost is smaller than 1
+   */
+  public SymmetricDeleteIndex(int maxEditDistance,
+                              LevenshteinCalculator calculator) {
+    if (maxEditDistance < 0) {
+      throw new IllegalArgumentException(
+          "Negative maximum edit distance: " + maxEditDistance);
+    }
+    if (calculator.getInsertionCost() < 1
+        || calculator.getDeletionCost() < 1
+        || calculator.getSubstitutionCost() < 1) {
+      throw new IllegalArgumentException("Costs must be at least 1");
+    }
+    this.maxEditDistance = maxEditDistance;
+    this.calculator = calculator;
+  }
+
+  @Override
+  public void put(String key, V value) {
+    Word<V> existing = words.get(key);
+    if (existing != null) {
+      existing.value = value;
+      return;
+    }
+    Word<V> added = new Word<V>(key, value);
+    words.put(key, added);
+    for (String variant : getDeletions(key, maxEditDistance)) {
+      List<Word<V>> registered = variants.get(variant);
+      if (registered == null) {
+        registered = new ArrayList<Word<V>>(1);
+        variants.put(variant, registered);
+      }
+      registered.add(added);
+    }
+  }
+
+  @Override
+  public V get(String key) {
+    Word<V> word = words.get(key);
+    return word == null ? null : word.value;
+  }
+
+  @Override
+  public boolean containsKey(String key) {
+    return words.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return words.size();
+  }
+
+  @Override
+  public List<Map.Entry<String, V>> search(CharSequence query,
+                                           int maxDistance) {
+    List<Map.Entry<String, V>> found = new ArrayList<Map.Entry<String, V>>();
+    if (maxDistance < 0) {
+      return found;
+    }
+    if (maxDistance > maxEditDistance) {
+      for (Word<V> word : words.values()) {
+        if (isSimilar(word, query, maxDistance)) {
+          found.add(word);
+        }
+      }
+      return found;
+    }
+    Set<Word<V>> candidates = new HashSet<Word<V>>();
+    for (String variant : getDeletions(query, maxDistance)) {
+      List<Word<V>> registered = variants.get(variant);
+      if (registered == null) {
+        continue;
+      }
+      for (Word<V> word : registered) {
+        if (candidates.add(word) && isSimilar(word, query, maxDistance)) {
+          found.add(word);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Get the maximum number of chars deleted from the words.
+   *
+   * @return maximum edit distance of the deletion variants
+   */
+  public int getMaxEditDistance() {
+    return maxEditDistance;
+  }
+
+  private boolean isSimilar(Word<V> word, CharSequence query,
+                            int maxDistance) {
+    return Math.abs(word.key.length() - query.length()) <= maxDistance
+        && calculator.getDistance(word.key, query, maxDistance)
+        <= maxDistance;
+  }
+
+  /* the word and the strings made by deleting up to distance chars */
+  private static Set<String> getDeletions(CharSequence word, int distance) {
+    Set<String> deletions = new HashSet<String>();
+    List<String> current = new ArrayList<String>();
+    current.add(word.toString());
+    deletions.add(word.toString());
+    for (int d = 0; d < distance; d++) {
+      List<String> next = new ArrayList<String>();
+      for (String variant : current) {
+        for (int i = 0; i < variant.length(); i++) {
+          String deleted = variant.substring(0, i) + variant.substring(i + 1);
+          if (deletions.add(deleted)) {
+            next.add(deleted);
+          }
+        }
+      }
+      current = next;
+    }
+    return deletions;
+  }
+
+  private static final class Word<V> implements Map.Entry<String, V> {
+    Word(String key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V newValue) {
+      throw new UnsupportedOperationException(
+          "Use SymmetricDeleteIndex.put instead");
+    }
+
+    private final String key;
+
+    private V value;
+  }
+
+  private final int maxEditDistance;
+
+  private final LevenshteinCalculator calculator;
+
+  private final Map<String, Word<V>> words = new HashMap<String, Word<V>>();
+
+  /* words registered under their deletion variants */
+  private final Map<String, List<Word<V>>> variants =
+      new HashMap<String, List<Word<V>>>();
+}
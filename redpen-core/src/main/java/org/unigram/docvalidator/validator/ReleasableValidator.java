@@ -0,0 +1,31 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator;
+
+/**
+ * Validator holding shared resources, such as dictionaries acquired from
+ * the DictionaryRegistry, which are released when the validator is no
+ * longer used.
+ */
+public interface ReleasableValidator {
+  /**
+   * Release the resources. The validator must not be used after the
+   * release.
+   */
+  void release();
+}
@@ -0,0 +1,35 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator;
+
+/**
+ * Validator which keeps mutable state while validating a document, such as
+ * the words seen in the previous sentences. The state is not stored in the
+ * validator but in the ValidationContext of the document, so that one
+ * validator instance can validate several documents concurrently.
+ *
+ * @param <S> type of the state
+ */
+public interface StatefulValidator<S> {
+  /**
+   * Create the initial state. Called once for each ValidationContext.
+   *
+   * @return new state
+   */
+  S createState();
+}
@@ -0,0 +1,84 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Holds the mutable state of StatefulValidators during the validation of a
+ * document. DocumentValidator creates a context for each document and binds
+ * it to the thread validating the document, while the validators keep only
+ * their configuration.
+ */
+public final class ValidationContext {
+  /**
+   * Constructor.
+   */
+  public ValidationContext() {
+    super();
+    states = new IdentityHashMap<StatefulValidator<?>, Object>();
+  }
+
+  /**
+   * Get the state of the given validator, creating it at the first call.
+   *
+   * @param validator stateful validator
+   * @param <S>       type of the state
+   * @return state of the validator in this context
+   */
+  @SuppressWarnings("unchecked")
+  public <S> S getState(StatefulValidator<S> validator) {
+    Object state = states.get(validator);
+    if (state == null) {
+      state = validator.createState();
+      states.put(validator, state);
+    }
+    return (S) state;
+  }
+
+  /**
+   * Get the context bound to the current thread.
+   *
+   * @return the bound context, null when no context is bound
+   */
+  public static ValidationContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Bind a context to the current thread.
+   *
+   * @param context context to bind, null to unbind
+   * @return the context previously bound to the thread
+   */
+  public static ValidationContext bind(ValidationContext context) {
+    ValidationContext previous = CURRENT.get();
+    if (context == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(context);
+    }
+    return previous;
+  }
+
+  private static final ThreadLocal<ValidationContext> CURRENT =
+      new ThreadLocal<ValidationContext>();
+
+  private final Map<StatefulValidator<?>, Object> states;
+}
@@ -18,7 +18,6 @@
 package org.unigram.docvalidator.validator.section;
 
 import java.util.List;
-import java.util.ArrayList;
 
 import org.unigram.docvalidator.model.Section;
 import org.unigram.docvalidator.config.CharacterTable;
@@ -29,7 +28,8 @@ import org.unigram.docvalidator.ValidationError;
  * Validate paragraph number. If a section has paragraphs more than specified,
  * This validator reports it.
  */
-public class ParagraphNumberValidator extends AbstractSectionValidator {
+public class ParagraphNumberValidator
+    extends AbstractCollectingSectionValidator {
   /**
    * Default maximum number of paragraphs in a section.
    */
@@ -47,17 +47,15 @@ public class ParagraphNumberValidator extends AbstractSectionValidator {
   }
 
   @Override
-  public List<ValidationError> validate(Section section) {
-    List<ValidationError> validationErrors = new ArrayList<ValidationError>();
+  public void validate(Section section,
+                       List<ValidationError> validationErrors) {
     int paragraphNumber = section.getNumberOfParagraphs();
     if (maxParagraphs < paragraphNumber) {
       validationErrors.add(new ValidationError(
           this.getClass(),
           "The number of the paragraphs exceeds the maximum "
               + String.valueOf(paragraphNumber), section.getHeaderContent(0)));
-      return validationErrors;
     }
-    return validationErrors;
   }
 
   private boolean loadConfiguration(ValidatorConfiguration conf) {
@@ -18,7 +18,6 @@
 package org.unigram.docvalidator.validator.section;
 
 import java.util.List;
-import java.util.ArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +31,8 @@ import org.unigram.docvalidator.ValidationError;
 /**
  * Validate whether paragraph start as specified.
  */
-public class ParagraphStartWithValidator extends AbstractSectionValidator {
+public class ParagraphStartWithValidator
+    extends AbstractCollectingSectionValidator {
   /**
    * Default matter paragraph start with.
    */
@@ -54,8 +54,8 @@ public class ParagraphStartWithValidator extends AbstractSectionValidator {
   }
 
   @Override
-  public List<ValidationError> validate(Section section) {
-    List<ValidationError> validationErrors = new ArrayList<ValidationError>();
+  public void validate(Section section,
+                       List<ValidationError> validationErrors) {
 
     for (Paragraph currentParagraph : section.getParagraphs()) {
       Sentence firstSentence = currentParagraph.getSentence(0);
@@ -66,8 +66,6 @@ public class ParagraphStartWithValidator extends AbstractSectionValidator {
             firstSentence));
       }
     }
-
-    return validationErrors;
   }
 
   private boolean loadConfiguration(ValidatorConfiguration conf) {
@@ -26,13 +26,13 @@ import org.unigram.docvalidator.config.CharacterTable;
 import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate the length of one section.
  */
-public class SectionLengthValidator extends AbstractSectionValidator {
+public class SectionLengthValidator
+    extends AbstractCollectingSectionValidator {
   /**
    * Constructor.
    */
@@ -47,8 +47,8 @@ public class SectionLengthValidator extends AbstractSectionValidator {
   }
 
   @Override
-  public List<ValidationError> validate(Section section) {
-    List<ValidationError> validationErrors = new ArrayList<ValidationError>();
+  public void validate(Section section,
+                       List<ValidationError> validationErrors) {
     int sectionCharNumber = 0;
 
     for (Paragraph currentParagraph : section.getParagraphs()) {
@@ -65,7 +65,6 @@ public class SectionLengthValidator extends AbstractSectionValidator {
         validationErrors.add(error);
       }
     }
-    return validationErrors;
   }
 
   private boolean loadConfiguration(ValidatorConfiguration conf) {
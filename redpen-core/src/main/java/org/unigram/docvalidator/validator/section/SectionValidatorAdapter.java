@@ -0,0 +1,71 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.section;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Section;
+
+import java.util.List;
+
+/**
+ * Adapter to use a SectionValidator returning a list of errors as a
+ * CollectingSectionValidator.
+ */
+public final class SectionValidatorAdapter
+    implements CollectingSectionValidator {
+
+  /**
+   * Get a CollectingSectionValidator for the given validator.
+   *
+   * @param validator section validator
+   * @return the validator itself when it is already a
+   * CollectingSectionValidator, an adapter wrapping it otherwise
+   */
+  public static CollectingSectionValidator adapt(SectionValidator validator) {
+    if (validator instanceof CollectingSectionValidator) {
+      return (CollectingSectionValidator) validator;
+    }
+    return new SectionValidatorAdapter(validator);
+  }
+
+  private SectionValidatorAdapter(SectionValidator validator) {
+    this.validator = validator;
+  }
+
+  public List<ValidationError> validate(Section section) {
+    return validator.validate(section);
+  }
+
+  public void validate(Section section, List<ValidationError> errors) {
+    List<ValidationError> result = validator.validate(section);
+    if (result != null && !result.isEmpty()) {
+      errors.addAll(result);
+    }
+  }
+
+  /**
+   * Get the adapted validator.
+   *
+   * @return section validator
+   */
+  public SectionValidator getValidator() {
+    return validator;
+  }
+
+  private final SectionValidator validator;
+}
@@ -0,0 +1,38 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class of CollectingSentenceValidator. The validate method returning
+ * a list is implemented with the collecting one.
+ */
+public abstract class AbstractCollectingSentenceValidator
+    implements CollectingSentenceValidator {
+
+  public List<ValidationError> validate(Sentence sentence) {
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    validate(sentence, errors);
+    return errors;
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryRegistry;
+import org.unigram.docvalidator.validator.ReleasableValidator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of DictionaryMatchingValidator which validates a sentence
+ * alone by scanning it with its own automaton. The automaton is built at
+ * the first call of validate, since DocumentValidator scans the sentences
+ * with the automaton merging all the validators. The dictionary acquired
+ * from the DictionaryRegistry, if any, is kept until the validator is
+ * released.
+ */
+public abstract class AbstractDictionaryMatchingValidator
+    extends AbstractCollectingSentenceValidator
+    implements DictionaryMatchingValidator, ReleasableValidator {
+
+  public void validate(Sentence sentence, List<ValidationError> errors) {
+    DictionaryMatchVisitor[] visitors = {
+        createMatchVisitor(sentence, errors)
+    };
+    getMatcher().match(sentence.content, visitors);
+    visitors[0].finish();
+  }
+
+  public List<String> getPatterns() {
+    return patterns;
+  }
+
+  /**
+   * Set the patterns to be found. The list is kept without copying, so that
+   * the patterns can stay in a dictionary mapped out of the heap, and must
+   * not be modified afterwards.
+   *
+   * @param patternList patterns to be found
+   */
+  protected synchronized void setPatterns(List<String> patternList) {
+    this.patterns = Collections.unmodifiableList(patternList);
+    this.patternDictionary = null;
+    this.matcher = null;
+  }
+
+  /**
+   * Set the words of a dictionary as the patterns. The validator alone
+   * scans the sentences with the automaton of the dictionary, which is
+   * shared with the other validators using the same dictionary.
+   *
+   * @param dictionary dictionary whose words are the patterns
+   */
+  protected synchronized void setPatterns(CompiledDictionary dictionary) {
+    this.patterns = dictionary.getKeys();
+    this.patternDictionary = dictionary;
+    this.matcher = null;
+  }
+
+  public CompiledDictionary getPatternDictionary() {
+    return patternDictionary;
+  }
+
+  private synchronized SharedDictionaryMatcher getMatcher() {
+    if (matcher == null) {
+      matcher = new SharedDictionaryMatcher(
+          Collections.singletonList(this));
+    }
+    return matcher;
+  }
+
+  public void release() {
+    if (acquiredDictionary != null) {
+      DictionaryRegistry.getInstance().release(acquiredDictionary);
+      acquiredDictionary = null;
+    }
+  }
+
+  /**
+   * Keep a dictionary acquired from the DictionaryRegistry until the
+   * validator is released. A dictionary kept before is released.
+   *
+   * @param dictionary acquired dictionary
+   */
+  protected void setAcquiredDictionary(CompiledDictionary dictionary) {
+    release();
+    this.acquiredDictionary = dictionary;
+  }
+
+  /**
+   * Get a pattern.
+   *
+   * @param patternId index of the pattern
+   * @return pattern
+   */
+  protected String getPattern(int patternId) {
+    return patterns.get(patternId);
+  }
+
+  private List<String> patterns = Collections.emptyList();
+
+  private CompiledDictionary acquiredDictionary;
+
+  private CompiledDictionary patternDictionary;
+
+  /* automaton of the patterns alone, built at the first validate */
+  private SharedDictionaryMatcher matcher;
+}
@@ -0,0 +1,41 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.List;
+
+/**
+ * SentenceValidator which checks sentences character by character.
+ * DocumentValidator scans the content of each sentence only once and
+ * passes the characters to the visitors of all the validators implementing
+ * this interface.
+ */
+public interface CharacterVisitingValidator extends SentenceValidator {
+  /**
+   * Create a visitor to check the given sentence.
+   *
+   * @param sentence input
+   * @param errors   list to which the visitor appends the invalid points
+   * @return visitor receiving the characters of the sentence
+   */
+  CharacterVisitor createVisitor(Sentence sentence,
+                                 List<ValidationError> errors);
+}
@@ -0,0 +1,37 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.List;
+
+/**
+ * SentenceValidator which appends the invalid points to a list owned by the
+ * caller. No list is allocated for sentences without errors.
+ */
+public interface CollectingSentenceValidator extends SentenceValidator {
+  /**
+   * Check input sentence and append the invalid points to the given list.
+   *
+   * @param sentence input
+   * @param errors   list to which the invalid points are appended
+   */
+  void validate(Sentence sentence, List<ValidationError> errors);
+}
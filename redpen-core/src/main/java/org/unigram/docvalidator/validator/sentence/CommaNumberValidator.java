@@ -18,7 +18,6 @@
 package org.unigram.docvalidator.validator.sentence;
 
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -32,7 +31,8 @@ import org.unigram.docvalidator.DocumentValidatorException;
 /**
  * Validate the number of commas in one sentence.
  */
-public class CommaNumberValidator implements SentenceValidator {
+public class CommaNumberValidator
+    extends AbstractCollectingSentenceValidator {
   /**
    * Default maximum number of comma.
    */
@@ -57,8 +57,7 @@ public class CommaNumberValidator implements SentenceValidator {
     initialize(config, characterTable);
   }
 
-  public List<ValidationError> validate(Sentence line) {
-    List<ValidationError> result = new ArrayList<ValidationError>();
+  public void validate(Sentence line, List<ValidationError> errors) {
     String content = line.content;
     int commaCount =  0;
     int position = 0;
@@ -68,12 +67,11 @@ public class CommaNumberValidator implements SentenceValidator {
       content = content.substring(position + 1, content.length());
     }
     if (maxCommaNum < commaCount) {
-      result.add(new ValidationError(
+      errors.add(new ValidationError(
           this.getClass(),
           "The number of comma is exceeds the maximum \""
           + String.valueOf(commaCount) + "\".", line));
     }
-    return result;
   }
 
   private boolean initialize(ValidatorConfiguration conf,
@@ -0,0 +1,34 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.util.AhoCorasickMatcher;
+
+/**
+ * Receive the occurrences of the patterns of a DictionaryMatchingValidator
+ * in a sentence. A visitor is created for each sentence, so it can keep the
+ * state of the scan in its fields. The invalid points are appended to the
+ * list given on the creation.
+ */
+public interface DictionaryMatchVisitor
+    extends AhoCorasickMatcher.MatchListener {
+  /**
+   * Called after all the occurrences in the sentence are given.
+   */
+  void finish();
+}
@@ -0,0 +1,63 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CompiledDictionary;
+
+import java.util.List;
+
+/**
+ * SentenceValidator which finds the patterns of a dictionary in sentences.
+ * DocumentValidator merges the patterns of all the validators implementing
+ * this interface into one automaton, scans each sentence only once and
+ * passes the occurrences to the visitors of the validators owning the
+ * patterns.
+ */
+public interface DictionaryMatchingValidator extends SentenceValidator {
+  /**
+   * Get the patterns to be found. The index of a pattern in the list is the
+   * identifier given to the visitor.
+   *
+   * @return list of patterns
+   */
+  List<String> getPatterns();
+
+  /**
+   * Get the dictionary whose words are the patterns, if any. The words are
+   * merged only once for all the validators using the dictionary, and the
+   * merged automaton is shared by the DocumentValidators using the same
+   * dictionaries.
+   *
+   * @return dictionary whose word indices are the pattern identifiers,
+   * null when the patterns are not the words of a dictionary
+   */
+  CompiledDictionary getPatternDictionary();
+
+  /**
+   * Create a visitor to check the given sentence.
+   *
+   * @param sentence input
+   * @param errors   list to which the visitor appends the invalid points
+   * @return visitor receiving all the occurrences of the patterns in the
+   * sentence, including the overlapping ones
+   */
+  DictionaryMatchVisitor createMatchVisitor(Sentence sentence,
+                                            List<ValidationError> errors);
+}
@@ -17,20 +17,22 @@
  */
 package org.unigram.docvalidator.validator.sentence;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 import org.unigram.docvalidator.DocumentValidatorException;
 import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.CharacterTable;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CodePointSet;
 
 /**
- * Validate if there is invalid characters in sentences.
+ * Validate if there is invalid characters in sentences. The invalid
+ * characters of the character table are compiled into a lookup set, and
+ * every occurrence of them is reported in a single scan of a sentence.
  */
-public class InvalidCharacterValidator implements SentenceValidator {
+public class InvalidCharacterValidator
+    extends AbstractCharacterVisitingValidator {
   public InvalidCharacterValidator(ValidatorConfiguration config,
                                    CharacterTable characterTable)
       throws DocumentValidatorException {
@@ -40,42 +42,67 @@ public class InvalidCharacterValidator implements SentenceValidator {
   public InvalidCharacterValidator() {
   }
 
-  public List<ValidationError> validate(Sentence sentence) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    Set<String> names = characterTable.getNames();
-    for (String name : names) {
-      ValidationError error = validateCharacter(sentence, name);
-      if (error != null) {
-        errors.add(error);
+  public CharacterVisitor createVisitor(final Sentence sentence,
+                                        final List<ValidationError> errors) {
+    return new CharacterVisitor() {
+      public void visit(char c, int position) {
+        if (highSurrogate != 0 && Character.isLowSurrogate(c)) {
+          int codePoint = Character.toCodePoint(highSurrogate, c);
+          highSurrogate = 0;
+          if (invalidChars.contains(codePoint)) {
+            addError(codePoint, position - 1);
+          }
+        } else if (Character.isHighSurrogate(c)) {
+          highSurrogate = c;
+        } else {
+          highSurrogate = 0;
+          if (invalidChars.contains(c)) {
+            addError(c, position);
+          }
+        }
       }
-    }
-    return errors;
+
+      public void finish() {
+      }
+
+      private void addError(int codePoint, int start) {
+        String symbol = new String(Character.toChars(codePoint));
+        errors.add(new ValidationError(
+            InvalidCharacterValidator.this.getClass(),
+            "Invalid symbol found: \"" + symbol + "\"",
+            sentence, start, start + symbol.length()));
+      }
+
+      /* high surrogate preceding the visited character, 0 for none */
+      private char highSurrogate;
+    };
   }
 
   private boolean initialize(CharacterTable characters)
       throws DocumentValidatorException {
-    this.characterTable = characters;
+    setCharacterTable(characters);
     return true;
   }
 
+  /**
+   * Set the character table whose invalid characters are compiled into the
+   * lookup set.
+   *
+   * @param characters character table
+   */
   protected void setCharacterTable(CharacterTable characters) {
-    this.characterTable = characters;
-  }
-
-  private ValidationError validateCharacter(Sentence sentence, String name) {
-    String sentenceStr = sentence.content;
-    org.unigram.docvalidator.config.Character character = characterTable.getCharacter(name);
-    List<String> invalidCharsList = character.getInvalidChars();
-    for (String invalidChar : invalidCharsList) {
-      if (sentenceStr.contains(invalidChar)) {
-        return new ValidationError(
-            this.getClass(),
-            "Invalid symbol found: \"" + invalidChar + "\"",
-            sentence);
+    CodePointSet codePoints = new CodePointSet();
+    for (String name : characters.getNames()) {
+      // the surrogate pairs are split into single chars by Character
+      StringBuilder invalid = new StringBuilder();
+      for (String invalidChar
+          : characters.getCharacter(name).getInvalidChars()) {
+        invalid.append(invalidChar);
       }
+      codePoints.addAll(invalid);
     }
-    return null;
+    this.invalidChars = codePoints;
   }
 
-  private CharacterTable characterTable;
+  private CodePointSet invalidChars = new CodePointSet();
 }
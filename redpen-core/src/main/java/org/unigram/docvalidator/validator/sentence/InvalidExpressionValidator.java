@@ -22,44 +22,78 @@ import org.slf4j.LoggerFactory;
 import org.unigram.docvalidator.config.CharacterTable;
 import org.unigram.docvalidator.model.Sentence;
 import org.unigram.docvalidator.DocumentValidatorException;
-import org.unigram.docvalidator.util.FileLoader;
+import org.unigram.docvalidator.util.AhoCorasickMatcher;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryRegistry;
+import org.unigram.docvalidator.util.RegexDfaMatcher;
 import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
-import org.unigram.docvalidator.util.WordListExtractor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * Validate input sentences contain invalid expression.
+ *
+ * An expression surrounded with slashes such as "/\d+kg/" is a regular
+ * expression. The regular expressions are compiled into deterministic
+ * automata scanning a sentence in linear time, split into several automata
+ * when a single one would be too large, and the other expressions are found
+ * by the dictionary automaton.
  */
-public class InvalidExpressionValidator implements SentenceValidator {
+public class InvalidExpressionValidator
+    extends AbstractDictionaryMatchingValidator {
   /**
    * Constructor.
    */
   public InvalidExpressionValidator() {
-    invalidExpressions = new HashSet<String>();
+    setInvalidExpressions(new HashSet<String>());
   }
 
   public InvalidExpressionValidator(ValidatorConfiguration config,
                                     CharacterTable characterTable)
       throws DocumentValidatorException {
+    setInvalidExpressions(new HashSet<String>());
     initialize(config);
   }
 
-  public List<ValidationError> validate(Sentence line) {
-    List<ValidationError> result = new ArrayList<ValidationError>();
-    String str = line.content;
-    for (String w : invalidExpressions) {
-      if (str.contains(w)) {
-        result.add(new ValidationError(
-            this.getClass(),
-            "Found invalid expression: \"" + w + "\"", line));
+  public DictionaryMatchVisitor createMatchVisitor(
+      final Sentence line, final List<ValidationError> errors) {
+    return new DictionaryMatchVisitor() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        if (regexIds.get(patternId)) {
+          return;
+        }
+        errors.add(new ValidationError(
+            InvalidExpressionValidator.this.getClass(),
+            "Found invalid expression: \"" + getPattern(patternId) + "\"",
+            line, start, end));
       }
-    }
-    return result;
+
+      @Override
+      public void finish() {
+        for (final RegexDfaMatcher regexMatcher : regexMatchers) {
+          regexMatcher.match(line.content,
+              new AhoCorasickMatcher.MatchListener() {
+                @Override
+                public void matched(int patternId, int start, int end) {
+                  errors.add(new ValidationError(
+                      InvalidExpressionValidator.this.getClass(),
+                      "Found invalid expression: \""
+                          + line.content.substring(start, end)
+                          + "\" matching /"
+                          + regexMatcher.getPattern(patternId) + "/",
+                      line, start, end));
+                }
+              });
+        }
+      }
+    };
   }
 
   private boolean initialize(ValidatorConfiguration conf)
@@ -70,16 +104,101 @@ public class InvalidExpressionValidator implements SentenceValidator {
       LOG.error("dictionary file is not specified");
       return false;
     }
-    WordListExtractor extractor = new WordListExtractor();
-    FileLoader loader = new FileLoader(extractor);
-    if (loader.loadFile(confFile) != 0) {
+    CompiledDictionary dictionary =
+        DictionaryRegistry.getInstance().acquireWordList(confFile);
+    if (dictionary == null) {
       return false;
     }
-    invalidExpressions = extractor.get();
+    setAcquiredDictionary(dictionary);
+    // regular expressions are the words in ["/", "0") of the sorted keys;
+    // they stay in the shared automaton and their occurrences are skipped
+    int from = dictionary.lowerBound("/");
+    int to = dictionary.lowerBound("0");
+    BitSet ids = new BitSet();
+    List<String> regexes = new ArrayList<String>();
+    for (int i = from; i < to; i++) {
+      String expression = dictionary.getKey(i);
+      if (isRegex(expression)) {
+        ids.set(i);
+        regexes.add(stripSlashes(expression));
+      }
+    }
+    setPatterns(dictionary);
+    this.regexIds = ids;
+    setRegexes(regexes);
     return true;
   }
 
-  private Set<String> invalidExpressions;
+  /**
+   * Set the invalid expressions compiled into the automaton scanning the
+   * sentences.
+   *
+   * @param expressions invalid expressions
+   */
+  protected void setInvalidExpressions(Set<String> expressions) {
+    List<String> fixed = new ArrayList<String>();
+    List<String> regexes = new ArrayList<String>();
+    for (String expression : expressions) {
+      if (isRegex(expression)) {
+        regexes.add(stripSlashes(expression));
+      } else {
+        fixed.add(expression);
+      }
+    }
+    setPatterns(fixed);
+    this.regexIds = new BitSet();
+    setRegexes(regexes);
+  }
+
+  private void setRegexes(List<String> regexes) {
+    List<String> valid = new ArrayList<String>();
+    for (String regex : regexes) {
+      try {
+        new RegexDfaMatcher(Collections.singletonList(regex));
+        valid.add(regex);
+      } catch (IllegalArgumentException e) {
+        LOG.error("Skipped invalid expression /" + regex + "/: "
+            + e.getMessage());
+      }
+    }
+    List<RegexDfaMatcher> matchers = new ArrayList<RegexDfaMatcher>();
+    if (valid.size() > 0) {
+      compileRegexes(valid, matchers);
+    }
+    if (matchers.size() > 1) {
+      LOG.info("Regular expressions are split into " + matchers.size()
+          + " automata");
+    }
+    this.regexMatchers = matchers;
+  }
+
+  /* compile valid expressions, halving them while the automaton is too
+   * large; a single valid expression always compiles */
+  private static void compileRegexes(List<String> regexes,
+                                     List<RegexDfaMatcher> matchers) {
+    try {
+      matchers.add(new RegexDfaMatcher(regexes));
+    } catch (IllegalArgumentException e) {
+      int half = regexes.size() / 2;
+      compileRegexes(regexes.subList(0, half), matchers);
+      compileRegexes(regexes.subList(half, regexes.size()), matchers);
+    }
+  }
+
+  private static boolean isRegex(String expression) {
+    return expression.length() >= 3 && expression.startsWith("/")
+        && expression.endsWith("/");
+  }
+
+  private static String stripSlashes(String expression) {
+    return expression.substring(1, expression.length() - 1);
+  }
+
+  private List<RegexDfaMatcher> regexMatchers =
+      Collections.emptyList();
+
+  /* identifiers of the patterns which are regular expressions */
+  private BitSet regexIds = new BitSet();
 
   private static final Logger LOG =
       LoggerFactory.getLogger(InvalidExpressionValidator.class);
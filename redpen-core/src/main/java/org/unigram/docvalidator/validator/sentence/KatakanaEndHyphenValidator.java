@@ -26,7 +26,6 @@ import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.model.Sentence;
 import org.unigram.docvalidator.util.StringUtils;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -48,7 +47,8 @@ import java.util.List;
  *
  * Note that KatakanaEndHyphenValidator only checks the rules a) and b).
  */
-public class KatakanaEndHyphenValidator implements SentenceValidator {
+public class KatakanaEndHyphenValidator
+    extends AbstractCharacterVisitingValidator {
   /**
    * Default Katakana limit length without hypen.
    */
@@ -68,40 +68,36 @@ public class KatakanaEndHyphenValidator implements SentenceValidator {
     initialize(config, characterTable);
   }
 
-  public List<ValidationError> validate(Sentence sentence) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    List<ValidationError> result;
-    StringBuffer katakana = new StringBuffer("");
-    for (int i = 0; i < sentence.content.length(); i++) {
-      char c = sentence.content.charAt(i);
-      if (StringUtils.isKatakana(c) && c != KATAKANA_MIDDLE_DOT) {
-        katakana.append(c);
-      } else {
-        result = this.checkKatakanaEndHyphen(sentence, katakana);
-        if (result != null) {
-          errors.addAll(result);
+  public CharacterVisitor createVisitor(final Sentence sentence,
+                                        final List<ValidationError> errors) {
+    return new CharacterVisitor() {
+      public void visit(char c, int position) {
+        if (StringUtils.isKatakana(c) && c != KATAKANA_MIDDLE_DOT) {
+          katakana.append(c);
+        } else {
+          checkKatakanaEndHyphen(sentence, katakana, errors);
+          katakana.delete(0, katakana.length());
         }
-        katakana.delete(0, katakana.length());
       }
-    }
-    result = this.checkKatakanaEndHyphen(sentence, katakana);
-    if (result != null) {
-      errors.addAll(result);
-    }
-    return errors;
+
+      public void finish() {
+        checkKatakanaEndHyphen(sentence, katakana, errors);
+      }
+
+      private final StringBuffer katakana = new StringBuffer("");
+    };
   }
 
-  private List<ValidationError> checkKatakanaEndHyphen(Sentence sentence,
-      StringBuffer katakana) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
+  private void checkKatakanaEndHyphen(Sentence sentence,
+      StringBuffer katakana, List<ValidationError> errors) {
     if (isKatakanaEndHyphen(katakana)) {
       errors.add(new ValidationError(
           this.getClass(),
           "Invalid Katakana end hypen found \"" + katakana.toString() + "\"",
           sentence));
     }
-    return errors;
   }
+
   public static boolean isKatakanaEndHyphen(StringBuffer katakana) {
     return (DEFAULT_KATAKANA_LIMIT_LENGTH < katakana.length()
             && katakana.charAt(katakana.length() - 1) == HYPHEN);
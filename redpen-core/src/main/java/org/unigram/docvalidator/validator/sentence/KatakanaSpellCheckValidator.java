@@ -17,19 +17,23 @@
  */
 package org.unigram.docvalidator.validator.sentence;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.unigram.docvalidator.model.Sentence;
 import org.unigram.docvalidator.config.CharacterTable;
+import org.unigram.docvalidator.util.BkTree;
+import org.unigram.docvalidator.util.LevenshteinCalculator;
+import org.unigram.docvalidator.util.SimilarWordIndex;
+import org.unigram.docvalidator.util.SymmetricDeleteIndex;
 import org.unigram.docvalidator.util.StringUtils;
-import org.unigram.docvalidator.util.LevenshteinDistance;
 import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.DocumentValidatorException;
+import org.unigram.docvalidator.validator.StatefulValidator;
+import org.unigram.docvalidator.validator.ValidationContext;
 
 /**
  * Validate the correctness of Katakana word spelling.
@@ -50,8 +54,22 @@ import org.unigram.docvalidator.DocumentValidatorException;
  * length of Katakana word. And if the length of a Katakana
  * word is smaller than the threshold, we do not detect
  * the similarity.
+ * The Katakana words are kept in a BK-tree, so that the similar words are
+ * found without computing the distances to all the words.
+ * With the attribute "similarity_index" set to "symmetric_delete", the
+ * words are kept in a SymmetricDeleteIndex instead, registering the
+ * deletion variants up to "max_edit_distance" chars. The lookups cost a
+ * few hash probes, while adding a word costs more, which suits documents
+ * repeating a stable vocabulary.
+ * The words are compared within each document by default. With the
+ * attribute "scope" set to "run", the words are shared by all the documents
+ * validated by the validator instance, so that the variants spread over
+ * several input files are found as well. The words of the documents
+ * validated concurrently are then registered in no particular order.
  */
-public class KatakanaSpellCheckValidator implements SentenceValidator {
+public class KatakanaSpellCheckValidator
+    extends AbstractCharacterVisitingValidator
+    implements StatefulValidator<SimilarWordIndex<Integer>> {
   /**
    * The default similarity ratio between the length and the distance.
    */
@@ -62,70 +80,106 @@ public class KatakanaSpellCheckValidator implements SentenceValidator {
    */
   private static final int MAX_IGNORE_KATAKANA_LENGTH = 3;
   /**
-   * Katakana word dic with line number.
+   * Calculator of the distance between Katakana words, independent of the
+   * costs set to LevenshteinDistance.
    */
-  private HashMap<String, Integer> dic = new HashMap<String, Integer>();
+  private static final LevenshteinCalculator DISTANCE =
+      LevenshteinCalculator.UNIT_COST;
+  /**
+   * Katakana word dic with line number, used when the validator is called
+   * without a ValidationContext or when the scope is "run". The dic is
+   * shared by the calling threads and guarded by its own lock.
+   */
+  private final SimilarWordIndex<Integer> defaultDic;
 
   public KatakanaSpellCheckValidator(ValidatorConfiguration config,
                                      CharacterTable characterTable)
       throws DocumentValidatorException {
     initialize(config, characterTable);
+    defaultDic = createState();
+  }
+
+  public SimilarWordIndex<Integer> createState() {
+    if (symmetricDelete) {
+      return new SymmetricDeleteIndex<Integer>(maxEditDistance, DISTANCE);
+    }
+    return new BkTree<Integer>(DISTANCE);
   }
 
-  public List<ValidationError> validate(Sentence sentence) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    List<ValidationError> result;
-    StringBuilder katakana = new StringBuilder("");
-    for (int i = 0; i < sentence.content.length(); i++) {
-      char c = sentence.content.charAt(i);
-      if (StringUtils.isKatakana(c)) {
-        katakana.append(c);
-      } else {
-        result = this.checkKatakanaSpell(sentence, katakana.toString());
-        if (result != null) {
-          errors.addAll(result);
+  public CharacterVisitor createVisitor(final Sentence sentence,
+                                        final List<ValidationError> errors) {
+    final SimilarWordIndex<Integer> dic = getDictionary();
+    return new CharacterVisitor() {
+      public void visit(char c, int position) {
+        if (StringUtils.isKatakana(c)) {
+          katakana.append(c);
+        } else {
+          checkKatakanaSpell(sentence, katakana.toString(), dic, errors);
+          katakana.delete(0, katakana.length());
         }
-        katakana.delete(0, katakana.length());
       }
+
+      public void finish() {
+        checkKatakanaSpell(sentence, katakana.toString(), dic, errors);
+      }
+
+      private final StringBuilder katakana = new StringBuilder("");
+    };
+  }
+
+  /**
+   * Get the dictionary of the current document. The dictionary is kept
+   * in the ValidationContext bound by DocumentValidator.
+   */
+  private SimilarWordIndex<Integer> getDictionary() {
+    ValidationContext context = ValidationContext.current();
+    if (context == null || runScope) {
+      return defaultDic;
     }
-    result = checkKatakanaSpell(sentence, katakana.toString());
-    if (result != null) {
-      errors.addAll(result);
-    }
-    return errors;
+    return context.getState(this);
   }
 
-  private List<ValidationError> checkKatakanaSpell(Sentence sentence,
-      String katakana) {
+  private void checkKatakanaSpell(Sentence sentence, String katakana,
+                                  SimilarWordIndex<Integer> dic,
+                                  List<ValidationError> errors) {
     if (katakana.length() <= MAX_IGNORE_KATAKANA_LENGTH) {
-      return null;
+      return;
+    }
+    // the lookup and the registration must be atomic on a shared dic;
+    // the lock of a dic confined to a document is never contended
+    synchronized (dic) {
+      checkKatakanaSpellInDictionary(sentence, katakana, dic, errors);
     }
+  }
+
+  private void checkKatakanaSpellInDictionary(Sentence sentence,
+                                              String katakana,
+                                              SimilarWordIndex<Integer> dic,
+                                              List<ValidationError> errors) {
     if (dic.containsKey(katakana)) {
-      return null;
+      return;
     }
     final int minLsDistance =
       Math.round(katakana.length() * SIMILARITY_RATIO);
     boolean found = false;
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    for (String key : dic.keySet()) {
-      if (LevenshteinDistance.getDistance(key, katakana) <= minLsDistance) {
-        found = true;
-        errors.add(new ValidationError(
-            this.getClass(),
-          "Found a Katakana word: \"" + katakana + "\""
-          + ", which is similar to \"" + key + "\""
-          + " at postion " + dic.get(key).toString() + ".",
-          sentence));
-      }
+    for (Map.Entry<String, Integer> similar
+        : dic.search(katakana, minLsDistance)) {
+      found = true;
+      errors.add(new ValidationError(
+          this.getClass(),
+        "Found a Katakana word: \"" + katakana + "\""
+        + ", which is similar to \"" + similar.getKey() + "\""
+        + " at postion " + similar.getValue().toString() + ".",
+        sentence));
     }
     if (!found) {
       dic.put(katakana, sentence.position);
     }
-    return errors;
   }
 
   public KatakanaSpellCheckValidator() {
     super();
+    defaultDic = createState();
   }
 
   private boolean initialize(ValidatorConfiguration conf,
@@ -134,9 +188,63 @@ public class KatakanaSpellCheckValidator implements SentenceValidator {
     //TODO : support the exception word list.
     //TODO : configurable SIMILARITY_RATIO.
     //TODO : configurable MAX_IGNORE_KATAKANA_LENGTH.
+    String index = conf.getAttribute("similarity_index");
+    if (index == null || index.equals("bk_tree")) {
+      symmetricDelete = false;
+    } else if (index.equals("symmetric_delete")) {
+      symmetricDelete = true;
+    } else {
+      throw new DocumentValidatorException(
+          "Unknown similarity_index: " + index);
+    }
+    String scope = conf.getAttribute("scope");
+    if (scope == null || scope.equals("document")) {
+      runScope = false;
+    } else if (scope.equals("run")) {
+      runScope = true;
+    } else {
+      throw new DocumentValidatorException("Unknown scope: " + scope);
+    }
+    if (symmetricDelete) {
+      this.maxEditDistance =
+          readMaxEditDistance(conf.getAttribute("max_edit_distance"));
+    }
     return true;
   }
 
+  private static int readMaxEditDistance(String value)
+      throws DocumentValidatorException {
+    if (value == null) {
+      LOG.info("max_edit_distance was not set.");
+      LOG.info("Using the default value of max_edit_distance.");
+      return DEFAULT_MAX_EDIT_DISTANCE;
+    }
+    int distance;
+    try {
+      distance = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new DocumentValidatorException(
+          "Invalid max_edit_distance: " + value);
+    }
+    if (distance < 0) {
+      throw new DocumentValidatorException(
+          "Negative max_edit_distance: " + value);
+    }
+    return distance;
+  }
+
   private static Logger LOG =
       LoggerFactory.getLogger(KatakanaSpellCheckValidator.class);
+
+  /**
+   * The default number of chars deleted from the words registered to
+   * SymmetricDeleteIndex, covering the words up to 11 chars.
+   */
+  private static final int DEFAULT_MAX_EDIT_DISTANCE = 3;
+
+  private boolean symmetricDelete = false;
+
+  private boolean runScope = false;
+
+  private int maxEditDistance = DEFAULT_MAX_EDIT_DISTANCE;
 }
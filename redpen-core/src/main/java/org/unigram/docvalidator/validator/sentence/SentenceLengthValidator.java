@@ -25,13 +25,13 @@ import org.unigram.docvalidator.DocumentValidatorException;
 import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate input sentences contain more characters more than specified.
  */
-public class SentenceLengthValidator implements SentenceValidator {
+public class SentenceLengthValidator
+    extends AbstractCollectingSentenceValidator {
   /**
    * Default maximum length of sentences.
    */
@@ -49,16 +49,14 @@ public class SentenceLengthValidator implements SentenceValidator {
     this.maxLength = DEFAULT_MAX_LENGTH;
   }
 
-  public List<ValidationError> validate(Sentence line) {
-    List<ValidationError> result = new ArrayList<ValidationError>();
+  public void validate(Sentence line, List<ValidationError> errors) {
     if (line.content.length() > maxLength) {
-      result.add(new ValidationError(
+      errors.add(new ValidationError(
           this.getClass(),
           "The length of the line exceeds the maximum "
               + String.valueOf(line.content.length()) + ".",
               line));
     }
-    return result;
   }
 
   private boolean initialize(
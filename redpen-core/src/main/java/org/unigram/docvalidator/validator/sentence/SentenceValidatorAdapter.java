@@ -0,0 +1,71 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.List;
+
+/**
+ * Adapter to use a SentenceValidator returning a list of errors as a
+ * CollectingSentenceValidator.
+ */
+public final class SentenceValidatorAdapter
+    implements CollectingSentenceValidator {
+
+  /**
+   * Get a CollectingSentenceValidator for the given validator.
+   *
+   * @param validator sentence validator
+   * @return the validator itself when it is already a
+   * CollectingSentenceValidator, an adapter wrapping it otherwise
+   */
+  public static CollectingSentenceValidator adapt(SentenceValidator validator) {
+    if (validator instanceof CollectingSentenceValidator) {
+      return (CollectingSentenceValidator) validator;
+    }
+    return new SentenceValidatorAdapter(validator);
+  }
+
+  private SentenceValidatorAdapter(SentenceValidator validator) {
+    this.validator = validator;
+  }
+
+  public List<ValidationError> validate(Sentence sentence) {
+    return validator.validate(sentence);
+  }
+
+  public void validate(Sentence sentence, List<ValidationError> errors) {
+    List<ValidationError> result = validator.validate(sentence);
+    if (result != null && !result.isEmpty()) {
+      errors.addAll(result);
+    }
+  }
+
+  /**
+   * Get the adapted validator.
+   *
+   * @return sentence validator
+   */
+  public SentenceValidator getValidator() {
+    return validator;
+  }
+
+  private final SentenceValidator validator;
+}
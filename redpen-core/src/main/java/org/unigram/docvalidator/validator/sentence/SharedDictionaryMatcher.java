@@ -0,0 +1,319 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.unigram.docvalidator.util.AhoCorasickMatcher;
+import org.unigram.docvalidator.util.CompiledDictionary;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Automaton merging the patterns of DictionaryMatchingValidators. Each
+ * pattern is tagged with the validators owning it, so that an occurrence
+ * found in a single scan is routed to the visitors of the owners with the
+ * identifiers of the pattern in their own lists.
+ *
+ * The validators using the same CompiledDictionary share its words. The
+ * automaton merging dictionaries is cached by the instances of the
+ * dictionaries, so that the DocumentValidators loading the same
+ * dictionaries from the DictionaryRegistry build it only once. When a
+ * single dictionary is used alone, its own automaton, which may be mapped
+ * from a compiled file, scans the text.
+ */
+public final class SharedDictionaryMatcher {
+  /**
+   * Constructor.
+   *
+   * @param validators validators whose patterns are merged
+   */
+  public SharedDictionaryMatcher(
+      List<? extends DictionaryMatchingValidator> validators) {
+    // the pattern lists to be merged, a dictionary counted only once
+    List<Object> sources = new ArrayList<Object>();
+    List<List<Integer>> users = new ArrayList<List<Integer>>();
+    Map<CompiledDictionary, Integer> dictionarySources =
+        new IdentityHashMap<CompiledDictionary, Integer>();
+    for (int validator = 0; validator < validators.size(); validator++) {
+      CompiledDictionary dictionary =
+          validators.get(validator).getPatternDictionary();
+      Integer source = null;
+      if (dictionary != null) {
+        source = dictionarySources.get(dictionary);
+      }
+      if (source == null) {
+        source = sources.size();
+        if (dictionary != null) {
+          dictionarySources.put(dictionary, source);
+          sources.add(dictionary);
+        } else {
+          sources.add(validators.get(validator).getPatterns());
+        }
+        users.add(new ArrayList<Integer>(1));
+      }
+      users.get(source).add(validator);
+    }
+
+    sourceValidators = new int[users.size()][];
+    for (int source = 0; source < users.size(); source++) {
+      List<Integer> sourceUsers = users.get(source);
+      sourceValidators[source] = new int[sourceUsers.size()];
+      for (int i = 0; i < sourceUsers.size(); i++) {
+        sourceValidators[source][i] = sourceUsers.get(i);
+      }
+    }
+    validatorCount = validators.size();
+    automaton = getAutomaton(sources);
+  }
+
+  /**
+   * Scan a text and pass the occurrences of the patterns to the visitors.
+   * The visitors are not finished by this method.
+   *
+   * @param text     input text
+   * @param visitors visitors indexed in the order of the validators given
+   *                 on the construction; null to skip a validator
+   */
+  public void match(CharSequence text,
+                    final DictionaryMatchVisitor[] visitors) {
+    if (automaton.matcher.getPatternCount() == 0) {
+      return;
+    }
+    automaton.matcher.match(text, new AhoCorasickMatcher.MatchListener() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        if (automaton.ownerSources == null) {
+          route(visitors, 0, patternId, start, end);
+          return;
+        }
+        int[] sources = automaton.ownerSources[patternId];
+        for (int i = 0; i < sources.length; i++) {
+          route(visitors, sources[i], automaton.ownerPatterns[patternId][i],
+              start, end);
+        }
+      }
+    });
+  }
+
+  private void route(DictionaryMatchVisitor[] visitors, int source,
+                     int patternId, int start, int end) {
+    for (int validator : sourceValidators[source]) {
+      DictionaryMatchVisitor visitor = visitors[validator];
+      if (visitor != null) {
+        visitor.matched(patternId, start, end);
+      }
+    }
+  }
+
+  /**
+   * Get the number of the merged validators.
+   *
+   * @return number of validators
+   */
+  public int getValidatorCount() {
+    return validatorCount;
+  }
+
+  /**
+   * Get the automaton scanning the texts once for all the validators.
+   *
+   * @return automaton
+   */
+  public AhoCorasickMatcher getMatcher() {
+    return automaton.matcher;
+  }
+
+  private static Automaton getAutomaton(List<Object> sources) {
+    if (sources.size() == 1 && sources.get(0) instanceof CompiledDictionary) {
+      return new Automaton(((CompiledDictionary) sources.get(0)).getMatcher(),
+          null, null);
+    }
+    boolean hasDictionary = false;
+    for (Object source : sources) {
+      hasDictionary |= source instanceof CompiledDictionary;
+    }
+    if (!hasDictionary) {
+      return Automaton.merge(sources);
+    }
+
+    synchronized (AUTOMATA) {
+      Iterator<SourceKey> keys = AUTOMATA.keySet().iterator();
+      while (keys.hasNext()) {
+        if (keys.next().isCleared()) {
+          keys.remove();
+        }
+      }
+      SourceKey key = new SourceKey(sources);
+      Automaton automaton = AUTOMATA.get(key);
+      if (automaton == null) {
+        automaton = Automaton.merge(sources);
+        AUTOMATA.put(key, automaton);
+      }
+      return automaton;
+    }
+  }
+
+  /**
+   * Automaton with the sources owning each pattern. The tables are null
+   * when the automaton is the one of a single dictionary.
+   */
+  private static final class Automaton {
+
+    Automaton(AhoCorasickMatcher matcher, int[][] ownerSources,
+              int[][] ownerPatterns) {
+      this.matcher = matcher;
+      this.ownerSources = ownerSources;
+      this.ownerPatterns = ownerPatterns;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Automaton merge(List<Object> sources) {
+      Map<String, Integer> ids = new LinkedHashMap<String, Integer>();
+      List<List<Integer>> owners = new ArrayList<List<Integer>>();
+      for (int source = 0; source < sources.size(); source++) {
+        List<String> patterns;
+        if (sources.get(source) instanceof CompiledDictionary) {
+          patterns = ((CompiledDictionary) sources.get(source)).getKeys();
+        } else {
+          patterns = (List<String>) sources.get(source);
+        }
+        for (int pattern = 0; pattern < patterns.size(); pattern++) {
+          Integer id = ids.get(patterns.get(pattern));
+          if (id == null) {
+            id = ids.size();
+            ids.put(patterns.get(pattern), id);
+            owners.add(new ArrayList<Integer>(2));
+          }
+          owners.get(id).add(source);
+          owners.get(id).add(pattern);
+        }
+      }
+
+      int[][] ownerSources = new int[owners.size()][];
+      int[][] ownerPatterns = new int[owners.size()][];
+      for (int id = 0; id < owners.size(); id++) {
+        List<Integer> tags = owners.get(id);
+        ownerSources[id] = new int[tags.size() / 2];
+        ownerPatterns[id] = new int[tags.size() / 2];
+        for (int i = 0; i < tags.size() / 2; i++) {
+          ownerSources[id][i] = tags.get(i * 2);
+          ownerPatterns[id][i] = tags.get(i * 2 + 1);
+        }
+      }
+      return new Automaton(new AhoCorasickMatcher(ids.keySet()),
+          ownerSources, ownerPatterns);
+    }
+
+    private final AhoCorasickMatcher matcher;
+
+    /* sources owning each pattern of the automaton */
+    private final int[][] ownerSources;
+
+    /* identifiers of each pattern in the lists of the owners */
+    private final int[][] ownerPatterns;
+  }
+
+  /**
+   * Key of a merged automaton: the dictionaries compared by the instances
+   * and the other pattern lists by the contents. The dictionaries are
+   * weakly referenced so that the cache does not keep them loaded.
+   */
+  private static final class SourceKey {
+
+    SourceKey(List<Object> sources) {
+      this.sources = new ArrayList<Object>(sources.size());
+      int code = 0;
+      for (Object source : sources) {
+        if (source instanceof CompiledDictionary) {
+          this.sources.add(new WeakReference<CompiledDictionary>(
+              (CompiledDictionary) source));
+          code = code * 31 + System.identityHashCode(source);
+        } else {
+          this.sources.add(source);
+          code = code * 31 + source.hashCode();
+        }
+      }
+      this.hash = code;
+    }
+
+    boolean isCleared() {
+      for (Object source : sources) {
+        if (source instanceof WeakReference
+            && ((WeakReference<?>) source).get() == null) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SourceKey)) {
+        return false;
+      }
+      SourceKey key = (SourceKey) o;
+      if (hash != key.hash || sources.size() != key.sources.size()) {
+        return false;
+      }
+      for (int i = 0; i < sources.size(); i++) {
+        Object source = sources.get(i);
+        Object other = key.sources.get(i);
+        if (source instanceof WeakReference) {
+          if (!(other instanceof WeakReference)
+              || ((WeakReference<?>) source).get() == null
+              || ((WeakReference<?>) source).get()
+              != ((WeakReference<?>) other).get()) {
+            return false;
+          }
+        } else if (!source.equals(other)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    private final List<Object> sources;
+
+    private final int hash;
+  }
+
+  /* merged automata including dictionaries, shared by DocumentValidators */
+  private static final Map<SourceKey, Automaton> AUTOMATA =
+      new HashMap<SourceKey, Automaton>();
+
+  private final Automaton automaton;
+
+  /* validators using each source */
+  private final int[][] sourceValidators;
+
+  private final int validatorCount;
+}
@@ -23,14 +23,14 @@ import org.unigram.docvalidator.config.CharacterTable;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.model.Sentence;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate input sentences except for first sentence of a paragraph start with
  * a space.
  */
-public class SpaceBeginningOfSentenceValidator implements SentenceValidator {
+public class SpaceBeginningOfSentenceValidator
+    extends AbstractCollectingSentenceValidator {
 
   public SpaceBeginningOfSentenceValidator() {
   }
@@ -40,16 +40,14 @@ public class SpaceBeginningOfSentenceValidator implements SentenceValidator {
       throws DocumentValidatorException {
   }
 
-  public List<ValidationError> validate(Sentence sentence) {
-    List<ValidationError> result = new ArrayList<ValidationError>();
+  public void validate(Sentence sentence, List<ValidationError> errors) {
     String content = sentence.content;
     if (!sentence.isFirstSentence && content.length() > 0
         && !String.valueOf(content.charAt(0)).equals(" ")) {
-      result.add(new ValidationError(
+      errors.add(new ValidationError(
           this.getClass(),
           "Space not exist the beginning of sentence.",
           sentence));
     }
-    return result;
   }
 }
@@ -24,47 +24,63 @@ import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.CharacterTable;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.model.Sentence;
-import org.unigram.docvalidator.util.FileLoader;
-import org.unigram.docvalidator.util.KeyValueDictionaryExtractor;
+import org.unigram.docvalidator.util.AhoCorasickMatcher;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryRegistry;
+import org.unigram.docvalidator.util.LeftmostLongestFilter;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * If input sentences contain invalid expressions, this validator
  * returns the errors with corrected expressions.
  */
-public class SuggestExpressionValidator implements SentenceValidator {
+public class SuggestExpressionValidator
+    extends AbstractDictionaryMatchingValidator {
 
   public SuggestExpressionValidator() {
     super();
-    synonyms = new HashMap<String, String>();
+    setSynonyms(new HashMap<String, String>());
   }
 
   public SuggestExpressionValidator(ValidatorConfiguration config,
                                     CharacterTable characterTable)
       throws DocumentValidatorException {
+    setSynonyms(new HashMap<String, String>());
     initialize(config);
   }
 
-  public List<ValidationError> validate(Sentence line) {
-    List<ValidationError> result = new ArrayList<ValidationError>();
-    String str = line.content;
-    Set<String> invalidWords = synonyms.keySet();
-    for (String w : invalidWords) {
-      if (str.contains(w)) {
-        result.add(new ValidationError(
-            this.getClass(),
-            "Found invalid word, \"" + w + "\". "
-                + "Use the synonym of the word \""
-                + synonyms.get(w) + "\" instead.", line
-        ));
+  /**
+   * Report the invalid words in the sentence with their synonyms. When
+   * invalid words overlap, only the leftmost-longest one is reported.
+   */
+  public DictionaryMatchVisitor createMatchVisitor(
+      final Sentence line, final List<ValidationError> errors) {
+    final LeftmostLongestFilter filter = new LeftmostLongestFilter(
+        line.content.length(), new AhoCorasickMatcher.MatchListener() {
+          @Override
+          public void matched(int patternId, int start, int end) {
+            errors.add(new ValidationError(
+                SuggestExpressionValidator.this.getClass(),
+                "Found invalid word, \"" + getPattern(patternId)
+                    + "\". Use the synonym of the word \""
+                    + synonyms.getValue(patternId) + "\" instead.",
+                line, start, end));
+          }
+        });
+    return new DictionaryMatchVisitor() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        filter.matched(patternId, start, end);
       }
-    }
-    return result;
+
+      @Override
+      public void finish() {
+        filter.flush();
+      }
+    };
   }
 
   private boolean initialize(
@@ -76,21 +92,32 @@ public class SuggestExpressionValidator implements SentenceValidator {
       LOG.error("dictionary file is not specified");
       return false;
     }
-    KeyValueDictionaryExtractor extractor = new KeyValueDictionaryExtractor();
-    FileLoader loader = new FileLoader(extractor);
-    if (loader.loadFile(confFile) != 0) {
+    CompiledDictionary dictionary =
+        DictionaryRegistry.getInstance().acquireKeyValues(confFile);
+    if (dictionary == null) {
       return false;
     }
-    synonyms = extractor.get();
+    setAcquiredDictionary(dictionary);
+    this.synonyms = dictionary;
+    setPatterns(dictionary);
     return true;
   }
 
+  /**
+   * Set the synonyms compiled into the automaton scanning the sentences.
+   *
+   * @param synonymMap map from invalid words to their synonyms
+   */
   protected void setSynonyms(Map<String, String> synonymMap) {
-    this.synonyms = synonymMap;
+    CompiledDictionary dictionary = CompiledDictionary.compile(synonymMap);
+    this.synonyms = dictionary;
+    // a private dictionary is merged with the patterns of the others
+    setPatterns(dictionary.getKeys());
   }
 
   private static final Logger LOG =
       LoggerFactory.getLogger(SuggestExpressionValidator.class);
 
-  private Map<String, String> synonyms;
+  /* the identifiers of the patterns are the indices of the words */
+  private CompiledDictionary synonyms;
 }
@@ -19,21 +19,28 @@ package org.unigram.docvalidator.validator.sentence;
 
 import org.unigram.docvalidator.DocumentValidatorException;
 import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.config.Character;
 import org.unigram.docvalidator.config.CharacterTable;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CodePointSet;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * Validate symbol has before and after symbols. Needed spaces is depend on
- * the symbol and defined in DVCharacterTable.
+ * the symbol and defined in DVCharacterTable. The symbols needing spaces
+ * are indexed when the table is set, and every occurrence of them is
+ * checked in a single scan of a sentence.
  */
-public class SymbolWithSpaceValidator implements SentenceValidator {
+public class SymbolWithSpaceValidator
+    extends AbstractCharacterVisitingValidator {
 
   public SymbolWithSpaceValidator() {
+    setCharacterTable(new CharacterTable());
   }
 
   public SymbolWithSpaceValidator(ValidatorConfiguration config,
@@ -42,56 +49,115 @@ public class SymbolWithSpaceValidator implements SentenceValidator {
     initialize(characterTable);
   }
 
-  public List<ValidationError> validate(Sentence sentence) {
-    List<ValidationError> errors = new ArrayList<ValidationError>();
-    Set<String> names = characterTable.getNames();
-    for (String name : names) {
-      ValidationError error = validateCharacter(sentence, name);
-      if (error != null) {
-        errors.add(error);
+  public CharacterVisitor createVisitor(final Sentence sentence,
+                                        final List<ValidationError> errors) {
+    return new CharacterVisitor() {
+      public void visit(char c, int position) {
+        if (waitingAfter != null) {
+          if (!java.lang.Character.isWhitespace(c)) {
+            errors.add(createAfterSpaceError(
+                sentence, waitingAfter, position - 1));
+          }
+          waitingAfter = null;
+        }
+        if (symbols.contains(c)) {
+          Character symbol = symbolIndex.get(c);
+          if (position > 0 && symbol.isNeedBeforeSpace()
+              && !java.lang.Character.isWhitespace(previous)) {
+            errors.add(createBeforeSpaceError(sentence, symbol, position));
+          } else if (symbol.isNeedAfterSpace()) {
+            waitingAfter = symbol;
+          }
+        }
+        previous = c;
       }
-    }
-    return errors;
+
+      public void finish() {
+        for (Character symbol : longSymbols) {
+          validateLongSymbol(sentence, symbol, errors);
+        }
+      }
+
+      private char previous;
+
+      /* symbol at the previous position needing a space after it */
+      private Character waitingAfter;
+    };
   }
 
   private boolean initialize(CharacterTable characterConf)
       throws DocumentValidatorException {
-    this.characterTable = characterConf;
+    setCharacterTable(characterConf);
     return true;
   }
 
   protected void setCharacterTable(CharacterTable characters) {
-    this.characterTable = characters;
+    CodePointSet singleChars = new CodePointSet();
+    Map<java.lang.Character, Character> index =
+        new HashMap<java.lang.Character, Character>();
+    List<Character> others = new ArrayList<Character>();
+    for (String name : characters.getNames()) {
+      Character character = characters.getCharacter(name);
+      if (!character.isNeedAfterSpace() && !character.isNeedBeforeSpace()) {
+        continue;
+      }
+      String value = character.getValue();
+      if (value.length() == 1 && !index.containsKey(value.charAt(0))) {
+        singleChars.add(value.charAt(0));
+        index.put(value.charAt(0), character);
+      } else if (value.length() > 0) {
+        others.add(character);
+      }
+    }
+    this.symbols = singleChars;
+    this.symbolIndex = index;
+    this.longSymbols = others;
   }
 
-  private ValidationError validateCharacter(Sentence sentence, String name) {
+  /* symbols longer than a char or sharing a char with another symbol */
+  private void validateLongSymbol(Sentence sentence, Character symbol,
+                                  List<ValidationError> errors) {
     String sentenceStr = sentence.content;
-    org.unigram.docvalidator.config.Character character = characterTable.getCharacter(name);
-    if (!character.isNeedAfterSpace() && !character.isNeedBeforeSpace()) {
-        return null;
-    }
-
-    String target = character.getValue();
+    String target = symbol.getValue();
     int position = sentenceStr.indexOf(target);
-    if (position != -1) {
-      if (position > 0 && character.isNeedBeforeSpace()
-          && !java.lang.Character.isWhitespace(sentenceStr.charAt(position - 1))) {
-        return new ValidationError(
-            this.getClass(),
-            "Need white space before symbol (" +  character.getName()
-            + "): " + sentenceStr.charAt(position) + ".",
-            sentence);
-      } else if (position < sentenceStr.length() - 1
-          && character.isNeedAfterSpace()
-          && !java.lang.Character.isWhitespace(sentenceStr.charAt(position + 1))) {
-        return new ValidationError(
-            this.getClass(),
-            "Need white space after symbol (" + character.getName()
-            + "): " + sentenceStr.charAt(position), sentence);
+    while (position != -1) {
+      int end = position + target.length();
+      if (position > 0 && symbol.isNeedBeforeSpace()
+          && !java.lang.Character.isWhitespace(
+              sentenceStr.charAt(position - 1))) {
+        errors.add(createBeforeSpaceError(sentence, symbol, position));
+      } else if (end < sentenceStr.length() && symbol.isNeedAfterSpace()
+          && !java.lang.Character.isWhitespace(sentenceStr.charAt(end))) {
+        errors.add(createAfterSpaceError(sentence, symbol, position));
       }
+      position = sentenceStr.indexOf(target, end);
     }
-    return null;
   }
 
-  private CharacterTable characterTable;
+  private ValidationError createBeforeSpaceError(Sentence sentence,
+                                                 Character symbol,
+                                                 int position) {
+    return new ValidationError(
+        this.getClass(),
+        "Need white space before symbol (" + symbol.getName()
+        + "): " + symbol.getValue() + ".",
+        sentence, position, position + symbol.getValue().length());
+  }
+
+  private ValidationError createAfterSpaceError(Sentence sentence,
+                                                Character symbol,
+                                                int position) {
+    return new ValidationError(
+        this.getClass(),
+        "Need white space after symbol (" + symbol.getName()
+        + "): " + symbol.getValue(),
+        sentence, position, position + symbol.getValue().length());
+  }
+
+  /* chars of the single char symbols needing spaces */
+  private CodePointSet symbols;
+
+  private Map<java.lang.Character, Character> symbolIndex;
+
+  private List<Character> longSymbols;
 }
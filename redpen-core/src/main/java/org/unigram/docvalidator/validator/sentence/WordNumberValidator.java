@@ -25,13 +25,13 @@ import org.unigram.docvalidator.DocumentValidatorException;
 import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Validate input sentences have more words than specified.
  */
-public class WordNumberValidator implements SentenceValidator {
+public class WordNumberValidator
+    extends AbstractCollectingSentenceValidator {
   /**
    * Default maximum number of words in one sentence.
    */
@@ -49,19 +49,17 @@ public class WordNumberValidator implements SentenceValidator {
     initialize(config);
   }
 
-  public List<ValidationError> validate(Sentence sentence) {
-    List<ValidationError> result = new ArrayList<ValidationError>();
+  public void validate(Sentence sentence, List<ValidationError> errors) {
     String content = sentence.content;
     String[] wordList = content.split(" ");
     int wordNum = wordList.length;
     if (wordNum > maxWordNumber) {
-      result.add(new ValidationError(
+      errors.add(new ValidationError(
           this.getClass(),
           "The number of the words exceeds the maximum "
               + String.valueOf(wordNum), sentence
       ));
     }
-    return result;
   }
 
   private boolean initialize(
@@ -0,0 +1,130 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.unigram.docvalidator.config.CharacterTable;
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.model.Document;
+import org.unigram.docvalidator.parser.DocumentParserFactory;
+import org.unigram.docvalidator.parser.Parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentStreamTest {
+
+  @Test
+  public void testStreamKeepsFileOrder() throws IOException {
+    String[] inputFileNames = new String[10];
+    for (int i = 0; i < inputFileNames.length; i++) {
+      inputFileNames[i] = createInputFile("This is a sentence " + i + ".");
+    }
+
+    DocumentStream stream = DocumentGenerator.generateStream(inputFileNames,
+        getConfiguration(), Parser.Type.PLAIN, 2);
+
+    for (String inputFileName : inputFileNames) {
+      assertTrue(stream.hasNext());
+      Document document = stream.next();
+      assertEquals(inputFileName, document.getFileName());
+    }
+    assertFalse(stream.hasNext());
+  }
+
+  @Test
+  public void testStreamWithMissingFile() throws IOException {
+    String[] inputFileNames = {
+        createInputFile("This is a sentence."), "not_exist_file.txt"};
+
+    DocumentStream stream = DocumentGenerator.generateStream(inputFileNames,
+        getConfiguration(), Parser.Type.PLAIN, 2);
+
+    assertTrue(stream.hasNext());
+    stream.next();
+    assertFalse(stream.hasNext());
+    assertTrue(stream.getFailure() instanceof DocumentValidatorException);
+  }
+
+  @Test(timeout = 10000)
+  public void testStreamWithParserThrowingRuntimeException()
+      throws IOException, DocumentValidatorException {
+    final String failingFileName = "failing_file.txt";
+    String[] inputFileNames = {
+        createInputFile("This is a sentence."), failingFileName};
+    final Parser plainParser = DocumentParserFactory.generate(
+        Parser.Type.PLAIN, getConfiguration());
+    Parser parser = new Parser() {
+      @Override
+      public Document generateDocument(InputStream io)
+          throws DocumentValidatorException {
+        return plainParser.generateDocument(io);
+      }
+
+      @Override
+      public Document generateDocument(String fileName)
+          throws DocumentValidatorException {
+        if (failingFileName.equals(fileName)) {
+          throw new IllegalArgumentException("broken parser");
+        }
+        return plainParser.generateDocument(fileName);
+      }
+
+      @Override
+      public void initialize(Configuration configuration) {
+      }
+    };
+
+    DocumentStream stream = new DocumentStream(inputFileNames, parser, 2);
+
+    assertTrue(stream.hasNext());
+    stream.next();
+    assertFalse(stream.hasNext());
+    assertTrue(stream.getFailure() instanceof IllegalArgumentException);
+  }
+
+  @Test
+  public void testStreamWithoutFailure() throws IOException {
+    DocumentStream stream = DocumentGenerator.generateStream(
+        new String[] {createInputFile("This is a sentence.")},
+        getConfiguration(), Parser.Type.PLAIN, 2);
+    stream.next();
+    assertFalse(stream.hasNext());
+    assertNull(stream.getFailure());
+  }
+
+  private static Configuration getConfiguration() {
+    return new Configuration(new ValidatorConfiguration("dummy"),
+        new CharacterTable());
+  }
+
+  private static String createInputFile(String content) throws IOException {
+    File file = File.createTempFile("document_stream", ".txt");
+    file.deleteOnExit();
+    FileUtils.writeStringToFile(file, content, "UTF-8");
+    return file.getAbsolutePath();
+  }
+}
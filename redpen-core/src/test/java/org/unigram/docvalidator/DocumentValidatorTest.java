@@ -18,16 +18,25 @@
 package org.unigram.docvalidator;
 
 import org.apache.commons.io.input.ReaderInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
+import org.unigram.docvalidator.config.CharacterTable;
+import org.unigram.docvalidator.config.CharacterTableLoader;
 import org.unigram.docvalidator.config.Configuration;
 import org.unigram.docvalidator.config.ValidationConfigurationLoader;
 import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.distributor.FakeResultDistributor;
+import org.unigram.docvalidator.distributor.ResultDistributor;
 import org.unigram.docvalidator.model.Document;
 import org.unigram.docvalidator.model.DocumentCollection;
 import org.unigram.docvalidator.model.Paragraph;
 import org.unigram.docvalidator.model.Section;
 import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryRegistry;
 
+import java.io.File;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,6 +44,7 @@ import java.util.List;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.matchers.JUnitMatchers.containsString;
 
 public class DocumentValidatorTest {
@@ -137,6 +147,12 @@ public class DocumentValidatorTest {
 
   private DocumentValidator getDocumentValidator() throws
       DocumentValidatorException {
+    return new DocumentValidator.Builder()
+        .setConfiguration(getConfiguration())
+        .build();
+  }
+
+  private Configuration getConfiguration() {
     ValidatorConfiguration validatorConfig =
         ValidationConfigurationLoader.loadConfiguration(
             new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
@@ -150,11 +166,7 @@ public class DocumentValidatorTest {
             ))
         );
 
-    Configuration configuration = new Configuration(validatorConfig);
-
-    return new DocumentValidator.Builder()
-        .setConfiguration(configuration)
-        .build();
+    return new Configuration(validatorConfig);
   }
 
   @Test
@@ -249,4 +261,502 @@ public class DocumentValidatorTest {
     assertEquals(0, errors.size());
 
   }
+
+  @Test
+  public void testParallelCheckKeepsDocumentOrder()
+      throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    for (int i = 0; i < 20; i++) {
+      Document document = new Document();
+      document.setFileName("file" + i);
+      Section section = new Section(0);
+      Paragraph paragraph = new Paragraph();
+      paragraph.appendSentence(new Sentence("it is a piece of a cake.", 0));
+      section.appendParagraph(paragraph);
+      document.appendSection(section);
+      documents.addDocument(document);
+    }
+
+    final List<String> flushedFileNames = new ArrayList<String>();
+    ResultDistributor distributor = new FakeResultDistributor() {
+      @Override
+      public int flushResult(ValidationError err) {
+        flushedFileNames.add(err.getFileName());
+        return 0;
+      }
+    };
+
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(getConfiguration())
+        .setResultDistributor(distributor)
+        .setParallelism(4)
+        .build();
+
+    List<ValidationError> errors = validator.check(documents);
+
+    assertEquals(1, errors.size());
+    assertEquals(20, flushedFileNames.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals("file" + i, flushedFileNames.get(i));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParallelism() {
+    new DocumentValidator.Builder().setParallelism(0);
+  }
+
+  @Test
+  public void testCharacterVisitingValidators()
+      throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    document.setFileName("tested file");
+    Section section0 = new Section(0);
+    Paragraph paragraph0 = new Paragraph();
+    paragraph0.appendSentence(
+        new Sentence("あのインデクスとこのインデックス", 0));
+    paragraph0.appendSentence(new Sentence("コンピューター", 1));
+    section0.appendParagraph(paragraph0);
+    document.appendSection(section0);
+    documents.addDocument(document);
+
+    ValidatorConfiguration validatorConfig =
+        ValidationConfigurationLoader.loadConfiguration(
+            new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
+                "<component name=\"Validator\">" +
+                "  <component name=\"SentenceIterator\">" +
+                "    <component name=\"KatakanaEndHyphen\"/>" +
+                "    <component name=\"KatakanaSpellCheckValidator\"/>" +
+                "  </component>" +
+                "</component>"
+            ))
+        );
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(new Configuration(validatorConfig))
+        .build();
+
+    List<ValidationError> errors = validator.check(documents);
+
+    assertEquals(2, errors.size());
+    assertThat(errors.get(0).getValidatorName(), is("KatakanaSpellCheck"));
+    assertThat(errors.get(1).getValidatorName(), is("KatakanaEndHyphen"));
+  }
+
+  @Test
+  public void testStatistics() throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    document.setFileName("tested file");
+    Section section0 = new Section(0);
+    Paragraph paragraph0 = new Paragraph();
+    paragraph0.appendSentence(new Sentence("it is a piece of a cake.", 0));
+    paragraph0.appendSentence(new Sentence("cake", 1));
+    paragraph0.appendSentence(new Sentence("that is also a piece.", 2));
+    section0.appendParagraph(paragraph0);
+    document.appendSection(section0);
+    documents.addDocument(document);
+
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(getConfiguration())
+        .setStatisticsEnabled(true)
+        .build();
+    validator.check(documents);
+
+    List<ValidatorStatistics> statistics = validator.getStatistics();
+    assertEquals(1, statistics.size());
+    ValidatorStatistics sentenceLength = statistics.get(0);
+    assertEquals("SentenceLengthValidator", sentenceLength.getValidatorName());
+    assertEquals(3, sentenceLength.getInvocationCount());
+    assertEquals(2, sentenceLength.getErrorCount());
+    assertTrue(sentenceLength.getMaxNanoTime()
+        <= sentenceLength.getTotalNanoTime());
+  }
+
+  @Test
+  public void testStatisticsDisabled() throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    Section section0 = new Section(0);
+    Paragraph paragraph0 = new Paragraph();
+    paragraph0.appendSentence(new Sentence("it is a piece of a cake.", 0));
+    section0.appendParagraph(paragraph0);
+    document.appendSection(section0);
+    documents.addDocument(document);
+
+    DocumentValidator validator = getDocumentValidator();
+    validator.check(documents);
+
+    assertEquals(0, validator.getStatistics().get(0).getInvocationCount());
+  }
+
+  @Test
+  public void testStatefulValidatorKeepsStatePerDocument()
+      throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    for (int i = 0; i < 10; i++) {
+      Document document = new Document();
+      document.setFileName("file" + i);
+      Section section = new Section(0);
+      Paragraph paragraph = new Paragraph();
+      paragraph.appendSentence(new Sentence(
+          i % 2 == 0 ? "あのインデクス" : "このインデックス", 0));
+      section.appendParagraph(paragraph);
+      document.appendSection(section);
+      documents.addDocument(document);
+    }
+
+    ValidatorConfiguration validatorConfig =
+        ValidationConfigurationLoader.loadConfiguration(
+            new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
+                "<component name=\"Validator\">" +
+                "  <component name=\"SentenceIterator\">" +
+                "    <component name=\"KatakanaSpellCheckValidator\"/>" +
+                "  </component>" +
+                "</component>"
+            ))
+        );
+    final List<ValidationError> flushedErrors = new ArrayList<ValidationError>();
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(new Configuration(validatorConfig))
+        .setResultDistributor(new FakeResultDistributor() {
+          @Override
+          public int flushResult(ValidationError err) {
+            flushedErrors.add(err);
+            return 0;
+          }
+        })
+        .setParallelism(4)
+        .build();
+
+    validator.check(documents);
+
+    // similar words in different documents are not reported
+    assertEquals(0, flushedErrors.size());
+  }
+
+  @Test
+  public void testSplitDocumentKeepsSectionOrder()
+      throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    document.setFileName("tested file");
+    for (int i = 0; i < 6; i++) {
+      Section section = new Section(0);
+      Paragraph paragraph = new Paragraph();
+      paragraph.appendSentence(new Sentence(
+          i % 2 == 0 ? "あのインデクス" : "このインデックス", i));
+      section.appendParagraph(paragraph);
+      document.appendSection(section);
+    }
+    documents.addDocument(document);
+
+    ValidatorConfiguration validatorConfig =
+        ValidationConfigurationLoader.loadConfiguration(
+            new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
+                "<component name=\"Validator\">" +
+                "  <component name=\"SentenceIterator\">" +
+                "    <component name=\"SentenceLength\">\n" +
+                "      <property name=\"max_length\" value=\"5\"/>\n" +
+                "    </component>" +
+                "    <component name=\"KatakanaSpellCheckValidator\"/>" +
+                "  </component>" +
+                "</component>"
+            ))
+        );
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(new Configuration(validatorConfig))
+        .setParallelism(4)
+        .setSplitThreshold(1)
+        .build();
+
+    List<ValidationError> errors = validator.check(documents);
+
+    // the spell check sees the sections in order with a single dictionary
+    assertEquals(9, errors.size());
+    int index = 0;
+    for (int i = 0; i < 6; i++) {
+      assertEquals(i, errors.get(index).getLineNumber());
+      assertThat(errors.get(index++).getValidatorName(), is("SentenceLength"));
+      if (i % 2 == 1) {
+        assertEquals(i, errors.get(index).getLineNumber());
+        assertThat(errors.get(index++).getValidatorName(),
+            is("KatakanaSpellCheck"));
+      }
+    }
+  }
+
+  @Test
+  public void testSplitDocumentKeepsSentenceOrder()
+      throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    document.setFileName("tested file");
+    for (int i = 0; i < 2; i++) {
+      Section section = new Section(0);
+      Paragraph paragraph = new Paragraph();
+      for (int j = 0; j < 3; j++) {
+        paragraph.appendSentence(new Sentence(
+            j % 2 == 0 ? "あのインデクス" : "このインデックス", i * 3 + j));
+      }
+      section.appendParagraph(paragraph);
+      document.appendSection(section);
+    }
+    documents.addDocument(document);
+
+    ValidatorConfiguration validatorConfig =
+        ValidationConfigurationLoader.loadConfiguration(
+            new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
+                "<component name=\"Validator\">" +
+                "  <component name=\"SentenceIterator\">" +
+                "    <component name=\"SentenceLength\">\n" +
+                "      <property name=\"max_length\" value=\"5\"/>\n" +
+                "    </component>" +
+                "    <component name=\"KatakanaSpellCheckValidator\"/>" +
+                "  </component>" +
+                "</component>"
+            ))
+        );
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(new Configuration(validatorConfig))
+        .setParallelism(4)
+        .setSplitThreshold(1)
+        .build();
+
+    List<ValidationError> errors = validator.check(documents);
+
+    // the errors of both validators are merged in the order of sentences
+    assertEquals(8, errors.size());
+    for (int i = 1; i < errors.size(); i++) {
+      assertTrue(errors.get(i - 1).getLineNumber()
+          <= errors.get(i).getLineNumber());
+    }
+    assertThat(errors.get(1).getValidatorName(), is("SentenceLength"));
+    assertThat(errors.get(2).getValidatorName(), is("KatakanaSpellCheck"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSplitThreshold() {
+    new DocumentValidator.Builder().setSplitThreshold(0);
+  }
+
+  @Test
+  public void testSentenceCache() throws DocumentValidatorException {
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    Section section = new Section(0);
+    Paragraph paragraph = new Paragraph();
+    paragraph.appendSentence(new Sentence("it is a piece of a cake.", 0));
+    paragraph.appendSentence(new Sentence("cake", 1));
+    paragraph.appendSentence(new Sentence("it is a piece of a cake.", 2));
+    section.appendParagraph(paragraph);
+    document.appendSection(section);
+    documents.addDocument(document);
+
+    SentenceResultCache cache = new SentenceResultCache(100);
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(getConfiguration())
+        .setSentenceCache(cache)
+        .build();
+    List<ValidationError> errors = validator.check(documents);
+
+    assertEquals(2, errors.size());
+    assertEquals(0, errors.get(0).getLineNumber());
+    assertEquals(2, errors.get(1).getLineNumber());
+    assertEquals(paragraph.getSentence(2), errors.get(1).getSentence());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  public void testSentenceCacheFollowsDictionaries() throws Exception {
+    File dictionary = File.createTempFile("invalid-expressions", ".txt");
+    dictionary.deleteOnExit();
+    FileUtils.writeStringToFile(dictionary, "cake\n", "UTF-8");
+
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    Section section = new Section(0);
+    Paragraph paragraph = new Paragraph();
+    paragraph.appendSentence(new Sentence("a piece of a cake.", 0));
+    section.appendParagraph(paragraph);
+    document.appendSection(section);
+    documents.addDocument(document);
+
+    ValidatorConfiguration validatorConfig =
+        ValidationConfigurationLoader.loadConfiguration(
+            new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
+                "<component name=\"Validator\">" +
+                "  <component name=\"SentenceIterator\">" +
+                "    <component name=\"InvalidExpression\">" +
+                "      <property name=\"dictionary\" value=\"" +
+                dictionary.getAbsolutePath() + "\"/>" +
+                "    </component>" +
+                "  </component>" +
+                "</component>"
+            ))
+        );
+    Configuration configuration = new Configuration(validatorConfig);
+    SentenceResultCache cache = new SentenceResultCache(100);
+
+    DocumentValidator validator = new DocumentValidator.Builder()
+        .setConfiguration(configuration)
+        .setSentenceCache(cache)
+        .build();
+    assertEquals(1, validator.check(documents).size());
+    validator.close();
+
+    // a validator rebuilt after the dictionary changed
+    FileUtils.writeStringToFile(dictionary, "tart\n", "UTF-8");
+    dictionary.setLastModified(dictionary.lastModified() + 2000);
+    validator = new DocumentValidator.Builder()
+        .setConfiguration(configuration)
+        .setSentenceCache(cache)
+        .build();
+    assertEquals(0, validator.check(documents).size());
+    validator.close();
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  public void testDictionaryMatchingValidators() throws Exception {
+    File dictionary = File.createTempFile("invalid-expressions", ".txt");
+    dictionary.deleteOnExit();
+    FileUtils.writeStringToFile(dictionary, "cake\nkaraoke\n", "UTF-8");
+
+    DocumentCollection documents = new DocumentCollection();
+    Document document = new Document();
+    Section section = new Section(0);
+    Paragraph paragraph = new Paragraph();
+    paragraph.appendSentence(new Sentence("a piece of a cake！", 0));
+    paragraph.appendSentence(new Sentence("I like karaoke.", 1));
+    section.appendParagraph(paragraph);
+    document.appendSection(section);
+    documents.addDocument(document);
+
+    ValidatorConfiguration validatorConfig =
+        ValidationConfigurationLoader.loadConfiguration(
+            new ReaderInputStream(new StringReader("<?xml version=\"1.0\"?>\n" +
+                "<component name=\"Validator\">" +
+                "  <component name=\"SentenceIterator\">" +
+                "    <component name=\"InvalidExpression\">" +
+                "      <property name=\"dictionary\" value=\"" +
+                dictionary.getAbsolutePath() + "\"/>" +
+                "    </component>" +
+                "    <component name=\"InvalidCharacter\"/>" +
+                "  </component>" +
+                "</component>"
+            ))
+        );
+    CharacterTable characterTable = CharacterTableLoader.load(
+        IOUtils.toInputStream("<?xml version=\"1.0\"?>" +
+            "<character-table>" +
+            "<character name=\"EXCLAMATION_MARK\" value=\"!\" " +
+            "invalid-chars=\"！\"/>" +
+            "</character-table>"));
+    Configuration configuration =
+        new Configuration(validatorConfig, characterTable);
+
+    // the shared scan with and without the statistics
+    for (boolean statisticsEnabled : new boolean[] {false, true}) {
+      DocumentValidator validator = new DocumentValidator.Builder()
+          .setConfiguration(configuration)
+          .setStatisticsEnabled(statisticsEnabled)
+          .build();
+      List<ValidationError> errors = validator.check(documents);
+
+      assertEquals(3, errors.size());
+      assertThat(errors.get(0).getValidatorName(), is("InvalidExpression"));
+      assertEquals(13, errors.get(0).getStartPosition());
+      assertThat(errors.get(1).getValidatorName(), is("InvalidCharacter"));
+      assertEquals(17, errors.get(1).getStartPosition());
+      assertThat(errors.get(2).getValidatorName(), is("InvalidExpression"));
+      assertEquals(1, errors.get(2).getLineNumber());
+      validator.close();
+    }
+
+    // the closed validators released the shared dictionary
+    DictionaryRegistry registry = DictionaryRegistry.getInstance();
+    CompiledDictionary shared =
+        registry.acquireWordList(dictionary.getPath());
+    assertEquals(1, registry.getReferenceCount(shared));
+    registry.release(shared);
+  }
+
+  @Test
+  public void testDictionariesLoadedFromConfigurationFiles()
+      throws Exception {
+    File directory = File.createTempFile("configuration", "");
+    directory.delete();
+    directory.mkdirs();
+    try {
+      File invalidWords = new File(directory, "invalid.txt");
+      FileUtils.writeStringToFile(invalidWords, "cake\n", "UTF-8");
+      File suggestWords = new File(directory, "suggest.txt");
+      FileUtils.writeStringToFile(suggestWords, "piece\tslice\n", "UTF-8");
+      File validationConf = new File(directory, "validation-conf.xml");
+      FileUtils.writeStringToFile(validationConf, "<?xml version=\"1.0\"?>" +
+          "<component name=\"Validator\">" +
+          "  <component name=\"SentenceIterator\">" +
+          "    <component name=\"InvalidExpression\">" +
+          "      <property name=\"dictionary\" value=\"" +
+          invalidWords.getAbsolutePath() + "\"/>" +
+          "    </component>" +
+          "    <component name=\"SuggestExpression\">" +
+          "      <property name=\"invalid_word_file\" value=\"" +
+          suggestWords.getAbsolutePath() + "\"/>" +
+          "    </component>" +
+          "  </component>" +
+          "</component>", "UTF-8");
+      File symbolConf = new File(directory, "symbol-conf.xml");
+      FileUtils.writeStringToFile(symbolConf, "<?xml version=\"1.0\"?>" +
+          "<character-table>" +
+          "<character name=\"EXCLAMATION_MARK\" value=\"!\" " +
+          "invalid-chars=\"！\"/>" +
+          "</character-table>", "UTF-8");
+      File conf = new File(directory, "dv-conf.xml");
+      FileUtils.writeStringToFile(conf, "<configuration>" +
+          "<validator>" + validationConf.getAbsolutePath() + "</validator>" +
+          "<lang char-conf=\"" + symbolConf.getAbsolutePath() + "\">en</lang>" +
+          "</configuration>", "UTF-8");
+      Configuration configuration =
+          new ConfigurationLoader().loadConfiguration(conf.getPath());
+
+      DocumentCollection documents = new DocumentCollection();
+      Document document = new Document();
+      Section section = new Section(0);
+      Paragraph paragraph = new Paragraph();
+      paragraph.appendSentence(new Sentence("a piece of a cake.", 0));
+      section.appendParagraph(paragraph);
+      document.appendSection(section);
+      documents.addDocument(document);
+
+      for (boolean statisticsEnabled : new boolean[] {false, true}) {
+        DocumentValidator validator = new DocumentValidator.Builder()
+            .setConfiguration(configuration)
+            .setStatisticsEnabled(statisticsEnabled)
+            .build();
+        // the words of both dictionaries are scanned at once
+        assertEquals(2, validator.getDictionaryMatcher().getMatcher()
+            .getPatternCount());
+        List<ValidationError> errors = validator.check(documents);
+        validator.close();
+
+        assertEquals(2, errors.size());
+        assertThat(errors.get(0).getValidatorName(), is("InvalidExpression"));
+        assertEquals(13, errors.get(0).getStartPosition());
+        assertThat(errors.get(1).getValidatorName(), is("SuggestExpression"));
+        assertEquals(2, errors.get(1).getStartPosition());
+        if (statisticsEnabled) {
+          for (ValidatorStatistics statistics : validator.getStatistics()) {
+            assertEquals(1, statistics.getInvocationCount());
+            assertEquals(1, statistics.getErrorCount());
+          }
+        }
+      }
+    } finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
 }
@@ -0,0 +1,163 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.parser.Parser;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryLoader;
+import org.unigram.docvalidator.validator.sentence.SentenceLengthValidator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class ResultCacheTest {
+
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("result-cache", "");
+    directory.delete();
+    inputFile = File.createTempFile("input", ".txt");
+    FileUtils.writeStringToFile(inputFile, "it is a piece of a cake.", "UTF-8");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+    inputFile.delete();
+  }
+
+  @Test
+  public void testStoreAndReplay() throws IOException {
+    ResultCache cache = new ResultCache(directory, "fingerprint");
+    String fileName = inputFile.getPath();
+    assertNull(cache.get(fileName));
+
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    errors.add(new ValidationError(SentenceLengthValidator.class,
+        "The length of the line exceeds the maximum",
+        new Sentence("it is a piece of a cake.", 1)));
+    cache.put(fileName, errors);
+
+    List<ValidationError> cached =
+        new ResultCache(directory, "fingerprint").get(fileName);
+    assertEquals(1, cached.size());
+    assertEquals("SentenceLength", cached.get(0).getValidatorName());
+    assertEquals("The length of the line exceeds the maximum",
+        cached.get(0).getMessage());
+    assertEquals(1, cached.get(0).getLineNumber());
+    assertEquals(fileName, cached.get(0).getFileName());
+    assertEquals("it is a piece of a cake.",
+        cached.get(0).getSentence().content);
+  }
+
+  @Test
+  public void testChangedFileIsMissed() throws IOException {
+    String fileName = inputFile.getPath();
+    new ResultCache(directory, "fingerprint").put(fileName,
+        new ArrayList<ValidationError>());
+    FileUtils.writeStringToFile(inputFile, "it is changed.", "UTF-8");
+
+    assertNull(new ResultCache(directory, "fingerprint").get(fileName));
+  }
+
+  @Test
+  public void testChangedConfigurationIsMissed() throws IOException {
+    String fileName = inputFile.getPath();
+    new ResultCache(directory, "fingerprint").put(fileName,
+        new ArrayList<ValidationError>());
+
+    assertNull(new ResultCache(directory, "other").get(fileName));
+  }
+
+  @Test
+  public void testFingerprintCoversDictionary() throws IOException {
+    File dictionary = File.createTempFile("dictionary", ".txt");
+    try {
+      FileUtils.writeStringToFile(dictionary, "piece", "UTF-8");
+      Configuration configuration = createConfiguration(dictionary);
+      String fingerprint = ResultCache.createFingerprint(configuration,
+          Parser.Type.PLAIN);
+      assertEquals(fingerprint, ResultCache.createFingerprint(
+          configuration, Parser.Type.PLAIN));
+      assertFalse(fingerprint.equals(ResultCache.createFingerprint(
+          configuration, Parser.Type.WIKI)));
+
+      FileUtils.writeStringToFile(dictionary, "cake", "UTF-8");
+      assertFalse(fingerprint.equals(ResultCache.createFingerprint(
+          configuration, Parser.Type.PLAIN)));
+    } finally {
+      dictionary.delete();
+    }
+  }
+
+  @Test
+  public void testFingerprintCoversCompiledDictionary() throws IOException {
+    File dictionary = File.createTempFile("dictionary", ".txt");
+    File compiled = DictionaryLoader.getCompiledFile(dictionary.getPath());
+    try {
+      FileUtils.writeStringToFile(dictionary, "piece", "UTF-8");
+      Configuration configuration = createConfiguration(dictionary);
+      String fingerprint = ResultCache.createFingerprint(configuration,
+          Parser.Type.PLAIN);
+
+      CompiledDictionary.compile(Arrays.asList("cake")).write(compiled);
+      compiled.setLastModified(dictionary.lastModified() + 2000);
+      String compiledFingerprint = ResultCache.createFingerprint(
+          configuration, Parser.Type.PLAIN);
+      assertFalse(fingerprint.equals(compiledFingerprint));
+
+      CompiledDictionary.compile(Arrays.asList("tart")).write(compiled);
+      compiled.setLastModified(dictionary.lastModified() + 2000);
+      assertFalse(compiledFingerprint.equals(ResultCache.createFingerprint(
+          configuration, Parser.Type.PLAIN)));
+    } finally {
+      dictionary.delete();
+      compiled.delete();
+    }
+  }
+
+  private static Configuration createConfiguration(File dictionary) {
+    ValidatorConfiguration rootConfig = new ValidatorConfiguration("top");
+    ValidatorConfiguration sentenceIteratorConfig =
+        new ValidatorConfiguration("SentenceIterator");
+    ValidatorConfiguration invalidExpressionConfig =
+        new ValidatorConfiguration("InvalidExpression");
+    invalidExpressionConfig.addAttribute("dictionary", dictionary.getPath());
+    sentenceIteratorConfig.addChild(invalidExpressionConfig);
+    rootConfig.addChild(sentenceIteratorConfig);
+    return new Configuration(rootConfig);
+  }
+
+  private File directory;
+
+  private File inputFile;
+}
@@ -0,0 +1,100 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator;
+
+import org.junit.Test;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.validator.sentence.SentenceLengthValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceResultCacheTest {
+
+  @Test
+  public void testReplayBindsErrorsToNewSentence() {
+    SentenceResultCache cache = new SentenceResultCache(10);
+    Sentence original = new Sentence("it is a piece of a cake.", 3);
+    List<ValidationError> found = new ArrayList<ValidationError>();
+    found.add(new ValidationError(SentenceLengthValidator.class,
+        "too long", original));
+    cache.put("fingerprint", original, found);
+
+    Sentence copy = new Sentence("it is a piece of a cake.", 10);
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    assertTrue(cache.replay("fingerprint", copy, errors));
+    assertEquals(1, errors.size());
+    assertSame(copy, errors.get(0).getSentence());
+    assertEquals(10, errors.get(0).getLineNumber());
+    assertEquals("too long", errors.get(0).getMessage());
+    assertEquals(3, found.get(0).getLineNumber());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  public void testDifferentFingerprintIsMissed() {
+    SentenceResultCache cache = new SentenceResultCache(10);
+    Sentence sentence = new Sentence("it is a piece of a cake.", 0);
+    cache.put("fingerprint", sentence, new ArrayList<ValidationError>());
+
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    assertFalse(cache.replay("other", sentence, errors));
+    assertTrue(cache.replay("fingerprint", sentence, errors));
+    assertEquals(0, errors.size());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testFirstSentenceIsCachedApart() {
+    SentenceResultCache cache = new SentenceResultCache(10);
+    Sentence sentence = new Sentence(" it is a piece of a cake.", 0);
+    cache.put("fingerprint", sentence, new ArrayList<ValidationError>());
+
+    Sentence first = new Sentence(" it is a piece of a cake.", 0);
+    first.isFirstSentence = true;
+    assertFalse(cache.replay("fingerprint", first,
+        new ArrayList<ValidationError>()));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEntryIsEvicted() {
+    SentenceResultCache cache = new SentenceResultCache(2);
+    Sentence first = new Sentence("first", 0);
+    Sentence second = new Sentence("second", 1);
+    cache.put("fingerprint", first, new ArrayList<ValidationError>());
+    cache.put("fingerprint", second, new ArrayList<ValidationError>());
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    assertTrue(cache.replay("fingerprint", first, errors));
+    cache.put("fingerprint", new Sentence("third", 2),
+        new ArrayList<ValidationError>());
+
+    assertEquals(2, cache.size());
+    assertTrue(cache.replay("fingerprint", first, errors));
+    assertFalse(cache.replay("fingerprint", second, errors));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new SentenceResultCache(0);
+  }
+}
@@ -113,5 +113,23 @@ public class ConfigurationTest {
 
   }
 
+  @Test
+  public void testFingerprint() throws Exception {
+    assertEquals(createConfiguration("5").getFingerprint(),
+        createConfiguration("5").getFingerprint());
+    assertFalse(createConfiguration("5").getFingerprint().equals(
+        createConfiguration("6").getFingerprint()));
+  }
 
+  private static Configuration createConfiguration(String maxLength) {
+    ValidatorConfiguration rootConfig = new ValidatorConfiguration("top");
+    ValidatorConfiguration sentenceIteratorConfig =
+        new ValidatorConfiguration("SentenceIterator");
+    ValidatorConfiguration configSentenceLength =
+        new ValidatorConfiguration("SentenceLength");
+    configSentenceLength.addAttribute("max_length", maxLength);
+    sentenceIteratorConfig.addChild(configSentenceLength);
+    rootConfig.addChild(sentenceIteratorConfig);
+    return new Configuration(rootConfig);
+  }
 }
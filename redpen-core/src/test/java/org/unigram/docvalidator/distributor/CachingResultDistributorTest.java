@@ -0,0 +1,164 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.distributor;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.unigram.docvalidator.ResultCache;
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.validator.sentence.SentenceLengthValidator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CachingResultDistributorTest {
+
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("result-cache", "");
+    directory.delete();
+    inputFile = File.createTempFile("input", ".txt");
+    FileUtils.writeStringToFile(inputFile, "it is a piece of a cake.", "UTF-8");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+    inputFile.delete();
+  }
+
+  @Test
+  public void testReplayAfterStore() throws IOException {
+    String[] inputFileNames = {inputFile.getPath()};
+    final List<ValidationError> flushed = new ArrayList<ValidationError>();
+    ResultDistributor recorder = new FakeResultDistributor() {
+      @Override
+      public int flushResult(ValidationError err) {
+        flushed.add(err);
+        return 0;
+      }
+    };
+
+    CachingResultDistributor distributor = new CachingResultDistributor(
+        recorder, new ResultCache(directory, "fingerprint"), inputFileNames);
+    assertEquals(1, distributor.getChangedFileNames().length);
+    distributor.flushHeader();
+    ValidationError error = new ValidationError(SentenceLengthValidator.class,
+        "The length of the line exceeds the maximum", 1,
+        inputFile.getPath());
+    distributor.flushResult(error);
+    distributor.flushFooter();
+    distributor.store();
+
+    flushed.clear();
+    distributor = new CachingResultDistributor(recorder,
+        new ResultCache(directory, "fingerprint"), inputFileNames);
+    assertEquals(0, distributor.getChangedFileNames().length);
+    distributor.flushHeader();
+    assertEquals(1, flushed.size());
+    assertEquals(inputFile.getPath(), flushed.get(0).getFileName());
+    assertEquals(1, flushed.get(0).getLineNumber());
+  }
+
+  @Test
+  public void testCorruptEntryIsValidatedAgain() throws IOException {
+    String[] inputFileNames = {inputFile.getPath()};
+    ResultDistributor recorder = new FakeResultDistributor();
+    new ResultCache(directory, "fingerprint").put(inputFile.getPath(),
+        createErrors(inputFile.getPath()));
+    File[] entries = directory.listFiles();
+    assertEquals(1, entries.length);
+    FileUtils.writeByteArrayToFile(entries[0],
+        new byte[] {0x7f, -1, -1, -1, 'g', 'a', 'r', 'b', 'a', 'g', 'e'});
+
+    CachingResultDistributor distributor = new CachingResultDistributor(
+        recorder, new ResultCache(directory, "fingerprint"), inputFileNames);
+    assertEquals(1, distributor.getChangedFileNames().length);
+    distributor.flushHeader();
+    distributor.flushResult(createErrors(inputFile.getPath()).get(0));
+    distributor.flushFooter();
+    distributor.store();
+
+    distributor = new CachingResultDistributor(recorder,
+        new ResultCache(directory, "fingerprint"), inputFileNames);
+    assertEquals(0, distributor.getChangedFileNames().length);
+  }
+
+  @Test
+  public void testCachedErrorsInInputOrder() throws IOException {
+    File[] files = new File[3];
+    for (int i = 0; i < files.length; i++) {
+      files[i] = File.createTempFile("input", ".txt");
+      FileUtils.writeStringToFile(files[i], "sentence " + i + ".", "UTF-8");
+    }
+    try {
+      String[] inputFileNames = new String[files.length];
+      for (int i = 0; i < files.length; i++) {
+        inputFileNames[i] = files[i].getPath();
+      }
+      ResultCache cache = new ResultCache(directory, "fingerprint");
+      cache.put(inputFileNames[0], createErrors(inputFileNames[0]));
+      cache.put(inputFileNames[2], createErrors(inputFileNames[2]));
+      final List<ValidationError> flushed =
+          new ArrayList<ValidationError>();
+      ResultDistributor recorder = new FakeResultDistributor() {
+        @Override
+        public int flushResult(ValidationError err) {
+          flushed.add(err);
+          return 0;
+        }
+      };
+
+      CachingResultDistributor distributor = new CachingResultDistributor(
+          recorder, new ResultCache(directory, "fingerprint"),
+          inputFileNames);
+      assertEquals(1, distributor.getChangedFileNames().length);
+      distributor.flushHeader();
+      assertEquals(1, flushed.size());
+      distributor.flushResult(createErrors(inputFileNames[1]).get(0));
+      assertEquals(2, flushed.size());
+      distributor.flushFooter();
+
+      assertEquals(3, flushed.size());
+      for (int i = 0; i < files.length; i++) {
+        assertEquals(inputFileNames[i], flushed.get(i).getFileName());
+      }
+    } finally {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+  }
+
+  private static List<ValidationError> createErrors(String fileName) {
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    errors.add(new ValidationError(SentenceLengthValidator.class,
+        "The length of the line exceeds the maximum", 1, fileName));
+    return errors;
+  }
+
+  private File directory;
+
+  private File inputFile;
+}
@@ -81,6 +81,25 @@ public class DefaultResultDistributorTest {
     assertTrue(m.find());
   }
 
+  @Test
+  public void testPlainFormatterOmitsPositions() {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    DefaultResultDistributor distributor = new DefaultResultDistributor(os);
+    distributor.setFormatter(new PlainFormatter());
+    ValidationError error = new ValidationError(this.getClass(), "foobar",
+        3, "sample.txt");
+    error.setPosition(5, 9);
+    distributor.flushResult(error);
+    String result = null;
+    try {
+      result = new String(os.toByteArray(),"UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      e.printStackTrace();
+      fail();
+    }
+    assertTrue(result.contains("sample.txt : 3 (foobar)]"));
+  }
+
   @Test(expected=IllegalArgumentException.class)
   public void testFlushErrorWithPlainFormatterForNull() {
     ByteArrayOutputStream os = new ByteArrayOutputStream();
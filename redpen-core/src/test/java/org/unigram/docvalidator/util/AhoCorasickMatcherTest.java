@@ -0,0 +1,170 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class AhoCorasickMatcherTest {
+
+  @Test
+  public void testOverlappingPatterns() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+        Arrays.asList("he", "she", "his", "hers"));
+    List<String> matches = match(matcher, "ushers");
+    assertEquals(Arrays.asList("she:1-4", "he:2-4", "hers:2-6"), matches);
+  }
+
+  @Test
+  public void testRepeatedOccurrences() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+        Arrays.asList("aa", "a"));
+    assertEquals(Arrays.asList("a:0-1", "aa:0-2", "a:1-2", "aa:1-3",
+        "a:2-3"), match(matcher, "aaa"));
+  }
+
+  @Test
+  public void testJapanese() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+        Arrays.asList("なので", "ので"));
+    assertEquals(Arrays.asList("なので:1-4", "ので:2-4"),
+        match(matcher, "雨なので中止"));
+  }
+
+  @Test
+  public void testEmptyPatternAndText() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+        Arrays.asList("", "cake"));
+    assertEquals(0, match(matcher, "").size());
+    assertEquals(Arrays.asList("cake:0-4"), match(matcher, "cake"));
+    assertEquals(2, matcher.getPatternCount());
+  }
+
+  @Test
+  public void testPatternsRestoredFromTrie() {
+    List<String> patterns = Arrays.asList(
+        "piece of a cake", "", "cake", "piece", "cake", "ケーキ");
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns);
+    assertEquals(patterns.size(), matcher.getPatternCount());
+    for (int id = 0; id < patterns.size(); id++) {
+      assertEquals(patterns.get(id), matcher.getPattern(id));
+    }
+  }
+
+  @Test
+  public void testSameAsContains() {
+    Random random = new Random(0);
+    List<String> patterns = new ArrayList<String>();
+    for (int i = 0; i < 200; i++) {
+      patterns.add(randomString(random, 1 + random.nextInt(4)));
+    }
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns);
+    for (int i = 0; i < 100; i++) {
+      String text = randomString(random, random.nextInt(30));
+      List<String> expected = new ArrayList<String>();
+      for (int end = 1; end <= text.length(); end++) {
+        for (int start = 0; start < end; start++) {
+          int id = patterns.indexOf(text.substring(start, end));
+          if (id >= 0) {
+            expected.add(patterns.get(id) + ":" + start + "-" + end);
+          }
+        }
+      }
+      assertEquals(expected, match(matcher, text));
+    }
+  }
+
+  @Test
+  public void testLeftmostLongest() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(
+        Arrays.asList("he", "she", "his", "hers", "info", "information"));
+    assertEquals(Arrays.asList("she:1-4"),
+        matchLeftmostLongest(matcher, "ushers"));
+    assertEquals(Arrays.asList("information:0-11", "his:12-15"),
+        matchLeftmostLongest(matcher, "information his"));
+    assertEquals(0, matchLeftmostLongest(matcher, "cake").size());
+  }
+
+  @Test
+  public void testLeftmostLongestSameAsGreedyScan() {
+    Random random = new Random(1);
+    List<String> patterns = new ArrayList<String>();
+    for (int i = 0; i < 100; i++) {
+      patterns.add(randomString(random, 1 + random.nextInt(4)));
+    }
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(patterns);
+    for (int i = 0; i < 100; i++) {
+      String text = randomString(random, random.nextInt(30));
+      List<String> expected = new ArrayList<String>();
+      int start = 0;
+      while (start < text.length()) {
+        int end = text.length();
+        while (end > start && !patterns.contains(text.substring(start, end))) {
+          end--;
+        }
+        if (end > start) {
+          expected.add(text.substring(start, end) + ":" + start + "-" + end);
+          start = end;
+        } else {
+          start++;
+        }
+      }
+      assertEquals(expected, matchLeftmostLongest(matcher, text));
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      builder.append((char) ('a' + random.nextInt(3)));
+    }
+    return builder.toString();
+  }
+
+  private static List<String> match(final AhoCorasickMatcher matcher,
+                                    String text) {
+    final List<String> matches = new ArrayList<String>();
+    matcher.match(text, new AhoCorasickMatcher.MatchListener() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        matches.add(matcher.getPattern(patternId) + ":" + start + "-" + end);
+      }
+    });
+    return matches;
+  }
+
+  private static List<String> matchLeftmostLongest(
+      final AhoCorasickMatcher matcher, String text) {
+    final List<String> matches = new ArrayList<String>();
+    matcher.matchLeftmostLongest(text,
+        new AhoCorasickMatcher.MatchListener() {
+          @Override
+          public void matched(int patternId, int start, int end) {
+            matches.add(matcher.getPattern(patternId) + ":" + start + "-"
+                + end);
+          }
+        });
+    return matches;
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitParallelEditDistanceTest {
+
+  @Test
+  public void testDistance() {
+    assertEquals(3, BitParallelEditDistance.getDistance("kitten", "sitting"));
+    assertEquals(3, BitParallelEditDistance.getDistance("sitting", "kitten"));
+    assertEquals(0, BitParallelEditDistance.getDistance("", ""));
+    assertEquals(4, BitParallelEditDistance.getDistance("", "cake"));
+    assertEquals(1, BitParallelEditDistance.getDistance("インデクス",
+        "インデックス"));
+    assertEquals(1, BitParallelEditDistance.getDistance(null, "x"));
+  }
+
+  @Test
+  public void testSameAsLevenshteinDistance() {
+    Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      String a = randomString(random, 80);
+      String b = randomString(random, 80);
+      int distance = LevenshteinDistance.getDistance(a, b);
+      assertEquals(a + " " + b, distance,
+          BitParallelEditDistance.getDistance(a, b));
+      for (int max = 0; max < 8; max++) {
+        assertEquals(a + " " + b, Math.min(distance, max + 1),
+            BitParallelEditDistance.getDistance(a, b, max));
+      }
+    }
+  }
+
+  @Test
+  public void testLongStrings() {
+    Random random = new Random(2);
+    for (int i = 0; i < 20; i++) {
+      String a = randomString(random, 200) + "x";
+      String b = a.substring(1) + "y";
+      assertEquals(LevenshteinDistance.getDistance(a, b),
+          BitParallelEditDistance.getDistance(a, b));
+    }
+  }
+
+  @Test
+  public void testGlobalCostsAreIgnored() {
+    LevenshteinDistance.setSubstitutionCost(2);
+    try {
+      assertEquals(3, BitParallelEditDistance.getDistance("kitten",
+          "sitting"));
+      assertEquals(3, BitParallelEditDistance.getDistance("kitten",
+          "sitting", 2));
+    } finally {
+      LevenshteinDistance.setSubstitutionCost(1);
+    }
+  }
+
+  @Test
+  public void testUnboundedThreshold() {
+    assertEquals(3, BitParallelEditDistance.getDistance("kitten", "sitting",
+        Integer.MAX_VALUE));
+    assertEquals(4, BitParallelEditDistance.getDistance("", "cake",
+        Integer.MAX_VALUE));
+  }
+
+  private static String randomString(Random random, int maxLength) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = random.nextInt(maxLength); i > 0; i--) {
+      builder.append((char) ('a' + random.nextInt(4)));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BkTreeTest {
+
+  @Test
+  public void testPutAndGet() {
+    BkTree<Integer> tree = new BkTree<Integer>();
+    tree.put("インデクス", 1);
+    tree.put("インデックス", 2);
+    tree.put("インデクス", 3);
+    assertEquals(2, tree.size());
+    assertEquals(Integer.valueOf(3), tree.get("インデクス"));
+    assertTrue(tree.containsKey("インデックス"));
+    assertFalse(tree.containsKey("インデ"));
+    assertNull(tree.get("インデ"));
+  }
+
+  @Test
+  public void testSearch() {
+    BkTree<Integer> tree = new BkTree<Integer>();
+    tree.put("フレーズ", 0);
+    tree.put("フェーズ", 1);
+    tree.put("アナライズ", 2);
+    List<String> keys = keys(tree.search("フレーズ", 1));
+    assertEquals(2, keys.size());
+    assertTrue(keys.contains("フェーズ"));
+    assertTrue(keys.contains("フレーズ"));
+    assertEquals(0, tree.search("インデックス", 1).size());
+    assertEquals(0, new BkTree<Integer>().search("フレーズ", 1).size());
+  }
+
+  @Test
+  public void testSameAsLinearSearch() {
+    Random random = new Random(1);
+    BkTree<Integer> tree = new BkTree<Integer>();
+    List<String> words = new ArrayList<String>();
+    for (int i = 0; i < 300; i++) {
+      String word = randomWord(random);
+      tree.put(word, i);
+      if (!words.contains(word)) {
+        words.add(word);
+      }
+    }
+    for (int i = 0; i < 100; i++) {
+      String query = randomWord(random);
+      for (int maxDistance = 0; maxDistance < 4; maxDistance++) {
+        List<String> expected = new ArrayList<String>();
+        for (String word : words) {
+          if (LevenshteinDistance.getDistance(word, query) <= maxDistance) {
+            expected.add(word);
+          }
+        }
+        Collections.sort(expected);
+        assertEquals(expected, keys(tree.search(query, maxDistance)));
+      }
+    }
+  }
+
+  private static String randomWord(Random random) {
+    StringBuilder word = new StringBuilder();
+    for (int i = 2 + random.nextInt(6); i > 0; i--) {
+      word.append((char) ('ア' + random.nextInt(4)));
+    }
+    return word.toString();
+  }
+
+  private static List<String> keys(List<Map.Entry<String, Integer>> found) {
+    List<String> keys = new ArrayList<String>();
+    for (Map.Entry<String, Integer> entry : found) {
+      keys.add(entry.getKey());
+    }
+    Collections.sort(keys);
+    return keys;
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CodePointSetTest {
+  @Test
+  public void testBasicMultilingualPlane() {
+    CodePointSet set = new CodePointSet();
+    set.addAll("！、a");
+    assertTrue(set.contains('！'));
+    assertTrue(set.contains('、'));
+    assertTrue(set.contains('a'));
+    assertTrue(set.contains((int) 'a'));
+    assertFalse(set.contains('!'));
+    assertFalse(set.contains('b'));
+    assertFalse(set.hasSupplementary());
+    assertEquals(3, set.size());
+  }
+
+  @Test
+  public void testSupplementaryCodePoint() {
+    CodePointSet set = new CodePointSet();
+    set.addAll("𠮷");
+    assertTrue(set.contains(0x20BB7));
+    assertFalse(set.contains('\uD842'));
+    assertFalse(set.contains('\uDFB7'));
+    assertTrue(set.hasSupplementary());
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  public void testBoundaries() {
+    CodePointSet set = new CodePointSet();
+    set.add(0);
+    set.add(0xFFFF);
+    set.add(Character.MAX_CODE_POINT);
+    assertTrue(set.contains('\u0000'));
+    assertTrue(set.contains('\uFFFF'));
+    assertTrue(set.contains(Character.MAX_CODE_POINT));
+    assertFalse(set.contains(1));
+    assertEquals(3, set.size());
+  }
+
+  @Test
+  public void testEmptySet() {
+    CodePointSet set = new CodePointSet();
+    assertFalse(set.contains('a'));
+    assertEquals(0, set.size());
+  }
+}
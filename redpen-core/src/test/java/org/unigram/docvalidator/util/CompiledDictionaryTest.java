@@ -0,0 +1,256 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledDictionaryTest {
+
+  @Before
+  public void setUp() throws IOException {
+    textFile = File.createTempFile("dictionary", ".txt");
+    FileUtils.writeStringToFile(textFile, "cake\npiece\n", "UTF-8");
+    compiledFile = DictionaryLoader.getCompiledFile(textFile.getPath());
+  }
+
+  @After
+  public void tearDown() {
+    textFile.delete();
+    compiledFile.delete();
+  }
+
+  @Test
+  public void testWordList() {
+    CompiledDictionary dictionary = CompiledDictionary.compile(
+        Arrays.asList("piece", "cake", "ケーキ", "cake"));
+    assertEquals(3, dictionary.size());
+    assertFalse(dictionary.hasValues());
+    assertEquals(Arrays.asList("cake", "piece", "ケーキ"),
+        dictionary.getKeys());
+    assertEquals(1, dictionary.indexOf("piece"));
+    assertTrue(dictionary.contains("ケーキ"));
+    assertFalse(dictionary.contains("cak"));
+    assertFalse(dictionary.contains("cakes"));
+    assertNull(dictionary.getValue(0));
+  }
+
+  @Test
+  public void testLowerBound() {
+    CompiledDictionary dictionary = CompiledDictionary.compile(
+        Arrays.asList("cake", "/ke+/", "/x/", "piece"));
+    assertEquals(0, dictionary.lowerBound("/"));
+    assertEquals(2, dictionary.lowerBound("0"));
+    assertEquals(2, dictionary.lowerBound("cake"));
+    assertEquals(3, dictionary.lowerBound("cakes"));
+    assertEquals(4, dictionary.lowerBound("z"));
+  }
+
+  @Test
+  public void testKeyValues() {
+    Map<String, String> entries = new HashMap<String, String>();
+    entries.put("like", "such as");
+    entries.put("info", "information");
+    entries.put("", "empty");
+    CompiledDictionary dictionary = CompiledDictionary.compile(entries);
+    assertEquals(3, dictionary.size());
+    assertTrue(dictionary.hasValues());
+    assertEquals("such as", dictionary.get("like"));
+    assertEquals("information", dictionary.get("info"));
+    assertEquals("empty", dictionary.get(""));
+    assertNull(dictionary.get("unknown"));
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    Map<String, String> entries = new HashMap<String, String>();
+    entries.put("like", "such as");
+    entries.put("インデクス", "インデックス");
+    CompiledDictionary.compile(entries).write(compiledFile);
+    assertTrue(CompiledDictionary.isCompiled(compiledFile));
+    assertFalse(CompiledDictionary.isCompiled(textFile));
+
+    CompiledDictionary dictionary = CompiledDictionary.load(compiledFile);
+    assertEquals(2, dictionary.size());
+    assertEquals("such as", dictionary.get("like"));
+    assertEquals("インデックス", dictionary.get("インデクス"));
+  }
+
+  @Test
+  public void testDigest() throws IOException {
+    Map<String, String> entries = new HashMap<String, String>();
+    entries.put("like", "such as");
+    CompiledDictionary compiled = CompiledDictionary.compile(entries);
+    compiled.write(compiledFile);
+    assertEquals(compiled.getDigest(),
+        CompiledDictionary.load(compiledFile).getDigest());
+
+    entries.put("like", "such");
+    assertFalse(compiled.getDigest().equals(
+        CompiledDictionary.compile(entries).getDigest()));
+    assertFalse(compiled.getDigest().equals(CompiledDictionary.compile(
+        Arrays.asList("like")).getDigest()));
+  }
+
+  @Test
+  public void testRewriteKeepsLoadedDictionary() throws IOException {
+    CompiledDictionary.compile(Arrays.asList("cake", "piece"))
+        .write(compiledFile);
+    CompiledDictionary loaded = CompiledDictionary.load(compiledFile);
+    CompiledDictionary.compile(Arrays.asList("pie")).write(compiledFile);
+
+    assertEquals(Arrays.asList("cake", "piece"), loaded.getKeys());
+    assertTrue(loaded.contains("piece"));
+    assertEquals(Arrays.asList("pie"),
+        CompiledDictionary.load(compiledFile).getKeys());
+  }
+
+  @Test(expected = IOException.class)
+  public void testLoadTextFile() throws IOException {
+    CompiledDictionary.load(textFile);
+  }
+
+  @Test(expected = IOException.class)
+  public void testLoadTruncatedFile() throws IOException {
+    CompiledDictionary.compile(Arrays.asList("cake", "piece"))
+        .write(compiledFile);
+    byte[] bytes = FileUtils.readFileToByteArray(compiledFile);
+    FileUtils.writeByteArrayToFile(compiledFile,
+        Arrays.copyOf(bytes, bytes.length - 2));
+    CompiledDictionary.load(compiledFile);
+  }
+
+  @Test
+  public void testLoadedAutomaton() throws IOException {
+    // an odd number of chars in the pool to be padded
+    List<String> words = Arrays.asList("a", "he", "hers", "his", "she");
+    CompiledDictionary.compile(words).write(compiledFile);
+    CompiledDictionary loaded = CompiledDictionary.load(compiledFile);
+    AhoCorasickMatcher matcher = loaded.getMatcher();
+    assertSame(matcher, loaded.getMatcher());
+
+    String text = "ushers have a hershey";
+    assertEquals(collect(new AhoCorasickMatcher(words), text),
+        collect(matcher, text));
+    assertEquals(5, matcher.getPatternCount());
+    assertEquals("hers", matcher.getPattern(2));
+  }
+
+  @Test
+  public void testLoadVersion1() throws IOException {
+    DataOutputStream output = new DataOutputStream(
+        new FileOutputStream(compiledFile));
+    try {
+      output.writeInt(0x52504443);
+      output.writeInt(1);
+      output.writeInt(2);
+      output.writeInt(0);
+      output.writeInt(9);
+      output.writeInt(0);
+      for (int offset : new int[] {0, 4, 9}) {
+        output.writeInt(offset);
+      }
+      output.writeChars("cakepiece");
+    } finally {
+      output.close();
+    }
+    CompiledDictionary loaded = CompiledDictionary.load(compiledFile);
+    assertEquals(Arrays.asList("cake", "piece"), loaded.getKeys());
+    assertEquals("[1:2:7]", collect(loaded.getMatcher(), "a piece"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testLoadBrokenAutomaton() throws IOException {
+    CompiledDictionary.compile(Arrays.asList("ab")).write(compiledFile);
+    byte[] bytes = FileUtils.readFileToByteArray(compiledFile);
+    // the failure link of the node "ab" is set to the node itself
+    ByteBuffer.wrap(bytes).putInt(96, 2);
+    FileUtils.writeByteArrayToFile(compiledFile, bytes);
+    CompiledDictionary.load(compiledFile);
+  }
+
+  private static String collect(AhoCorasickMatcher matcher, String text) {
+    final List<String> found = new ArrayList<String>();
+    matcher.match(text, new AhoCorasickMatcher.MatchListener() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        found.add(patternId + ":" + start + ":" + end);
+      }
+    });
+    return found.toString();
+  }
+
+  @Test
+  public void testLoaderFallsBackToText() {
+    CompiledDictionary dictionary =
+        DictionaryLoader.loadWordList(textFile.getPath());
+    assertEquals(Arrays.asList("cake", "piece"), dictionary.getKeys());
+  }
+
+  @Test
+  public void testLoaderPrefersCompiledFile() throws IOException {
+    CompiledDictionary.compile(Arrays.asList("compiled"))
+        .write(compiledFile);
+    compiledFile.setLastModified(textFile.lastModified() + 1000);
+    assertEquals(Arrays.asList("compiled"),
+        DictionaryLoader.loadWordList(textFile.getPath()).getKeys());
+    assertEquals(Arrays.asList("compiled"),
+        DictionaryLoader.loadWordList(compiledFile.getPath()).getKeys());
+
+    // a compiled file older than the text is stale
+    compiledFile.setLastModified(textFile.lastModified() - 1000);
+    assertEquals(Arrays.asList("cake", "piece"),
+        DictionaryLoader.loadWordList(textFile.getPath()).getKeys());
+  }
+
+  @Test
+  public void testLoaderIgnoresCompiledFileOfOtherType()
+      throws IOException {
+    CompiledDictionary.compile(Arrays.asList("compiled"))
+        .write(compiledFile);
+    compiledFile.setLastModified(textFile.lastModified() + 1000);
+    FileUtils.writeStringToFile(textFile, "like\tsuch as\n", "UTF-8");
+    textFile.setLastModified(compiledFile.lastModified() - 1000);
+    CompiledDictionary dictionary =
+        DictionaryLoader.loadKeyValues(textFile.getPath());
+    assertEquals("such as", dictionary.get("like"));
+  }
+
+  private File textFile;
+
+  private File compiledFile;
+}
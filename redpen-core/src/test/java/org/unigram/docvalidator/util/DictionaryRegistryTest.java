@@ -0,0 +1,171 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.validator.sentence.InvalidExpressionValidator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DictionaryRegistryTest {
+
+  @Before
+  public void setUp() throws IOException {
+    dictionaryFile = File.createTempFile("dictionary", ".txt");
+    FileUtils.writeStringToFile(dictionaryFile, "cake\npiece\n", "UTF-8");
+  }
+
+  @After
+  public void tearDown() {
+    dictionaryFile.delete();
+  }
+
+  @Test
+  public void testSharedDictionary() {
+    DictionaryRegistry registry = new DictionaryRegistry();
+    CompiledDictionary first =
+        registry.acquireWordList(dictionaryFile.getPath());
+    CompiledDictionary second =
+        registry.acquireWordList(dictionaryFile.getAbsolutePath());
+    assertSame(first, second);
+    assertEquals(Arrays.asList("cake", "piece"), first.getKeys());
+    assertEquals(1, registry.size());
+    assertEquals(2, registry.getReferenceCount(first));
+
+    registry.release(first);
+    assertEquals(1, registry.getReferenceCount(first));
+    registry.release(second);
+    assertEquals(0, registry.getReferenceCount(first));
+    assertEquals(0, registry.size());
+
+    assertNotSame(first, registry.acquireWordList(dictionaryFile.getPath()));
+  }
+
+  @Test
+  public void testModifiedFileIsLoadedAgain() throws IOException {
+    DictionaryRegistry registry = new DictionaryRegistry();
+    CompiledDictionary first =
+        registry.acquireWordList(dictionaryFile.getPath());
+    FileUtils.writeStringToFile(dictionaryFile, "pie\n", "UTF-8");
+    dictionaryFile.setLastModified(dictionaryFile.lastModified() + 2000);
+    CompiledDictionary second =
+        registry.acquireWordList(dictionaryFile.getPath());
+    assertNotSame(first, second);
+    assertEquals(Arrays.asList("pie"), second.getKeys());
+    assertEquals(Arrays.asList("cake", "piece"), first.getKeys());
+    assertEquals(2, registry.size());
+  }
+
+  @Test
+  public void testDictionaryTypesAreNotShared() throws IOException {
+    FileUtils.writeStringToFile(dictionaryFile, "like\tsuch as\n", "UTF-8");
+    DictionaryRegistry registry = new DictionaryRegistry();
+    CompiledDictionary words =
+        registry.acquireWordList(dictionaryFile.getPath());
+    CompiledDictionary synonyms =
+        registry.acquireKeyValues(dictionaryFile.getPath());
+    assertNotSame(words, synonyms);
+    assertNull(words.getValue(0));
+    assertEquals("such as", synonyms.get("like"));
+  }
+
+  @Test
+  public void testMissingFile() {
+    DictionaryRegistry registry = new DictionaryRegistry();
+    assertNull(registry.acquireWordList(dictionaryFile.getPath() + ".no"));
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  public void testValidatorsShareDictionary() throws Exception {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("InvalidExpression");
+    config.addAttribute("dictionary", dictionaryFile.getPath());
+    InvalidExpressionValidator first =
+        new InvalidExpressionValidator(config, null);
+    InvalidExpressionValidator second =
+        new InvalidExpressionValidator(config, null);
+
+    DictionaryRegistry registry = DictionaryRegistry.getInstance();
+    CompiledDictionary dictionary =
+        registry.acquireWordList(dictionaryFile.getPath());
+    assertEquals(3, registry.getReferenceCount(dictionary));
+    first.release();
+    first.release();
+    second.release();
+    assertEquals(1, registry.getReferenceCount(dictionary));
+    registry.release(dictionary);
+  }
+
+  @Test
+  public void testValidatorsShareMatcher() throws Exception {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("InvalidExpression");
+    config.addAttribute("dictionary", dictionaryFile.getPath());
+    InvalidExpressionValidator first =
+        new InvalidExpressionValidator(config, null);
+    InvalidExpressionValidator second =
+        new InvalidExpressionValidator(config, null);
+    try {
+      assertSame(first.getPatternDictionary(),
+          second.getPatternDictionary());
+      assertSame(first.getPatternDictionary().getMatcher(),
+          second.getPatternDictionary().getMatcher());
+    } finally {
+      first.release();
+      second.release();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testConcurrentAcquire() throws InterruptedException {
+    final DictionaryRegistry registry = new DictionaryRegistry();
+    final CompiledDictionary[] acquired = new CompiledDictionary[8];
+    Thread[] threads = new Thread[acquired.length];
+    for (int i = 0; i < threads.length; i++) {
+      final int id = i;
+      threads[i] = new Thread(new Runnable() {
+        public void run() {
+          acquired[id] = registry.acquireWordList(dictionaryFile.getPath());
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (CompiledDictionary dictionary : acquired) {
+      assertSame(acquired[0], dictionary);
+    }
+    assertEquals(1, registry.size());
+    assertEquals(acquired.length, registry.getReferenceCount(acquired[0]));
+  }
+
+  private File dictionaryFile;
+}
@@ -0,0 +1,137 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class LevenshteinCalculatorTest {
+
+  @Test
+  public void testCostsOfEachCalculator() {
+    LevenshteinCalculator unit = LevenshteinCalculator.UNIT_COST;
+    LevenshteinCalculator costly = new LevenshteinCalculator(1, 1, 2);
+    assertEquals(3, unit.getDistance("kitten", "sitting"));
+    assertEquals(5, costly.getDistance("kitten", "sitting"));
+    assertEquals(3, unit.getDistance("kitten", "sitting"));
+    assertEquals(1, LevenshteinDistance.getDistance("abc", "abx"));
+  }
+
+  @Test
+  public void testNullAndEmpty() {
+    LevenshteinCalculator calculator = new LevenshteinCalculator(2, 3, 4);
+    assertEquals(0, calculator.getDistance(null, null));
+    assertEquals(2, calculator.getDistance(null, "x"));
+    assertEquals(3, calculator.getDistance("x", ""));
+  }
+
+  @Test
+  public void testSameAsMatrix() {
+    Random random = new Random(1);
+    LevenshteinCalculator[] calculators = {
+        LevenshteinCalculator.UNIT_COST,
+        new LevenshteinCalculator(1, 2, 3),
+        new LevenshteinCalculator(2, 1, 1),
+        new LevenshteinCalculator(0, 1, 1)
+    };
+    for (LevenshteinCalculator calculator : calculators) {
+      for (int i = 0; i < 300; i++) {
+        String a = randomString(random, 100);
+        String b = randomString(random, 100);
+        int distance = matrixDistance(calculator, a, b);
+        assertEquals(a + " " + b, distance, calculator.getDistance(a, b));
+        for (int max = 0; max < 10; max++) {
+          assertEquals(a + " " + b, Math.min(distance, max + 1),
+              calculator.getDistance(a, b, max));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentCalculators() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+      for (int t = 0; t < 8; t++) {
+        final LevenshteinCalculator calculator =
+            new LevenshteinCalculator(1 + t % 2, 1 + t % 2, 1 + t % 3);
+        final long seed = t;
+        results.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            Random random = new Random(seed);
+            for (int i = 0; i < 200; i++) {
+              String a = randomString(random, 80);
+              String b = randomString(random, 80);
+              if (calculator.getDistance(a, b)
+                  != matrixDistance(calculator, a, b)) {
+                return false;
+              }
+            }
+            return true;
+          }
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertEquals(true, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static int matrixDistance(LevenshteinCalculator calculator,
+                                    String a, String b) {
+    int[][] distance = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      distance[i][0] = i * calculator.getDeletionCost();
+    }
+    for (int j = 0; j <= b.length(); j++) {
+      distance[0][j] = j * calculator.getInsertionCost();
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      for (int j = 1; j <= b.length(); j++) {
+        int substitution = a.charAt(i - 1) == b.charAt(j - 1)
+            ? 0 : calculator.getSubstitutionCost();
+        distance[i][j] = Math.min(Math.min(
+            distance[i - 1][j] + calculator.getDeletionCost(),
+            distance[i][j - 1] + calculator.getInsertionCost()),
+            distance[i - 1][j - 1] + substitution);
+      }
+    }
+    return distance[a.length()][b.length()];
+  }
+
+  private static String randomString(Random random, int maxLength) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = random.nextInt(maxLength); i > 0; i--) {
+      builder.append((char) ('a' + random.nextInt(4)));
+    }
+    return builder.toString();
+  }
+}
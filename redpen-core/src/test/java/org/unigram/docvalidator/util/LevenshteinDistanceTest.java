@@ -19,6 +19,8 @@ package org.unigram.docvalidator.util;
 
 import static org.junit.Assert.*;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 public class LevenshteinDistanceTest {
@@ -166,6 +168,57 @@ public class LevenshteinDistanceTest {
     resetCost();
   }
 
+  @Test
+  public void testBoundedDistance() {
+    assertEquals(3, LevenshteinDistance.getDistance("kitten", "sitting", 3));
+    assertEquals(3, LevenshteinDistance.getDistance("kitten", "sitting", 2));
+    assertEquals(1, LevenshteinDistance.getDistance("kitten", "sitting", 0));
+    // rejected by the difference of the lengths
+    assertEquals(2, LevenshteinDistance.getDistance("a", "abcd", 1));
+    assertEquals(0, LevenshteinDistance.getDistance(null, "", 0));
+    assertEquals(1, LevenshteinDistance.getDistance(null, "x", 1));
+  }
+
+  @Test
+  public void testBoundedDistanceIsSameAsFullDistance() {
+    Random random = new Random(1);
+    for (int i = 0; i < 500; i++) {
+      String a = randomString(random);
+      String b = randomString(random);
+      int distance = LevenshteinDistance.getDistance(a, b);
+      for (int max = 0; max < 8; max++) {
+        assertEquals(a + " " + b, Math.min(distance, max + 1),
+            LevenshteinDistance.getDistance(a, b, max));
+      }
+    }
+  }
+
+  @Test
+  public void testBoundedDistanceWithCosts() {
+    LevenshteinDistance.setInsertionCost(1);
+    LevenshteinDistance.setDeletionCost(2);
+    LevenshteinDistance.setSubstitutionCost(3);
+    Random random = new Random(2);
+    for (int i = 0; i < 500; i++) {
+      String a = randomString(random);
+      String b = randomString(random);
+      int distance = LevenshteinDistance.getDistance(a, b);
+      for (int max = 0; max < 12; max++) {
+        assertEquals(a + " " + b, Math.min(distance, max + 1),
+            LevenshteinDistance.getDistance(a, b, max));
+      }
+    }
+    resetCost();
+  }
+
+  private static String randomString(Random random) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = random.nextInt(8); i > 0; i--) {
+      builder.append((char) ('a' + random.nextInt(3)));
+    }
+    return builder.toString();
+  }
+
   public void resetCost() {
     LevenshteinDistance.setInsertionCost(1);
     LevenshteinDistance.setDeletionCost(1);
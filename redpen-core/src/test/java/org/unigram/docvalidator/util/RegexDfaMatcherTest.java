@@ -0,0 +1,152 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+public class RegexDfaMatcherTest {
+
+  @Test
+  public void testAlternationAndClasses() {
+    RegexDfaMatcher matcher = new RegexDfaMatcher(
+        Arrays.asList("colou?r", "gr[ae]y|black"));
+    assertEquals(Arrays.asList("0:4-9", "1:10-14", "0:15-21", "1:22-27"),
+        match(matcher, "the color grey colour black"));
+  }
+
+  @Test
+  public void testRepetition() {
+    RegexDfaMatcher matcher = new RegexDfaMatcher(
+        Arrays.asList("\\d+kg", "a{2,3}", "(?:ab)*c"));
+    List<String> matches = match(matcher, "10kg ababc aaaaa");
+    Collections.sort(matches);
+    assertEquals(Arrays.asList("0:0-4", "1:11-14", "1:14-16", "2:5-10"),
+        matches);
+  }
+
+  @Test
+  public void testLeftmostLongest() {
+    RegexDfaMatcher matcher = new RegexDfaMatcher(
+        Arrays.asList("ab|abcd|bcde"));
+    assertEquals(Arrays.asList("0:0-4"), match(matcher, "abcde"));
+  }
+
+  @Test
+  public void testEveryRuleIsTagged() {
+    RegexDfaMatcher matcher = new RegexDfaMatcher(
+        Arrays.asList("ケーキ", "[ァ-ヶー]+"));
+    assertEquals(Arrays.asList("0:1-4", "1:1-4"),
+        match(matcher, "「ケーキ」"));
+    assertEquals("[ァ-ヶー]+", matcher.getPattern(1));
+    assertEquals(2, matcher.getPatternCount());
+  }
+
+  @Test
+  public void testSameAsJavaRegex() {
+    String[] regexes = {"a+b", "b[a-c]*a", "(?:ab|ba){2}", "c.?c"};
+    Random random = new Random(1);
+    for (String regex : regexes) {
+      RegexDfaMatcher matcher = new RegexDfaMatcher(Arrays.asList(regex));
+      for (int i = 0; i < 200; i++) {
+        StringBuilder text = new StringBuilder();
+        for (int j = random.nextInt(20); j > 0; j--) {
+          text.append((char) ('a' + random.nextInt(4)));
+        }
+        assertEquals(regex + " in " + text,
+            matchJava(regex, text.toString()), match(matcher, text));
+      }
+    }
+  }
+
+  @Test(timeout = 5000)
+  public void testDenseOccurrencesInLinearTime() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      text.append('a');
+    }
+    assertEquals(Arrays.asList("0:0-100000"),
+        match(new RegexDfaMatcher(Arrays.asList("a+")), text));
+    List<String> matches =
+        match(new RegexDfaMatcher(Arrays.asList("a|a*b")), text);
+    assertEquals(100000, matches.size());
+    assertEquals("0:99999-100000", matches.get(99999));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyMatchIsRejected() {
+    new RegexDfaMatcher(Arrays.asList("cake", "a*"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAnchorIsRejected() {
+    new RegexDfaMatcher(Arrays.asList("^cake"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnbalancedParenthesisIsRejected() {
+    new RegexDfaMatcher(Arrays.asList("(cake"));
+  }
+
+  private static List<String> match(RegexDfaMatcher matcher,
+                                    CharSequence text) {
+    final List<String> matches = new ArrayList<String>();
+    matcher.match(text, new AhoCorasickMatcher.MatchListener() {
+      @Override
+      public void matched(int patternId, int start, int end) {
+        matches.add(patternId + ":" + start + "-" + end);
+      }
+    });
+    return matches;
+  }
+
+  /* leftmost-longest occurrences found with java.util.regex */
+  private static List<String> matchJava(String regex, String text) {
+    Matcher matcher = Pattern.compile(regex).matcher(text);
+    List<String> matches = new ArrayList<String>();
+    int from = 0;
+    while (from < text.length()) {
+      int start = -1;
+      int end = -1;
+      for (int i = from; i < text.length() && start < 0; i++) {
+        for (int j = text.length(); j > i; j--) {
+          if (matcher.region(i, j).matches()) {
+            start = i;
+            end = j;
+            break;
+          }
+        }
+      }
+      if (start < 0) {
+        break;
+      }
+      matches.add("0:" + start + "-" + end);
+      from = end;
+    }
+    return matches;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SymmetricDeleteIndexTest {
+
+  @Test
+  public void testPutAndSearch() {
+    SymmetricDeleteIndex<Integer> index = new SymmetricDeleteIndex<Integer>(2);
+    index.put("インデクス", 0);
+    index.put("アナライズ", 1);
+    index.put("インデクス", 2);
+    assertEquals(2, index.size());
+    assertEquals(Integer.valueOf(2), index.get("インデクス"));
+    assertTrue(index.containsKey("アナライズ"));
+    assertFalse(index.containsKey("アナライシス"));
+    assertEquals(Collections.singletonList("インデクス"),
+        keys(index.search("インデックス", 1)));
+    assertEquals(Collections.singletonList("アナライズ"),
+        keys(index.search("アナライシス", 2)));
+    assertEquals(0, index.search("アナライシス", 1).size());
+  }
+
+  @Test
+  public void testSameAsBkTree() {
+    Random random = new Random(1);
+    SymmetricDeleteIndex<Integer> index = new SymmetricDeleteIndex<Integer>(2);
+    BkTree<Integer> tree = new BkTree<Integer>();
+    for (int i = 0; i < 300; i++) {
+      String word = randomWord(random);
+      index.put(word, i);
+      tree.put(word, i);
+    }
+    for (int i = 0; i < 100; i++) {
+      String query = randomWord(random);
+      // distance 3 is beyond the deletion variants of the index
+      for (int maxDistance = 0; maxDistance < 4; maxDistance++) {
+        assertEquals(keys(tree.search(query, maxDistance)),
+            keys(index.search(query, maxDistance)));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroCostIsRejected() {
+    new SymmetricDeleteIndex<Integer>(2, new LevenshteinCalculator(0, 1, 1));
+  }
+
+  private static String randomWord(Random random) {
+    StringBuilder word = new StringBuilder();
+    for (int i = 2 + random.nextInt(6); i > 0; i--) {
+      word.append((char) ('ア' + random.nextInt(4)));
+    }
+    return word.toString();
+  }
+
+  private static List<String> keys(List<Map.Entry<String, Integer>> found) {
+    List<String> keys = new ArrayList<String>();
+    for (Map.Entry<String, Integer> entry : found) {
+      keys.add(entry.getKey());
+    }
+    Collections.sort(keys);
+    return keys;
+  }
+}
@@ -85,4 +85,41 @@ public class InvalidCharacterValidatorTest {
     assertEquals(2, errors.size());
   }
 
+  @Test
+  public void testEveryOccurrenceIsReported() {
+    InvalidCharacterValidatorForTest validator =
+        new InvalidCharacterValidatorForTest();
+    validator.loadCharacterTable(loadCharacterTable(
+        "<character name=\"EXCLAMATION_MARK\" value=\"!\" " +
+        "invalid-chars=\"！\"/>" +
+        "<character name=\"COMMA\" value=\",\" invalid-chars=\"、，\"/>"));
+    Sentence str = new Sentence("ああ！、いい，うう！", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(4, errors.size());
+    assertEquals(2, errors.get(0).getStartPosition());
+    assertEquals(3, errors.get(0).getEndPosition());
+    assertEquals(3, errors.get(1).getStartPosition());
+    assertEquals(6, errors.get(2).getStartPosition());
+    assertEquals(9, errors.get(3).getStartPosition());
+  }
+
+  @Test
+  public void testSupplementaryInvalidCharacter() {
+    InvalidCharacterValidatorForTest validator =
+        new InvalidCharacterValidatorForTest();
+    validator.loadCharacterTable(loadCharacterTable(
+        "<character name=\"YOSHI\" value=\"吉\" invalid-chars=\"𠮷\"/>"));
+    Sentence str = new Sentence("𠮷野家と吉野家", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(1, errors.size());
+    assertEquals(0, errors.get(0).getStartPosition());
+    assertEquals(2, errors.get(0).getEndPosition());
+    assertTrue(errors.get(0).getMessage().contains("𠮷"));
+  }
+
+  private static CharacterTable loadCharacterTable(String characters) {
+    return CharacterTableLoader.load(IOUtils.toInputStream(
+        "<?xml version=\"1.0\"?><character-table>" + characters +
+        "</character-table>"));
+  }
 }
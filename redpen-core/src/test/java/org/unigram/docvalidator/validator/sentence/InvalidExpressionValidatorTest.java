@@ -0,0 +1,116 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.junit.Test;
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+class InvalidExpressionValidatorForTest extends InvalidExpressionValidator {
+  void loadInvalidExpressions() {
+    Set<String> expressions = new HashSet<String>();
+    expressions.add("piece of a cake");
+    expressions.add("cake");
+    this.setInvalidExpressions(expressions);
+  }
+}
+
+public class InvalidExpressionValidatorTest {
+  @Test
+  public void testInvalidExpression() {
+    InvalidExpressionValidatorForTest validator =
+        new InvalidExpressionValidatorForTest();
+    validator.loadInvalidExpressions();
+    Sentence str = new Sentence("it is a piece of a cake.", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(2, errors.size());
+    assertEquals(8, errors.get(0).getStartPosition());
+    assertEquals(23, errors.get(0).getEndPosition());
+    assertEquals(19, errors.get(1).getStartPosition());
+    assertEquals(23, errors.get(1).getEndPosition());
+  }
+
+  @Test
+  public void testEveryOccurrenceIsReported() {
+    InvalidExpressionValidatorForTest validator =
+        new InvalidExpressionValidatorForTest();
+    validator.loadInvalidExpressions();
+    Sentence str = new Sentence("cake and cake", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(2, errors.size());
+    assertEquals(0, errors.get(0).getStartPosition());
+    assertEquals(9, errors.get(1).getStartPosition());
+  }
+
+  @Test
+  public void testWithoutInvalidExpression() {
+    InvalidExpressionValidatorForTest validator =
+        new InvalidExpressionValidatorForTest();
+    validator.loadInvalidExpressions();
+    Sentence str = new Sentence("it is a piece of a pie.", 0);
+    assertEquals(0, validator.validate(str).size());
+  }
+
+  @Test
+  public void testRegularExpression() {
+    InvalidExpressionValidatorForTest validator =
+        new InvalidExpressionValidatorForTest();
+    Set<String> expressions = new HashSet<String>();
+    expressions.add("cake");
+    expressions.add("/\\d+ ?kg/");
+    expressions.add("/(cake/");
+    validator.setInvalidExpressions(expressions);
+    Sentence str = new Sentence("a cake of 10 kg and 2kg.", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(3, errors.size());
+    assertEquals(2, errors.get(0).getStartPosition());
+    assertEquals(10, errors.get(1).getStartPosition());
+    assertEquals(15, errors.get(1).getEndPosition());
+    assertEquals(20, errors.get(2).getStartPosition());
+    assertEquals(23, errors.get(2).getEndPosition());
+  }
+
+  @Test
+  public void testRegularExpressionsBeyondOneAutomaton() {
+    InvalidExpressionValidatorForTest validator =
+        new InvalidExpressionValidatorForTest();
+    Set<String> expressions = new HashSet<String>();
+    StringBuilder text = new StringBuilder();
+    for (char c = 'a'; c < 'u'; c++) {
+      char last = Character.toUpperCase(c);
+      expressions.add("/" + c + ".{9}" + last + "/");
+      text.append(c).append("---------").append(last).append(' ');
+    }
+    validator.setInvalidExpressions(expressions);
+    Sentence str = new Sentence(text.toString(), 0);
+    assertEquals(20, validator.validate(str).size());
+  }
+
+  @Test
+  public void testEmptyDictionary() {
+    InvalidExpressionValidator validator = new InvalidExpressionValidator();
+    Sentence str = new Sentence("it is a piece of a cake.", 0);
+    assertEquals(0, validator.validate(str).size());
+  }
+}
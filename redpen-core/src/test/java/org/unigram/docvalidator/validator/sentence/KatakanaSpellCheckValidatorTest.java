@@ -20,11 +20,15 @@ package org.unigram.docvalidator.validator.sentence;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
+import org.unigram.docvalidator.DocumentValidatorException;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
 import org.unigram.docvalidator.model.Sentence;
 import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.validator.ValidationContext;
 
 public class KatakanaSpellCheckValidatorTest {
   @Test
@@ -55,4 +59,138 @@ public class KatakanaSpellCheckValidatorTest {
     // and "フェーズ・アナライシス".   
     assertEquals(st.toString(), 1, errors.size());
   }
+
+  @Test
+  public void testSymmetricDeleteIndex() throws DocumentValidatorException {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("KatakanaSpellCheck");
+    config.addAttribute("similarity_index", "symmetric_delete");
+    config.addAttribute("max_edit_distance", "2");
+    KatakanaSpellCheckValidator validator =
+        new KatakanaSpellCheckValidator(config, null);
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    errors.addAll(validator.validate(
+        new Sentence("フレーズ・アナライズにバグがある", 0)));
+    errors.addAll(validator.validate(
+        new Sentence("バグのあるフェーズ・アナライシス", 1)));
+    errors.addAll(validator.validate(
+        new Sentence("あのインデクスとこのインデックス", 2)));
+    assertEquals(2, errors.size());
+  }
+
+  @Test(expected = DocumentValidatorException.class)
+  public void testUnknownIndex() throws DocumentValidatorException {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("KatakanaSpellCheck");
+    config.addAttribute("similarity_index", "linear");
+    new KatakanaSpellCheckValidator(config, null);
+  }
+
+  @Test(expected = DocumentValidatorException.class)
+  public void testInvalidMaxEditDistance() throws DocumentValidatorException {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("KatakanaSpellCheck");
+    config.addAttribute("similarity_index", "symmetric_delete");
+    config.addAttribute("max_edit_distance", "two");
+    new KatakanaSpellCheckValidator(config, null);
+  }
+
+  @Test
+  public void testMaxEditDistanceIgnoredByBkTree()
+      throws DocumentValidatorException {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("KatakanaSpellCheck");
+    config.addAttribute("max_edit_distance", "two");
+    KatakanaSpellCheckValidator validator =
+        new KatakanaSpellCheckValidator(config, null);
+    assertEquals(0, validator.validate(
+        new Sentence("あのインデクス", 0)).size());
+  }
+
+  @Test
+  public void testDictionaryPerContext() {
+    KatakanaSpellCheckValidator validator
+      = new KatakanaSpellCheckValidator();
+    ValidationContext previous =
+        ValidationContext.bind(new ValidationContext());
+    try {
+      assertEquals(0, validator.validate(
+          new Sentence("あのインデクス", 0)).size());
+      ValidationContext.bind(new ValidationContext());
+      // The word in the previous context is not visible.
+      assertEquals(0, validator.validate(
+          new Sentence("このインデックス", 1)).size());
+      assertEquals(1, validator.validate(
+          new Sentence("あのインデクス", 2)).size());
+    } finally {
+      ValidationContext.bind(previous);
+    }
+  }
+
+  @Test
+  public void testDictionaryPerRun() throws DocumentValidatorException {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("KatakanaSpellCheck");
+    config.addAttribute("scope", "run");
+    KatakanaSpellCheckValidator validator =
+        new KatakanaSpellCheckValidator(config, null);
+    ValidationContext previous =
+        ValidationContext.bind(new ValidationContext());
+    try {
+      assertEquals(0, validator.validate(
+          new Sentence("あのインデクス", 0)).size());
+      ValidationContext.bind(new ValidationContext());
+      // The word in the previous document is shared in the run.
+      assertEquals(1, validator.validate(
+          new Sentence("このインデックス", 1)).size());
+    } finally {
+      ValidationContext.bind(previous);
+    }
+  }
+
+  @Test(expected = DocumentValidatorException.class)
+  public void testUnknownScope() throws DocumentValidatorException {
+    ValidatorConfiguration config =
+        new ValidatorConfiguration("KatakanaSpellCheck");
+    config.addAttribute("scope", "directory");
+    new KatakanaSpellCheckValidator(config, null);
+  }
+
+  @Test
+  public void testDefaultDictionaryFromSeveralThreads()
+      throws InterruptedException {
+    final KatakanaSpellCheckValidator validator
+      = new KatakanaSpellCheckValidator();
+    final List<Throwable> failures =
+        Collections.synchronizedList(new ArrayList<Throwable>());
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      final int id = i;
+      threads[i] = new Thread(new Runnable() {
+        public void run() {
+          try {
+            for (int j = 0; j < 500; j++) {
+              validator.validate(new Sentence(
+                  "インデックス" + katakanaNumber(id * 1000 + j), j));
+            }
+          } catch (Throwable e) {
+            failures.add(e);
+          }
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(failures.toString(), failures.isEmpty());
+  }
+
+  private static String katakanaNumber(int number) {
+    StringBuilder builder = new StringBuilder();
+    for (char c : Integer.toString(number).toCharArray()) {
+      builder.append((char) ('ア' + (c - '0')));
+    }
+    return builder.toString();
+  }
 }
@@ -0,0 +1,69 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.junit.Test;
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.model.Sentence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SentenceValidatorAdapterTest {
+
+  @Test
+  public void testAdaptCollectingValidator() {
+    SentenceLengthValidator validator = new SentenceLengthValidator();
+    assertSame(validator, SentenceValidatorAdapter.adapt(validator));
+  }
+
+  @Test
+  public void testAdaptLegacyValidator() {
+    SentenceValidator legacy = new SentenceValidator() {
+      @Override
+      public List<ValidationError> validate(Sentence sentence) {
+        List<ValidationError> result = new ArrayList<ValidationError>();
+        result.add(new ValidationError(this.getClass(), "error", sentence));
+        return result;
+      }
+    };
+    CollectingSentenceValidator validator =
+        SentenceValidatorAdapter.adapt(legacy);
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    validator.validate(new Sentence("this is a pen.", 0), errors);
+    validator.validate(new Sentence("this is a pencil.", 1), errors);
+    assertEquals(2, errors.size());
+  }
+
+  @Test
+  public void testAdaptLegacyValidatorReturningNull() {
+    SentenceValidator legacy = new SentenceValidator() {
+      @Override
+      public List<ValidationError> validate(Sentence sentence) {
+        return null;
+      }
+    };
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    SentenceValidatorAdapter.adapt(legacy)
+        .validate(new Sentence("this is a pen.", 0), errors);
+    assertEquals(0, errors.size());
+  }
+}
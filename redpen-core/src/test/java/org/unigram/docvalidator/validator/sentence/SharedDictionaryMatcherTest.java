@@ -0,0 +1,237 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.validator.sentence;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.unigram.docvalidator.ValidationError;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.model.Sentence;
+import org.unigram.docvalidator.util.CompiledDictionary;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SharedDictionaryMatcherTest {
+  @Test
+  public void testSharedScanMatchesSeparateValidation() {
+    List<DictionaryMatchingValidator> validators = createValidators();
+    Sentence sentence = new Sentence("a piece of a cake like info.", 0);
+
+    List<ValidationError> expected = new ArrayList<ValidationError>();
+    for (DictionaryMatchingValidator validator : validators) {
+      expected.addAll(validator.validate(sentence));
+    }
+
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    DictionaryMatchVisitor[] visitors =
+        new DictionaryMatchVisitor[validators.size()];
+    for (int i = 0; i < visitors.length; i++) {
+      visitors[i] = validators.get(i).createMatchVisitor(sentence, errors);
+    }
+    new SharedDictionaryMatcher(validators).match(sentence.content, visitors);
+    for (DictionaryMatchVisitor visitor : visitors) {
+      visitor.finish();
+    }
+
+    assertEquals(6, expected.size());
+    assertEquals(messages(expected), messages(errors));
+  }
+
+  @Test
+  public void testSharedPatternIsRoutedToEveryOwner() {
+    List<DictionaryMatchingValidator> validators = createValidators();
+    Sentence sentence = new Sentence("cake", 0);
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    DictionaryMatchVisitor[] visitors = new DictionaryMatchVisitor[] {
+        validators.get(0).createMatchVisitor(sentence, errors),
+        null,
+        validators.get(2).createMatchVisitor(sentence, errors)
+    };
+    new SharedDictionaryMatcher(validators).match(sentence.content, visitors);
+    visitors[0].finish();
+    visitors[2].finish();
+
+    assertEquals(2, errors.size());
+    assertEquals(0, errors.get(0).getStartPosition());
+    assertEquals(0, errors.get(1).getStartPosition());
+  }
+
+  @Test
+  public void testDictionaryPatternsAreRoutedToUsers() {
+    final CompiledDictionary dictionary =
+        CompiledDictionary.compile(Arrays.asList("cake", "piece"));
+    List<DictionaryMatchingValidator> validators =
+        new ArrayList<DictionaryMatchingValidator>();
+    for (int i = 0; i < 2; i++) {
+      validators.add(new InvalidExpressionValidator() {
+        {
+          setPatterns(dictionary);
+        }
+      });
+    }
+    validators.add(new InvalidExpressionValidator() {
+      {
+        setInvalidExpressions(new HashSet<String>(Arrays.asList("cake")));
+      }
+    });
+    Sentence sentence = new Sentence("a piece of a cake", 0);
+    List<ValidationError> errors = new ArrayList<ValidationError>();
+    DictionaryMatchVisitor[] visitors =
+        new DictionaryMatchVisitor[validators.size()];
+    for (int i = 0; i < visitors.length; i++) {
+      visitors[i] = validators.get(i).createMatchVisitor(sentence, errors);
+    }
+    new SharedDictionaryMatcher(validators).match(sentence.content, visitors);
+
+    // "piece" of each user, then "cake" of each user and the other one
+    assertEquals(5, errors.size());
+    assertEquals(2, errors.get(0).getStartPosition());
+    assertEquals(2, errors.get(1).getStartPosition());
+    assertEquals(13, errors.get(2).getStartPosition());
+    assertEquals(13, errors.get(3).getStartPosition());
+    assertEquals(13, errors.get(4).getStartPosition());
+  }
+
+  @Test
+  public void testRegistryDictionariesAreScannedOnce() throws Exception {
+    File invalidFile = File.createTempFile("invalid", ".txt");
+    File suggestFile = File.createTempFile("suggest", ".txt");
+    List<AbstractDictionaryMatchingValidator> validators =
+        new ArrayList<AbstractDictionaryMatchingValidator>();
+    try {
+      FileUtils.writeStringToFile(invalidFile, "cake\n", "UTF-8");
+      FileUtils.writeStringToFile(suggestFile, "piece\tslice\n", "UTF-8");
+      ValidatorConfiguration invalidConfig =
+          new ValidatorConfiguration("InvalidExpression");
+      invalidConfig.addAttribute("dictionary", invalidFile.getPath());
+      ValidatorConfiguration suggestConfig =
+          new ValidatorConfiguration("SuggestExpression");
+      suggestConfig.addAttribute("invalid_word_file", suggestFile.getPath());
+      for (int i = 0; i < 2; i++) {
+        validators.add(new InvalidExpressionValidator(invalidConfig, null));
+        validators.add(new SuggestExpressionValidator(suggestConfig, null));
+      }
+
+      SharedDictionaryMatcher matcher =
+          new SharedDictionaryMatcher(validators.subList(0, 2));
+      assertSame(matcher.getMatcher(),
+          new SharedDictionaryMatcher(validators.subList(2, 4)).getMatcher());
+
+      Sentence sentence = new Sentence("a piece of a cake", 0);
+      List<ValidationError> errors = new ArrayList<ValidationError>();
+      DictionaryMatchVisitor[] visitors = {
+          validators.get(0).createMatchVisitor(sentence, errors),
+          validators.get(1).createMatchVisitor(sentence, errors)
+      };
+      CountingSequence text = new CountingSequence(sentence.content);
+      matcher.match(text, visitors);
+      for (DictionaryMatchVisitor visitor : visitors) {
+        visitor.finish();
+      }
+
+      assertEquals(sentence.content.length(), text.count);
+      assertEquals(2, errors.size());
+      assertEquals(Arrays.asList("Found invalid expression: \"cake\"@13",
+          "Found invalid word, \"piece\". Use the synonym of the word "
+              + "\"slice\" instead.@2"), messages(errors));
+    } finally {
+      for (AbstractDictionaryMatchingValidator validator : validators) {
+        validator.release();
+      }
+      invalidFile.delete();
+      suggestFile.delete();
+    }
+  }
+
+  @Test
+  public void testValidatorCount() {
+    assertEquals(3,
+        new SharedDictionaryMatcher(createValidators()).getValidatorCount());
+    assertEquals(0, new SharedDictionaryMatcher(
+        new ArrayList<DictionaryMatchingValidator>()).getValidatorCount());
+  }
+
+  private static List<DictionaryMatchingValidator> createValidators() {
+    InvalidExpressionValidatorForTest invalidExpression =
+        new InvalidExpressionValidatorForTest();
+    invalidExpression.loadInvalidExpressions();
+    SuggestExpressionValidatorForTest suggestExpression =
+        new SuggestExpressionValidatorForTest();
+    suggestExpression.loadSynonyms();
+    InvalidExpressionValidator sharing = new InvalidExpressionValidator() {
+      {
+        setInvalidExpressions(
+            new HashSet<String>(Arrays.asList("cake", "info")));
+      }
+    };
+    return Arrays.<DictionaryMatchingValidator>asList(
+        invalidExpression, suggestExpression, sharing);
+  }
+
+  /**
+   * Text counting the characters read by the scans.
+   */
+  private static final class CountingSequence implements CharSequence {
+
+    CountingSequence(String content) {
+      this.content = content;
+    }
+
+    @Override
+    public int length() {
+      return content.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+      count++;
+      return content.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return content.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return content;
+    }
+
+    private final String content;
+
+    private int count;
+  }
+
+  private static List<String> messages(List<ValidationError> errors) {
+    List<String> messages = new ArrayList<String>();
+    for (ValidationError error : errors) {
+      messages.add(error.getMessage() + "@" + error.getStartPosition());
+    }
+    Collections.sort(messages);
+    return messages;
+  }
+}
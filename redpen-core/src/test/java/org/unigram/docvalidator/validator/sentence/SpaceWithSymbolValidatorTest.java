@@ -116,4 +116,37 @@ public class SpaceWithSymbolValidatorTest {
     List<ValidationError> errors = validator.validate(str);
     assertEquals(1, errors.size());
   }
+
+  @Test
+  public void testEveryOccurrenceIsChecked() {
+    SpaceWithSymbolValidatorForTest validator =
+        new SpaceWithSymbolValidatorForTest();
+    validator.loadCharacterTable(CharacterTableLoader.load(
+        IOUtils.toInputStream("<?xml version=\"1.0\"?>" +
+            "<character-table>" +
+            "<character name=\"COLLON\" value=\":\" after-space=\"true\" />" +
+            "</character-table>")));
+    Sentence str = new Sentence("a: b:c d:e:", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(2, errors.size());
+    assertEquals(4, errors.get(0).getStartPosition());
+    assertEquals(5, errors.get(0).getEndPosition());
+    assertEquals(8, errors.get(1).getStartPosition());
+  }
+
+  @Test
+  public void testMultipleCharacterSymbol() {
+    SpaceWithSymbolValidatorForTest validator =
+        new SpaceWithSymbolValidatorForTest();
+    validator.loadCharacterTable(CharacterTableLoader.load(
+        IOUtils.toInputStream("<?xml version=\"1.0\"?>" +
+            "<character-table>" +
+            "<character name=\"ARROW\" value=\"->\" before-space=\"true\" />" +
+            "</character-table>")));
+    Sentence str = new Sentence("a -> b->c", 0);
+    List<ValidationError> errors = validator.validate(str);
+    assertEquals(1, errors.size());
+    assertEquals(6, errors.get(0).getStartPosition());
+    assertEquals(8, errors.get(0).getEndPosition());
+  }
 }
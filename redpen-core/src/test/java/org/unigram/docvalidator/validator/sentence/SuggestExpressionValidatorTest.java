@@ -33,6 +33,7 @@ class SuggestExpressionValidatorForTest extends SuggestExpressionValidator {
     Map<String, String> synonymSamples = new HashMap<String, String>();
     synonymSamples.put("like", "such as");
     synonymSamples.put("info", "infomation");
+    synonymSamples.put("information", "info");
     this.setSynonyms(synonymSamples);
   }
 }
@@ -77,4 +78,18 @@ public class SuggestExpressionValidatorTest {
     assertNotNull(error);
     assertEquals(0, error.size());
   }
+
+  @Test
+  public void testOverlappingSynonyms() {
+    SuggestExpressionValidatorForTest synonymValidator = new SuggestExpressionValidatorForTest();
+    synonymValidator.loadSynonyms();
+    Sentence str = new Sentence("the information is like a cake.",0);
+    List<ValidationError> error = synonymValidator.validate(str);
+    assertEquals(2, error.size());
+    assertEquals(4, error.get(0).getStartPosition());
+    assertEquals(15, error.get(0).getEndPosition());
+    assertTrue(error.get(0).getMessage().contains("\"info\" instead"));
+    assertEquals(19, error.get(1).getStartPosition());
+    assertTrue(error.get(1).getMessage().contains("\"such as\" instead"));
+  }
 }
@@ -0,0 +1,109 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.server;
+
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.util.DictionaryLoader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Watches the dictionary files of the validators in a configuration by
+ * polling their modification times and sizes. The compiled form of a
+ * dictionary is watched as well as the text file. A change is reported
+ * only after the files stayed unchanged for one poll, so that a file
+ * being written is not loaded halfway.
+ */
+public final class DictionaryWatcher {
+  /**
+   * Names of the validator attributes giving dictionary files.
+   */
+  public static final List<String> DICTIONARY_ATTRIBUTES =
+      Arrays.asList("dictionary", "invalid_word_file");
+
+  /**
+   * Constructor.
+   *
+   * @param configuration configuration whose dictionaries are watched
+   */
+  public DictionaryWatcher(Configuration configuration) {
+    List<File> watched = new ArrayList<File>();
+    for (ValidatorConfiguration config
+        : configuration.getSentenceValidatorConfigs()) {
+      for (String name : DICTIONARY_ATTRIBUTES) {
+        String fileName = config.getAttribute(name);
+        if (fileName != null && fileName.length() > 0) {
+          watched.add(new File(fileName));
+          watched.add(DictionaryLoader.getCompiledFile(fileName));
+        }
+      }
+    }
+    this.files = watched.toArray(new File[watched.size()]);
+    this.lastPolled = readFileStates();
+    this.lastReported = lastPolled;
+  }
+
+  /**
+   * Check if a dictionary file was changed, added or removed since the
+   * last reported change, and has not been modified since the previous
+   * poll.
+   *
+   * @return true when a file was changed
+   */
+  public synchronized boolean poll() {
+    long[] current = readFileStates();
+    boolean stable = Arrays.equals(current, lastPolled);
+    lastPolled = current;
+    if (!stable || Arrays.equals(current, lastReported)) {
+      return false;
+    }
+    lastReported = current;
+    return true;
+  }
+
+  /**
+   * Get the number of watched files.
+   *
+   * @return number of files
+   */
+  public int getFileCount() {
+    return files.length;
+  }
+
+  /* modification time and size of each file, 0 for the missing files */
+  private long[] readFileStates() {
+    long[] states = new long[files.length * 2];
+    for (int i = 0; i < files.length; i++) {
+      states[i * 2] = files[i].lastModified();
+      states[i * 2 + 1] = files[i].length();
+    }
+    return states;
+  }
+
+  private final File[] files;
+
+  /* states read by the previous poll */
+  private long[] lastPolled;
+
+  /* states when the last change was reported */
+  private long[] lastReported;
+}
@@ -21,13 +21,25 @@ package org.unigram.docvalidator.server;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.unigram.docvalidator.ConfigurationLoader;
+import org.unigram.docvalidator.ValidationError;
 import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.model.DocumentCollection;
 import org.unigram.docvalidator.server.util.ServerConfigurationLoader;
 import org.unigram.docvalidator.DocumentValidatorException;
 import org.unigram.docvalidator.DocumentValidator;
 
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Document validator server.
+ * Document validator server. The dictionary files of the validators are
+ * watched, and when one of them is changed a new DocumentValidator is
+ * built in the background and swapped in atomically. Requests being
+ * validated finish with the previous validator, which is closed when the
+ * last of them completes.
  */
 public class DocumentValidatorServer {
 
@@ -35,12 +47,21 @@ public class DocumentValidatorServer {
       DocumentValidatorServer.class
   );
 
+  /**
+   * Interval to check the dictionary files in seconds.
+   */
+  public static final long RELOAD_INTERVAL_SECONDS = 5;
+
   private static DocumentValidatorServer documentValidatorServer;
 
-  private DocumentValidator validator;
+  private final ValidatorHolder validators;
 
   private Configuration documentValidatorConfig;
 
+  private final DictionaryWatcher watcher;
+
+  private final ScheduledExecutorService reloader;
+
   private DocumentValidatorServer() throws DocumentValidatorException {
     ConfigurationLoader configLoader = new ServerConfigurationLoader();
     documentValidatorConfig = configLoader.loadConfiguration(
@@ -49,16 +70,83 @@ public class DocumentValidatorServer {
             .getResourceAsStream("/conf/dv-conf.xml")
     );
 
+    validators = new ValidatorHolder(buildValidator());
+
+    watcher = new DictionaryWatcher(documentValidatorConfig);
+    if (watcher.getFileCount() > 0) {
+      reloader = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "dictionary-reloader");
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+      reloader.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          if (watcher.poll()) {
+            log.info("Dictionary files are changed.");
+            reload();
+          }
+        }
+      }, RELOAD_INTERVAL_SECONDS, RELOAD_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    } else {
+      reloader = null;
+    }
+  }
+
+  private DocumentValidator buildValidator()
+      throws DocumentValidatorException {
 //    ResultDistributor distributor = ResultDistributorFactory
 //        .createDistributor("plain", System.out);
-    validator = new DocumentValidator.Builder()
+    return new DocumentValidator.Builder()
         .setConfiguration(documentValidatorConfig)
 //        .setResultDistributor(distributor)
         .build();
   }
 
-  public DocumentValidator getValidator() {
-    return validator;
+  /**
+   * Validate documents with the current validator. The validator is not
+   * closed by a reload until the validation completes.
+   *
+   * @param documents input documents
+   * @return list of validation errors
+   */
+  public List<ValidationError> check(DocumentCollection documents) {
+    ValidatorHolder.Generation current = validators.acquire();
+    try {
+      return current.getValidator().check(documents);
+    } finally {
+      current.release();
+    }
+  }
+
+  /**
+   * Rebuild the validator, reloading the changed dictionaries, and swap
+   * it in. The current validator is kept when the rebuild fails.
+   */
+  public void reload() {
+    DocumentValidator validator;
+    try {
+      validator = buildValidator();
+    } catch (DocumentValidatorException e) {
+      log.error("Failed to reload the validators: ", e);
+      return;
+    }
+    validators.swap(validator);
+    log.info("Reloaded the validators.");
+  }
+
+  /**
+   * Stop watching the dictionary files and close the validator.
+   */
+  public void shutdown() {
+    if (reloader != null) {
+      reloader.shutdownNow();
+    }
+    validators.shutdown();
   }
 
   public Configuration getDocumentValidatorConfig() {
@@ -77,4 +165,14 @@ public class DocumentValidatorServer {
     log.info("Initializing Document Validator");
     documentValidatorServer = new DocumentValidatorServer();
   }
+
+  /**
+   * Shut down the server instance, if initialized.
+   */
+  public static void terminate() {
+    if (documentValidatorServer != null) {
+      documentValidatorServer.shutdown();
+      documentValidatorServer = null;
+    }
+  }
 }
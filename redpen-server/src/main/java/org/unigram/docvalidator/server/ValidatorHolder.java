@@ -0,0 +1,118 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.server;
+
+import org.unigram.docvalidator.DocumentValidator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current DocumentValidator of the server. A validator is used
+ * through a Generation acquired from the holder, and a validator replaced
+ * by swap is closed when the last generation acquired before the swap is
+ * released.
+ */
+final class ValidatorHolder {
+
+  ValidatorHolder(DocumentValidator validator) {
+    this.current = new AtomicReference<Generation>(new Generation(validator));
+  }
+
+  /**
+   * Acquire the current validator. The caller must release the returned
+   * generation when the validation completes.
+   *
+   * @return generation of the current validator
+   * @throws IllegalStateException when the holder is shut down
+   */
+  Generation acquire() {
+    // a retired generation is always replaced before it is released, so
+    // an unchanged one which cannot be retained was shut down
+    while (true) {
+      Generation generation = current.get();
+      if (generation.retain()) {
+        return generation;
+      }
+      if (generation == current.get()) {
+        throw new IllegalStateException("The server is shut down.");
+      }
+    }
+  }
+
+  /**
+   * Replace the current validator. The previous one is closed when it is
+   * no longer used.
+   *
+   * @param validator new validator
+   */
+  void swap(DocumentValidator validator) {
+    current.getAndSet(new Generation(validator)).release();
+  }
+
+  /**
+   * Release the current validator, which is closed when it is no longer
+   * used. No validator can be acquired afterwards.
+   */
+  void shutdown() {
+    current.get().release();
+  }
+
+  /**
+   * A validator with the number of its users. The holder itself is a user
+   * until the validator is replaced.
+   */
+  static final class Generation {
+
+    Generation(DocumentValidator validator) {
+      this.validator = validator;
+    }
+
+    DocumentValidator getValidator() {
+      return validator;
+    }
+
+    /**
+     * Release the generation acquired from the holder. The validator must
+     * not be used by the caller after the release.
+     */
+    void release() {
+      if (users.decrementAndGet() == 0) {
+        validator.close();
+      }
+    }
+
+    private boolean retain() {
+      while (true) {
+        int count = users.get();
+        if (count == 0) {
+          return false;
+        }
+        if (users.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    private final DocumentValidator validator;
+
+    private final AtomicInteger users = new AtomicInteger(1);
+  }
+
+  private final AtomicReference<Generation> current;
+}
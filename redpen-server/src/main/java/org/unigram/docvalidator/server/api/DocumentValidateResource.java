@@ -74,7 +74,7 @@ public class DocumentValidateResource {
     DocumentCollection d = new DocumentCollection();
     d.addDocument(fileContent);
 
-    List<ValidationError> errors = server.getValidator().check(d);
+    List<ValidationError> errors = server.check(d);
 
     JSONArray jsonErrors = new JSONArray();
 
@@ -0,0 +1,93 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.server;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DictionaryWatcherTest {
+
+  @Before
+  public void setUp() throws IOException {
+    dictionaryFile = File.createTempFile("dictionary", ".txt");
+    FileUtils.writeStringToFile(dictionaryFile, "cake\n", "UTF-8");
+    ValidatorConfiguration root = new ValidatorConfiguration("Validator");
+    ValidatorConfiguration sentence =
+        new ValidatorConfiguration("SentenceIterator", root);
+    root.addChild(sentence);
+    ValidatorConfiguration invalidExpression =
+        new ValidatorConfiguration("InvalidExpression", sentence);
+    invalidExpression.addAttribute("dictionary", dictionaryFile.getPath());
+    sentence.addChild(invalidExpression);
+    watcher = new DictionaryWatcher(new Configuration(root));
+  }
+
+  @After
+  public void tearDown() {
+    dictionaryFile.delete();
+  }
+
+  @Test
+  public void testChangeIsReportedWhenStable() throws IOException {
+    assertEquals(2, watcher.getFileCount());
+    assertFalse(watcher.poll());
+
+    FileUtils.writeStringToFile(dictionaryFile, "cake\npie\n", "UTF-8");
+    // not reported while the file may still be written
+    assertFalse(watcher.poll());
+    assertTrue(watcher.poll());
+    assertFalse(watcher.poll());
+  }
+
+  @Test
+  public void testChangeDuringWriteIsDelayed() throws IOException {
+    FileUtils.writeStringToFile(dictionaryFile, "cake\npie\n", "UTF-8");
+    assertFalse(watcher.poll());
+    FileUtils.writeStringToFile(dictionaryFile, "cake\npie\npiece\n",
+        "UTF-8");
+    assertFalse(watcher.poll());
+    assertTrue(watcher.poll());
+  }
+
+  @Test
+  public void testRestoredFileIsNotReported() throws IOException {
+    long lastModified = dictionaryFile.lastModified();
+    FileUtils.writeStringToFile(dictionaryFile, "pie!\n", "UTF-8");
+    dictionaryFile.setLastModified(lastModified + 2000);
+    assertFalse(watcher.poll());
+    FileUtils.writeStringToFile(dictionaryFile, "cake\n", "UTF-8");
+    dictionaryFile.setLastModified(lastModified);
+    assertFalse(watcher.poll());
+    assertFalse(watcher.poll());
+  }
+
+  private File dictionaryFile;
+
+  private DictionaryWatcher watcher;
+}
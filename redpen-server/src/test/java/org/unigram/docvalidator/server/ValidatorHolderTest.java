@@ -0,0 +1,151 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.unigram.docvalidator.server;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.unigram.docvalidator.DocumentValidator;
+import org.unigram.docvalidator.DocumentValidatorException;
+import org.unigram.docvalidator.config.Configuration;
+import org.unigram.docvalidator.config.ValidatorConfiguration;
+import org.unigram.docvalidator.util.CompiledDictionary;
+import org.unigram.docvalidator.util.DictionaryRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValidatorHolderTest {
+
+  @Before
+  public void setUp() throws IOException {
+    dictionaryFile = File.createTempFile("dictionary", ".txt");
+    FileUtils.writeStringToFile(dictionaryFile, "cake\n", "UTF-8");
+    registry = DictionaryRegistry.getInstance();
+    dictionary = registry.acquireWordList(dictionaryFile.getPath());
+  }
+
+  @After
+  public void tearDown() {
+    registry.release(dictionary);
+    dictionaryFile.delete();
+  }
+
+  @Test
+  public void testReplacedValidatorIsClosedAfterLastUse()
+      throws DocumentValidatorException {
+    ValidatorHolder holder = new ValidatorHolder(buildValidator());
+    ValidatorHolder.Generation first = holder.acquire();
+    holder.swap(buildValidator());
+    // the replaced validator is still used by the first generation
+    assertEquals(3, registry.getReferenceCount(dictionary));
+
+    ValidatorHolder.Generation second = holder.acquire();
+    assertTrue(first.getValidator() != second.getValidator());
+    first.release();
+    assertEquals(2, registry.getReferenceCount(dictionary));
+
+    second.release();
+    assertEquals(2, registry.getReferenceCount(dictionary));
+    holder.shutdown();
+    assertEquals(1, registry.getReferenceCount(dictionary));
+  }
+
+  @Test
+  public void testAcquireReturnsCurrentValidator()
+      throws DocumentValidatorException {
+    DocumentValidator validator = buildValidator();
+    ValidatorHolder holder = new ValidatorHolder(validator);
+    ValidatorHolder.Generation generation = holder.acquire();
+    assertSame(validator, generation.getValidator());
+    generation.release();
+    holder.shutdown();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAcquireAfterShutdown() throws DocumentValidatorException {
+    ValidatorHolder holder = new ValidatorHolder(buildValidator());
+    holder.shutdown();
+    holder.acquire();
+  }
+
+  @Test(timeout = 30000)
+  public void testConcurrentSwaps() throws Exception {
+    final ValidatorHolder holder = new ValidatorHolder(buildValidator());
+    final List<Throwable> failures =
+        Collections.synchronizedList(new ArrayList<Throwable>());
+    Thread[] users = new Thread[4];
+    for (int i = 0; i < users.length; i++) {
+      users[i] = new Thread(new Runnable() {
+        public void run() {
+          try {
+            for (int j = 0; j < 200; j++) {
+              ValidatorHolder.Generation generation = holder.acquire();
+              // the acquired validator keeps its dictionary
+              assertTrue(registry.getReferenceCount(dictionary) >= 2);
+              generation.release();
+            }
+          } catch (Throwable e) {
+            failures.add(e);
+          }
+        }
+      });
+      users[i].start();
+    }
+    for (int i = 0; i < 50; i++) {
+      holder.swap(buildValidator());
+    }
+    for (Thread user : users) {
+      user.join();
+    }
+    holder.shutdown();
+
+    assertTrue(failures.toString(), failures.isEmpty());
+    // every validator was closed exactly once
+    assertEquals(1, registry.getReferenceCount(dictionary));
+  }
+
+  private DocumentValidator buildValidator()
+      throws DocumentValidatorException {
+    ValidatorConfiguration root = new ValidatorConfiguration("Validator");
+    ValidatorConfiguration sentence =
+        new ValidatorConfiguration("SentenceIterator", root);
+    root.addChild(sentence);
+    ValidatorConfiguration invalidExpression =
+        new ValidatorConfiguration("InvalidExpression", sentence);
+    invalidExpression.addAttribute("dictionary", dictionaryFile.getPath());
+    sentence.addChild(invalidExpression);
+    return new DocumentValidator.Builder()
+        .setConfiguration(new Configuration(root))
+        .build();
+  }
+
+  private File dictionaryFile;
+
+  private DictionaryRegistry registry;
+
+  private CompiledDictionary dictionary;
+}